@@ -13,9 +13,13 @@
 package org.openhab.automation.groovyscripting.internal;
 
 import java.io.File;
+import java.util.Map;
+import java.util.TreeMap;
 
+import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.CompilationCustomizer;
+import org.codehaus.groovy.control.customizers.ImportCustomizer;
 import org.openhab.core.OpenHAB;
 
 import groovy.lang.GroovyClassLoader;
@@ -24,6 +28,8 @@ import groovy.lang.GroovyClassLoader;
  * Customizes the {@link GroovyClassLoader} so that {@link CompilationCustomizer}s can be added which allows for
  * importing additional classes via scopes.
  *
+ * If a {@link GroovyClassCache} is given, scripts are compiled through the cache instead of by this class loader.
+ *
  * @author Wouter Born - Initial contribution
  */
 public class CustomizableGroovyClassLoader extends GroovyClassLoader {
@@ -31,19 +37,63 @@ public class CustomizableGroovyClassLoader extends GroovyClassLoader {
     private static final String FILE_DIRECTORY = "automation" + File.separator + "groovy";
 
     private CompilerConfiguration config;
+    private final GroovyClassCache classCache;
+    private final Map<String, String> imports = new TreeMap<>();
 
     public CustomizableGroovyClassLoader() {
-        this(CustomizableGroovyClassLoader.class.getClassLoader(), new CompilerConfiguration(), true);
+        this(null);
+    }
+
+    public CustomizableGroovyClassLoader(GroovyClassCache classCache) {
+        this(CustomizableGroovyClassLoader.class.getClassLoader(), new CompilerConfiguration(), true, classCache);
     }
 
     public CustomizableGroovyClassLoader(ClassLoader parent, CompilerConfiguration config,
             boolean useConfigurationClasspath) {
+        this(parent, config, useConfigurationClasspath, null);
+    }
+
+    public CustomizableGroovyClassLoader(ClassLoader parent, CompilerConfiguration config,
+            boolean useConfigurationClasspath, GroovyClassCache classCache) {
         super(parent, config, useConfigurationClasspath);
         this.config = config;
+        this.classCache = classCache;
         addClasspath(OpenHAB.getConfigFolder() + File.separator + FILE_DIRECTORY);
     }
 
     public void addCompilationCustomizers(CompilationCustomizer... customizers) {
         config.addCompilationCustomizers(customizers);
     }
+
+    /**
+     * Adds imports of classes to all scripts compiled by this class loader.
+     *
+     * @param aliases class names by the alias they are imported as
+     */
+    public void addImports(Map<String, String> aliases) {
+        ImportCustomizer importCustomizer = new ImportCustomizer();
+        aliases.forEach(importCustomizer::addImport);
+        addCompilationCustomizers(importCustomizer);
+        synchronized (imports) {
+            imports.putAll(aliases);
+        }
+    }
+
+    /**
+     * @return class names by the alias they are imported as, these determine how a script is compiled
+     */
+    public Map<String, String> getImports() {
+        synchronized (imports) {
+            return new TreeMap<>(imports);
+        }
+    }
+
+    @Override
+    public Class<?> parseClass(String text, String fileName) throws CompilationFailedException {
+        GroovyClassCache localClassCache = classCache;
+        if (localClassCache == null) {
+            return super.parseClass(text, fileName);
+        }
+        return localClassCache.getOrCompile(text, fileName, getImports());
+    }
 }
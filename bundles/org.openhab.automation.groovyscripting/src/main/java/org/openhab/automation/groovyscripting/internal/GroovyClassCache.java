@@ -0,0 +1,326 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.groovyscripting.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.SourceUnit;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import groovy.lang.GroovySystem;
+
+/**
+ * Cache of compiled script classes shared by all Groovy script engines, so that identical scripts are compiled only
+ * once.
+ *
+ * Scripts are identified by a hash of their text, the imports they are compiled with and the Groovy version. Every
+ * script is compiled by its own class loader, which is released together with the class when it is evicted from the
+ * cache.
+ *
+ * If a persistence folder is given, the byte code of compiled scripts is also written to that folder, so that unchanged
+ * scripts do not need to be compiled after a restart.
+ *
+ * Scripts whose compilation also compiled other sources, e.g. classes from the <code>automation/groovy</code> folder,
+ * are neither cached nor persisted, as changes to those sources would not be noticed.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class GroovyClassCache {
+
+    private static final String MAIN_CLASS_FILE = "main";
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    /** persisted scripts that were not used for this time are deleted */
+    private static final Duration PERSISTED_MAX_AGE = Duration.ofDays(30);
+
+    private final Logger logger = LoggerFactory.getLogger(GroovyClassCache.class);
+
+    private final Map<String, Class<?>> classes;
+    private final @Nullable Path persistenceFolder;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong persistedHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxEntries maximum number of compiled scripts kept in memory
+     * @param persistenceFolder folder to persist compiled scripts to, or null to keep them in memory only
+     */
+    public GroovyClassCache(int maxEntries, @Nullable Path persistenceFolder) {
+        this.classes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, Class<?>> eldest) {
+                if (size() > maxEntries) {
+                    // dropping the class allows its class loader to be garbage collected once no engine uses it
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        });
+        this.persistenceFolder = persistenceFolder;
+        if (persistenceFolder != null) {
+            deleteOutdated(persistenceFolder);
+        }
+    }
+
+    /**
+     * Returns the compiled class of a script, compiling it if it is not cached yet.
+     *
+     * @param text the script
+     * @param fileName the file name used for compiling the script
+     * @param imports class names by the alias they are imported as
+     * @return the script class
+     * @throws CompilationFailedException if the script cannot be compiled
+     */
+    public Class<?> getOrCompile(String text, String fileName, Map<String, String> imports)
+            throws CompilationFailedException {
+        String key = key(text, imports);
+        Class<?> clazz = classes.get(key);
+        if (clazz != null) {
+            hits.incrementAndGet();
+            logger.trace("Using cached class {} for script {}", clazz.getName(), fileName);
+            return clazz;
+        }
+
+        Path localPersistenceFolder = persistenceFolder;
+        clazz = localPersistenceFolder != null ? loadPersisted(localPersistenceFolder.resolve(key), imports) : null;
+        if (clazz != null) {
+            persistedHits.incrementAndGet();
+            logger.trace("Using persisted class {} for script {}", clazz.getName(), fileName);
+        } else {
+            misses.incrementAndGet();
+            RecordingClassLoader loader = new RecordingClassLoader();
+            loader.addImports(imports);
+            clazz = loader.parseClass(text, fileName);
+            logger.trace("Compiled class {} for script {}", clazz.getName(), fileName);
+            if (!loader.isSelfContained()) {
+                logger.trace("Not caching class {}, it depends on other sources", clazz.getName());
+                return clazz;
+            }
+            if (localPersistenceFolder != null) {
+                persist(localPersistenceFolder, key, clazz.getName(), loader.getClassFiles());
+            }
+        }
+        classes.put(key, clazz);
+        return clazz;
+    }
+
+    private static String key(String text, Map<String, String> imports) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(GroovySystem.getVersion().getBytes(StandardCharsets.UTF_8));
+            for (Map.Entry<String, String> entry : imports.entrySet()) {
+                digest.update((byte) 0);
+                digest.update((entry.getKey() + "=" + entry.getValue()).getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private @Nullable Class<?> loadPersisted(Path folder, Map<String, String> imports) {
+        if (!Files.isDirectory(folder)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(folder)) {
+            String mainClass = Files.readString(folder.resolve(MAIN_CLASS_FILE), StandardCharsets.UTF_8);
+            Map<String, byte[]> classFiles = new HashMap<>();
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(CLASS_FILE_EXTENSION)) {
+                    classFiles.put(fileName.substring(0, fileName.length() - CLASS_FILE_EXTENSION.length()),
+                            Files.readAllBytes(file));
+                }
+            }
+            PersistedClassLoader loader = new PersistedClassLoader(classFiles);
+            loader.addImports(imports);
+            Class<?> clazz = loader.loadClass(mainClass);
+            Files.setLastModifiedTime(folder, FileTime.from(Instant.now()));
+            return clazz;
+        } catch (IOException | ClassNotFoundException | LinkageError e) {
+            logger.debug("Failed to load persisted script classes from {}, compiling again: {}", folder,
+                    e.getMessage());
+            delete(folder);
+            return null;
+        }
+    }
+
+    private void persist(Path persistenceFolder, String key, String mainClass, Map<String, byte[]> classFiles) {
+        Path folder = persistenceFolder.resolve(key);
+        Path tempFolder = persistenceFolder.resolve(key + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createDirectories(tempFolder);
+            for (Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
+                Files.write(tempFolder.resolve(classFile.getKey() + CLASS_FILE_EXTENSION), classFile.getValue());
+            }
+            Files.writeString(tempFolder.resolve(MAIN_CLASS_FILE), mainClass, StandardCharsets.UTF_8);
+            Files.move(tempFolder, folder, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // e.g. the same script was persisted concurrently
+            logger.debug("Failed to persist script classes to {}: {}", folder, e.getMessage());
+            delete(tempFolder);
+        }
+    }
+
+    private void deleteOutdated(Path persistenceFolder) {
+        if (!Files.isDirectory(persistenceFolder)) {
+            return;
+        }
+        Instant threshold = Instant.now().minus(PERSISTED_MAX_AGE);
+        try (Stream<Path> folders = Files.list(persistenceFolder)) {
+            folders.filter(folder -> {
+                try {
+                    return folder.getFileName().toString().endsWith(".tmp")
+                            || Files.getLastModifiedTime(folder).toInstant().isBefore(threshold);
+                } catch (IOException e) {
+                    return true;
+                }
+            }).forEach(this::delete);
+        } catch (IOException e) {
+            logger.debug("Failed to clean up persisted script classes in {}: {}", persistenceFolder, e.getMessage());
+        }
+    }
+
+    private void delete(Path folder) {
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.debug("Failed to delete {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.debug("Failed to delete {}: {}", folder, e.getMessage());
+        }
+    }
+
+    public int getSize() {
+        return classes.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getPersistedHits() {
+        return persistedHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public String getStatistics() {
+        return String.format("size=%d, hits=%d, persistedHits=%d, misses=%d, evictions=%d", getSize(), getHits(),
+                getPersistedHits(), getMisses(), getEvictions());
+    }
+
+    /**
+     * Class loader compiling a single script which records the byte code of all generated classes.
+     */
+    private static class RecordingClassLoader extends CustomizableGroovyClassLoader {
+        private final Map<String, byte[]> classFiles = new HashMap<>();
+        private boolean selfContained = true;
+
+        @Override
+        protected ClassCollector createCollector(@Nullable CompilationUnit unit, @Nullable SourceUnit su) {
+            return new ClassCollector(new InnerLoader(this), unit, su) {
+                @Override
+                protected @Nullable Class<?> createClass(byte @Nullable [] code, @Nullable ClassNode classNode) {
+                    if (code != null && classNode != null) {
+                        classFiles.put(classNode.getName(), code);
+                        ModuleNode module = classNode.getModule();
+                        if (module == null || module.getContext() != su) {
+                            selfContained = false;
+                        }
+                    }
+                    return super.createClass(code, classNode);
+                }
+            };
+        }
+
+        Map<String, byte[]> getClassFiles() {
+            return classFiles;
+        }
+
+        /**
+         * @return whether all generated classes stem from the compiled script
+         */
+        boolean isSelfContained() {
+            return selfContained;
+        }
+    }
+
+    /**
+     * Class loader defining previously persisted classes of a single script.
+     */
+    private static class PersistedClassLoader extends CustomizableGroovyClassLoader {
+        private final Map<String, byte[]> classFiles;
+
+        PersistedClassLoader(Map<String, byte[]> classFiles) {
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        protected Class<?> findClass(@Nullable String name) throws ClassNotFoundException {
+            if (name != null) {
+                byte[] code = classFiles.remove(name);
+                if (code != null) {
+                    return defineClass(name, code, 0, code.length);
+                }
+            }
+            return super.findClass(name);
+        }
+    }
+}
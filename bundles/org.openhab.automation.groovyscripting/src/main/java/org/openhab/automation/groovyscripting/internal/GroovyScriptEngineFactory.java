@@ -12,35 +12,85 @@
  */
 package org.openhab.automation.groovyscripting.internal;
 
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import javax.script.ScriptEngine;
 
-import org.codehaus.groovy.control.customizers.ImportCustomizer;
 import org.codehaus.groovy.jsr223.GroovyScriptEngineImpl;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.automation.module.script.AbstractScriptEngineFactory;
 import org.openhab.core.automation.module.script.ScriptEngineFactory;
+import org.openhab.core.config.core.ConfigParser;
+import org.openhab.core.config.core.ConfigurableService;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This is an implementation of a {@link ScriptEngineFactory} for Groovy.
  *
  * @author Wouter Born - Initial contribution
  */
-@Component(service = ScriptEngineFactory.class)
+@Component(service = ScriptEngineFactory.class, configurationPid = "org.openhab.groovyscripting", property = Constants.SERVICE_PID
+        + "=org.openhab.groovyscripting")
+@ConfigurableService(category = "automation", label = "Groovy Scripting", description_uri = "automation:groovyscripting")
 @NonNullByDefault
 public class GroovyScriptEngineFactory extends AbstractScriptEngineFactory {
 
+    private static final String CFG_CLASS_CACHE_SIZE = "classCacheSize";
+    private static final String CFG_CLASS_CACHE_PERSISTENT = "classCachePersistent";
+    private static final Path CLASS_CACHE_FOLDER = Path.of(OpenHAB.getUserDataFolder(), "cache",
+            GroovyScriptEngineFactory.class.getPackageName(), "classes");
+
+    private final Logger logger = LoggerFactory.getLogger(GroovyScriptEngineFactory.class);
+
     private final org.codehaus.groovy.jsr223.GroovyScriptEngineFactory factory = new org.codehaus.groovy.jsr223.GroovyScriptEngineFactory();
 
     private final List<String> scriptTypes = Stream.of(factory.getExtensions(), factory.getMimeTypes())
             .flatMap(List::stream) //
             .toList();
 
+    private @Nullable GroovyClassCache classCache;
+
+    @Activate
+    public GroovyScriptEngineFactory(Map<String, Object> config) {
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        logStatistics();
+        int classCacheSize = ConfigParser.valueAsOrElse(config.get(CFG_CLASS_CACHE_SIZE), Integer.class, 0);
+        boolean classCachePersistent = ConfigParser.valueAsOrElse(config.get(CFG_CLASS_CACHE_PERSISTENT),
+                Boolean.class, false);
+        classCache = classCacheSize > 0
+                ? new GroovyClassCache(classCacheSize, classCachePersistent ? CLASS_CACHE_FOLDER : null)
+                : null;
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        logStatistics();
+        classCache = null;
+    }
+
+    private void logStatistics() {
+        GroovyClassCache localClassCache = classCache;
+        if (localClassCache != null) {
+            logger.debug("Compiled class cache statistics: {}", localClassCache.getStatistics());
+        }
+    }
+
     @Override
     public List<String> getScriptTypes() {
         return scriptTypes;
@@ -48,10 +98,10 @@ public class GroovyScriptEngineFactory extends AbstractScriptEngineFactory {
 
     @Override
     public void scopeValues(ScriptEngine scriptEngine, Map<String, Object> scopeValues) {
-        ImportCustomizer importCustomizer = new ImportCustomizer();
+        Map<String, String> imports = new HashMap<>();
         for (Map.Entry<String, Object> entry : scopeValues.entrySet()) {
             if (entry.getValue() instanceof Class<?> clazz) {
-                importCustomizer.addImport(entry.getKey(), clazz.getCanonicalName());
+                imports.put(entry.getKey(), clazz.getCanonicalName());
             } else {
                 scriptEngine.put(entry.getKey(), entry.getValue());
             }
@@ -59,12 +109,13 @@ public class GroovyScriptEngineFactory extends AbstractScriptEngineFactory {
 
         GroovyScriptEngineImpl gse = (GroovyScriptEngineImpl) scriptEngine;
         CustomizableGroovyClassLoader cl = (CustomizableGroovyClassLoader) gse.getClassLoader();
-        cl.addCompilationCustomizers(importCustomizer);
+        cl.addImports(imports);
     }
 
     @Override
     public @Nullable ScriptEngine createScriptEngine(String scriptType) {
-        return scriptTypes.contains(scriptType) ? new GroovyScriptEngineImpl(new CustomizableGroovyClassLoader())
+        return scriptTypes.contains(scriptType)
+                ? new GroovyScriptEngineImpl(new CustomizableGroovyClassLoader(classCache))
                 : null;
     }
 }
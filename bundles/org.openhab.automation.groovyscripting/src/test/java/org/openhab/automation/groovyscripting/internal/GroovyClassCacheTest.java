@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.groovyscripting.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.core.OpenHAB;
+
+import groovy.lang.Script;
+
+/**
+ * Tests the {@link GroovyClassCache}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class GroovyClassCacheTest {
+    private @TempDir @NonNullByDefault({}) Path tempDir;
+
+    private static @Nullable Object run(Class<?> clazz) throws Exception {
+        return ((Script) clazz.getDeclaredConstructor().newInstance()).run();
+    }
+
+    private static long countEntries(Path folder) throws Exception {
+        if (!Files.isDirectory(folder)) {
+            return 0;
+        }
+        try (Stream<Path> entries = Files.list(folder)) {
+            return entries.count();
+        }
+    }
+
+    @Test
+    public void sameScriptIsCompiledOnce() {
+        GroovyClassCache cache = new GroovyClassCache(10, null);
+        Class<?> first = cache.getOrCompile("1 + 1", "a.groovy", Map.of());
+        Class<?> second = cache.getOrCompile("1 + 1", "b.groovy", Map.of());
+
+        assertSame(first, second);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void importsArePartOfTheKey() {
+        GroovyClassCache cache = new GroovyClassCache(10, null);
+        Class<?> first = cache.getOrCompile("1 + 1", "a.groovy", Map.of());
+        Class<?> second = cache.getOrCompile("1 + 1", "a.groovy", Map.of("Clock", "java.time.Clock"));
+        Class<?> third = cache.getOrCompile("1 + 2", "a.groovy", Map.of());
+
+        assertNotSame(first, second);
+        assertNotSame(first, third);
+        assertEquals(3, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void leastRecentlyUsedScriptIsEvicted() {
+        GroovyClassCache cache = new GroovyClassCache(1, null);
+        cache.getOrCompile("1 + 1", "a.groovy", Map.of());
+        cache.getOrCompile("1 + 2", "b.groovy", Map.of());
+        cache.getOrCompile("1 + 1", "a.groovy", Map.of());
+
+        assertEquals(1, cache.getSize());
+        assertEquals(3, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    public void persistedScriptIsLoadedAfterRestart() throws Exception {
+        Path persistenceFolder = tempDir.resolve("classes");
+        String script = "[1, 2].collect { it * 2 }";
+
+        GroovyClassCache cache = new GroovyClassCache(10, persistenceFolder);
+        Class<?> compiled = cache.getOrCompile(script, "a.groovy", Map.of());
+        assertEquals(1, countEntries(persistenceFolder));
+
+        GroovyClassCache restarted = new GroovyClassCache(10, persistenceFolder);
+        Class<?> loaded = restarted.getOrCompile(script, "a.groovy", Map.of());
+
+        assertEquals(1, restarted.getPersistedHits());
+        assertEquals(0, restarted.getMisses());
+        assertEquals(compiled.getName(), loaded.getName());
+        assertNotSame(compiled, loaded);
+        assertEquals(List.of(2, 4), run(loaded));
+    }
+
+    @Test
+    public void corruptPersistedScriptIsCompiledAgain() throws Exception {
+        Path persistenceFolder = tempDir.resolve("classes");
+        String script = "1 + 1";
+
+        new GroovyClassCache(10, persistenceFolder).getOrCompile(script, "a.groovy", Map.of());
+        try (Stream<Path> folders = Files.list(persistenceFolder)) {
+            Path folder = folders.findFirst().orElseThrow();
+            Files.writeString(folder.resolve("main"), "does.not.Exist");
+        }
+
+        GroovyClassCache restarted = new GroovyClassCache(10, persistenceFolder);
+        Class<?> compiled = restarted.getOrCompile(script, "a.groovy", Map.of());
+
+        assertEquals(0, restarted.getPersistedHits());
+        assertEquals(1, restarted.getMisses());
+        assertEquals(2, run(compiled));
+    }
+
+    @Test
+    public void scriptUsingOtherSourcesIsNotCached() throws Exception {
+        Path configFolder = tempDir.resolve("conf");
+        Path sourceFolder = configFolder.resolve("automation").resolve("groovy");
+        Files.createDirectories(sourceFolder);
+        Files.writeString(sourceFolder.resolve("Helper.groovy"), "class Helper { static int value() { 42 } }");
+        Path persistenceFolder = tempDir.resolve("classes");
+
+        Properties backup = new Properties(System.getProperties());
+        try {
+            Properties properties = new Properties(System.getProperties());
+            properties.put(OpenHAB.CONFIG_DIR_PROG_ARGUMENT, configFolder.toString());
+            System.setProperties(properties);
+
+            GroovyClassCache cache = new GroovyClassCache(10, persistenceFolder);
+            Class<?> compiled = cache.getOrCompile("Helper.value()", "a.groovy", Map.of());
+
+            assertEquals(42, run(compiled));
+            assertEquals(0, countEntries(persistenceFolder));
+            assertEquals(0, cache.getSize());
+
+            // the changed helper is compiled again together with the unchanged script
+            Files.writeString(sourceFolder.resolve("Helper.groovy"), "class Helper { static int value() { 43 } }");
+            Class<?> recompiled = cache.getOrCompile("Helper.value()", "a.groovy", Map.of());
+
+            assertNotSame(compiled, recompiled);
+            assertEquals(43, run(recompiled));
+            assertEquals(2, cache.getMisses());
+            assertEquals(0, cache.getHits());
+        } finally {
+            System.setProperties(backup);
+        }
+    }
+}
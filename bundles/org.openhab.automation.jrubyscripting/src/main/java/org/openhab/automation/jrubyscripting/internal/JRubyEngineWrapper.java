@@ -44,8 +44,36 @@ public class JRubyEngineWrapper implements Compilable, Invocable, ScriptEngine {
     private static final String CONTEXT_VAR_NAME = "ctx";
     private static final String GLOBAL_VAR_NAME = "$" + CONTEXT_VAR_NAME;
 
-    JRubyEngineWrapper(JRubyEngine engine) {
+    // startup instrumentation, see JRubyStartupMonitor
+    private final long createdAt;
+    private final long engineNanos;
+    private @Nullable String scriptIdentifier;
+
+    /**
+     * @param engine the wrapped engine
+     * @param createdAt {@link System#nanoTime()} when the creation of the engine started
+     * @param engineNanos time it took to create and configure the engine
+     */
+    JRubyEngineWrapper(JRubyEngine engine, long createdAt, long engineNanos) {
         this.engine = Objects.requireNonNull(engine);
+        this.createdAt = createdAt;
+        this.engineNanos = engineNanos;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getEngineNanos() {
+        return engineNanos;
+    }
+
+    @Nullable String getScriptIdentifier() {
+        return scriptIdentifier;
+    }
+
+    void setScriptIdentifier(String scriptIdentifier) {
+        this.scriptIdentifier = scriptIdentifier;
     }
 
     @Override
@@ -60,10 +60,12 @@ public class JRubyScriptEngineConfiguration {
     private static final String REQUIRE_CONFIG_KEY = "require";
     private static final String CHECK_UPDATE_CONFIG_KEY = "check_update";
     private static final String DEPENDENCY_TRACKING_CONFIG_KEY = "dependency_tracking";
+    private static final String LOCAL_CONTEXT_CONFIG_KEY = "local_context";
+    private static final String SINGLETON_LOCAL_CONTEXT = "singleton";
 
     // Map of configuration parameters
     private final Map<String, OptionalConfigurationElement> configurationParameters = Map.ofEntries(
-            Map.entry("local_context",
+            Map.entry(LOCAL_CONTEXT_CONFIG_KEY,
                     new OptionalConfigurationElement(OptionalConfigurationElement.Type.SYSTEM_PROPERTY, "singlethread",
                             "org.jruby.embed.localcontext.scope")),
 
@@ -334,6 +336,16 @@ public class JRubyScriptEngineConfiguration {
         return "true".equals(get(DEPENDENCY_TRACKING_CONFIG_KEY));
     }
 
+    /**
+     * Whether all script engines share a single Ruby runtime, which is the case for the singleton local context.
+     *
+     * The shared runtime is created and configured by {@link #update(Map, ScriptEngineFactory)}, so gems, the
+     * environment and everything required by earlier scripts are already loaded when a script engine is created.
+     */
+    public boolean isSharedRuntime() {
+        return SINGLETON_LOCAL_CONTEXT.equalsIgnoreCase(get(LOCAL_CONTEXT_CONFIG_KEY));
+    }
+
     /**
      * Configure system properties
      * 
@@ -17,6 +17,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -26,6 +28,7 @@ import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.automation.jrubyscripting.internal.JRubyStartupMonitor.StartupTime;
 import org.openhab.automation.jrubyscripting.internal.watch.JRubyDependencyTracker;
 import org.openhab.core.automation.module.script.AbstractScriptEngineFactory;
 import org.openhab.core.automation.module.script.ScriptDependencyTracker;
@@ -61,6 +64,10 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
             Objects.requireNonNull(factory.getMimeTypes()).stream()).toList();
 
     private final JRubyDependencyTracker jrubyDependencyTracker;
+    private final JRubyStartupMonitor jrubyStartupMonitor;
+
+    // Java classes already imported into the shared Ruby runtime
+    private final Set<String> importedClasses = ConcurrentHashMap.newKeySet();
 
     // Adds $ in front of a set of variables so that Ruby recognizes them as global
     // variables
@@ -75,8 +82,9 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
 
     @Activate
     public JRubyScriptEngineFactory(@Reference(target = WatchService.CONFIG_WATCHER_FILTER) WatchService watchService,
-            Map<String, Object> config) {
+            @Reference JRubyStartupMonitor jrubyStartupMonitor, Map<String, Object> config) {
         jrubyDependencyTracker = new JRubyDependencyTracker(watchService, this);
+        this.jrubyStartupMonitor = jrubyStartupMonitor;
         modified(config);
     }
 
@@ -88,6 +96,7 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
     // The modified call updates configuration for the automation
     @Modified
     protected void modified(Map<String, Object> config) {
+        importedClasses.clear();
         configuration.update(config, factory);
         // Re-initialize the dependency tracker's watchers.
         jrubyDependencyTracker.deactivate();
@@ -131,23 +140,52 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
             // But we need this set up before we inject our requires
             scriptEngine.put("$dependencyListener", jrubyDependencyTracker.getTracker(wrapper.getScriptIdentifier()));
         }
+        if (scriptExtension instanceof ScriptExtensionManagerWrapper wrapper
+                && scriptEngine instanceof JRubyEngineWrapper engineWrapper) {
+            engineWrapper.setScriptIdentifier(wrapper.getScriptIdentifier());
+        }
 
         // scopeValues is called twice. The first call only passed 'se'. The second call
         // passed the rest of the
         // presets, including 'ir'. We wait for the second call before running the
         // require statements.
         if (scopeValues.containsKey("ir")) {
+            long requireStart = System.nanoTime();
             configuration.injectRequire(scriptEngine);
+            if (scriptEngine instanceof JRubyEngineWrapper engineWrapper) {
+                recordStartupTime(engineWrapper, System.nanoTime() - requireStart);
+            }
+        }
+    }
+
+    private void recordStartupTime(JRubyEngineWrapper engineWrapper, long requireNanos) {
+        String scriptIdentifier = engineWrapper.getScriptIdentifier();
+        if (scriptIdentifier != null) {
+            jrubyStartupMonitor.record(scriptIdentifier,
+                    new StartupTime(engineWrapper.getEngineNanos(), requireNanos,
+                            System.nanoTime() - engineWrapper.getCreatedAt(), configuration.isSharedRuntime()));
         }
     }
 
     private void importClassesToRuby(ScriptEngine scriptEngine, Map<String, Object> objects) {
+        boolean sharedRuntime = configuration.isSharedRuntime();
+        if (sharedRuntime) {
+            // constants defined in the shared runtime are visible to all scripts, so each class is imported once
+            objects = objects.entrySet().stream().filter(entry -> !importedClasses.contains(entry.getKey()))
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            if (objects.isEmpty()) {
+                return;
+            }
+        }
         try {
             scriptEngine.put("__classes", objects);
             final String code = "__classes.each { |(name, klass)| Object.const_set(name, klass.ruby_class) unless Object.const_defined?(name, false) }";
             scriptEngine.eval(code);
             // clean up our temporary variable
             scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).remove("__classes");
+            if (sharedRuntime) {
+                importedClasses.addAll(objects.keySet());
+            }
         } catch (ScriptException e) {
             logger.debug("Error importing java classes", e);
         }
@@ -158,9 +196,13 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
         if (!scriptTypes.contains(scriptType)) {
             return null;
         }
+        long start = System.nanoTime();
         ScriptEngine engine = factory.getScriptEngine();
-        configuration.configureRubyEnvironment(engine);
-        return new JRubyEngineWrapper((org.jruby.embed.jsr223.JRubyEngine) engine);
+        if (!configuration.isSharedRuntime()) {
+            // the shared runtime has already been configured when the configuration was updated
+            configuration.configureRubyEnvironment(engine);
+        }
+        return new JRubyEngineWrapper((org.jruby.embed.jsr223.JRubyEngine) engine, start, System.nanoTime() - start);
     }
 
     @Override
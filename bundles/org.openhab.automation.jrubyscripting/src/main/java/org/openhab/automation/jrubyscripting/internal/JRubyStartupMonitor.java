@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jrubyscripting.internal;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * OSGi service keeping track of how long it took to start the script engine of each script, so that they can be shown
+ * on the console.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@Component(service = JRubyStartupMonitor.class)
+@NonNullByDefault
+public class JRubyStartupMonitor {
+
+    private final Logger logger = LoggerFactory.getLogger(JRubyStartupMonitor.class);
+
+    private final Map<String, StartupTime> startupTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Startup time of a single script engine.
+     *
+     * @param engineNanos time spent creating the engine, which includes booting the Ruby runtime if it is not shared
+     * @param requireNanos time spent running the configured require statements
+     * @param totalNanos time from creating the engine until it is ready to run the script
+     * @param sharedRuntime whether the engine used the shared Ruby runtime
+     */
+    public record StartupTime(long engineNanos, long requireNanos, long totalNanos, boolean sharedRuntime) {
+    }
+
+    /**
+     * Records the startup time of the engine of a script, replacing that of a previous engine of the same script.
+     *
+     * @param scriptIdentifier the identifier of the script
+     * @param startupTime the startup time
+     */
+    public void record(String scriptIdentifier, StartupTime startupTime) {
+        startupTimes.put(scriptIdentifier, startupTime);
+        logger.debug("Started script engine for '{}' in {} ms (engine: {} ms, requires: {} ms, shared runtime: {})",
+                scriptIdentifier, TimeUnit.NANOSECONDS.toMillis(startupTime.totalNanos()),
+                TimeUnit.NANOSECONDS.toMillis(startupTime.engineNanos()),
+                TimeUnit.NANOSECONDS.toMillis(startupTime.requireNanos()), startupTime.sharedRuntime());
+    }
+
+    /**
+     * @return the startup times by script identifier
+     */
+    public Map<String, StartupTime> getStartupTimes() {
+        return new TreeMap<>(startupTimes);
+    }
+
+    /**
+     * Forgets all recorded startup times.
+     */
+    public void reset() {
+        startupTimes.clear();
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jrubyscripting.internal.console;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.automation.jrubyscripting.internal.JRubyStartupMonitor;
+import org.openhab.automation.jrubyscripting.internal.JRubyStartupMonitor.StartupTime;
+import org.openhab.core.io.console.Console;
+import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
+import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link JRubyScriptingCommandExtension} shows how long it took to start the script engines of the Ruby scripts.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class JRubyScriptingCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String STARTUP = "startup";
+    private static final String RESET = "reset";
+
+    private final JRubyStartupMonitor jrubyStartupMonitor;
+
+    @Activate
+    public JRubyScriptingCommandExtension(final @Reference JRubyStartupMonitor jrubyStartupMonitor) {
+        super("jrubyscripting", "Interact with the JRuby Scripting add-on");
+        this.jrubyStartupMonitor = jrubyStartupMonitor;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && STARTUP.equals(args[0])) {
+            printStartupTimes(console);
+        } else if (args.length == 2 && STARTUP.equals(args[0]) && RESET.equals(args[1])) {
+            jrubyStartupMonitor.reset();
+            console.println("Startup times reset");
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStartupTimes(Console console) {
+        Map<String, StartupTime> startupTimes = jrubyStartupMonitor.getStartupTimes();
+        if (startupTimes.isEmpty()) {
+            console.println("No script engines started");
+            return;
+        }
+        console.printf("%-50s %10s %10s %10s %8s%n", "Script", "Engine", "Requires", "Total", "Shared");
+        long total = 0;
+        for (Map.Entry<String, StartupTime> entry : startupTimes.entrySet()) {
+            StartupTime startupTime = entry.getValue();
+            console.printf("%-50s %10s %10s %10s %8s%n", entry.getKey(), millis(startupTime.engineNanos()),
+                    millis(startupTime.requireNanos()), millis(startupTime.totalNanos()),
+                    startupTime.sharedRuntime() ? "yes" : "no");
+            total += startupTime.totalNanos();
+        }
+        console.printf("%d script engines, %s in total, %s on average%n", startupTimes.size(), millis(total),
+                millis(total / startupTimes.size()));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return List.of(buildCommandUsage(STARTUP, "list how long it took to start the script engines"),
+                buildCommandUsage(STARTUP + " " + RESET, "reset the startup times"));
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of {@link OpenhabGraalJSScriptEngine}s whose polyglot context has already been created and prepared, i.e. the
+ * globals have been evaluated, so that handing out an engine for a new script does not have to wait for that.
+ *
+ * The openhab-js injection is not done ahead of time, as it loads script extensions that belong to the script the
+ * engine is finally used for.
+ *
+ * The pool is refilled in the background whenever an engine has been taken from it.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class GraalJSContextPool {
+
+    private final Logger logger = LoggerFactory.getLogger(GraalJSContextPool.class);
+
+    private final Supplier<OpenhabGraalJSScriptEngine> engineSupplier;
+    private final ExecutorService executor;
+    private final int size;
+    private final BlockingQueue<OpenhabGraalJSScriptEngine> engines;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private volatile boolean closed = false;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong prepared = new AtomicLong();
+    private final AtomicLong prepareTimeNanos = new AtomicLong();
+
+    /**
+     * @param engineSupplier creates new (unprepared) engines
+     * @param executor executor used to prepare engines in the background
+     * @param size number of prepared engines to keep
+     */
+    public GraalJSContextPool(Supplier<OpenhabGraalJSScriptEngine> engineSupplier, ExecutorService executor,
+            int size) {
+        this.engineSupplier = engineSupplier;
+        this.executor = executor;
+        this.size = size;
+        this.engines = new LinkedBlockingQueue<>(size);
+        refill();
+    }
+
+    /**
+     * Takes a prepared engine from the pool.
+     *
+     * @return a prepared engine, or null if the pool is currently empty
+     */
+    public @Nullable OpenhabGraalJSScriptEngine take() {
+        OpenhabGraalJSScriptEngine engine = engines.poll();
+        if (engine != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        refill();
+        return engine;
+    }
+
+    private void refill() {
+        if (closed || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                while (!closed && engines.remainingCapacity() > 0) {
+                    long start = System.nanoTime();
+                    OpenhabGraalJSScriptEngine engine = engineSupplier.get();
+                    try {
+                        engine.prepare();
+                    } catch (RuntimeException e) {
+                        engine.closeContext();
+                        throw e;
+                    }
+                    prepared.incrementAndGet();
+                    prepareTimeNanos.addAndGet(System.nanoTime() - start);
+                    if (!engines.offer(engine)) {
+                        engine.closeContext();
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to prepare GraalJS context: {}", e.getMessage());
+                refilling.set(false);
+                return;
+            }
+            refilling.set(false);
+            if (closed) {
+                // the pool might have been closed while an engine was prepared
+                closeAvailable();
+            } else if (engines.remainingCapacity() > 0) {
+                // engines were taken while the pool was refilled
+                refill();
+            } else {
+                logger.debug("GraalJS context pool refilled: {}", getStatistics());
+            }
+        });
+    }
+
+    /**
+     * Stops refilling the pool and closes all engines that have not been handed out.
+     */
+    public void close() {
+        closed = true;
+        closeAvailable();
+        logger.debug("GraalJS context pool closed: {}", getStatistics());
+    }
+
+    private void closeAvailable() {
+        OpenhabGraalJSScriptEngine engine;
+        while ((engine = engines.poll()) != null) {
+            engine.closeContext();
+        }
+    }
+
+    /**
+     * @return the share of engines that were taken from the pool instead of being created on demand, between 0 and 1
+     */
+    private double getHitRate() {
+        long localHits = hits.get();
+        long total = localHits + misses.get();
+        return total == 0 ? 0 : (double) localHits / total;
+    }
+
+    /**
+     * @return the average time in milliseconds needed to create and prepare an engine
+     */
+    private double getAveragePrepareTimeMillis() {
+        long count = prepared.get();
+        return count == 0 ? 0 : prepareTimeNanos.get() / 1_000_000d / count;
+    }
+
+    /**
+     * @return the fill level, hits, misses, hit rate and average prepare time of the pool, for logging
+     */
+    private String getStatistics() {
+        return String.format("available=%d/%d, hits=%d, misses=%d, hitRate=%.2f, avgPrepareTime=%.1fms",
+                engines.size(), size, hits.get(), misses.get(), getHitRate(), getAveragePrepareTimeMillis());
+    }
+}
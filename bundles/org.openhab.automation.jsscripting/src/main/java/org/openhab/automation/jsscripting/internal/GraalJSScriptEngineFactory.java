@@ -23,11 +23,13 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.automation.jsscripting.internal.fs.watch.JSDependencyTracker;
 import org.openhab.core.automation.module.script.ScriptDependencyTracker;
 import org.openhab.core.automation.module.script.ScriptEngineFactory;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.config.core.ConfigurableService;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 
@@ -46,6 +48,8 @@ import com.oracle.truffle.js.scriptengine.GraalJSEngineFactory;
 public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final String CFG_INJECTION_ENABLED = "injectionEnabled";
     private static final String CFG_INJECTION_CACHING_ENABLED = "injectionCachingEnabled";
+    private static final String CFG_CONTEXT_POOL_SIZE = "contextPoolSize";
+    private static final String POOL_THREAD_NAME = "jsscripting";
 
     private static final GraalJSEngineFactory factory = new GraalJSEngineFactory();
 
@@ -60,15 +64,19 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
 
     private boolean injectionEnabled = true;
     private boolean injectionCachingEnabled = true;
+    private @Nullable GraalJSContextPool contextPool;
 
     private final JSScriptServiceUtil jsScriptServiceUtil;
     private final JSDependencyTracker jsDependencyTracker;
+    private final JSLockMonitor jsLockMonitor;
 
     @Activate
     public GraalJSScriptEngineFactory(final @Reference JSScriptServiceUtil jsScriptServiceUtil,
-            final @Reference JSDependencyTracker jsDependencyTracker, Map<String, Object> config) {
+            final @Reference JSDependencyTracker jsDependencyTracker, final @Reference JSLockMonitor jsLockMonitor,
+            Map<String, Object> config) {
         this.jsDependencyTracker = jsDependencyTracker;
         this.jsScriptServiceUtil = jsScriptServiceUtil;
+        this.jsLockMonitor = jsLockMonitor;
         modified(config);
     }
 
@@ -87,8 +95,17 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         if (!scriptTypes.contains(scriptType)) {
             return null;
         }
-        return new DebuggingGraalScriptEngine<>(new OpenhabGraalJSScriptEngine(injectionEnabled,
-                injectionCachingEnabled, jsScriptServiceUtil, jsDependencyTracker));
+        GraalJSContextPool localContextPool = contextPool;
+        OpenhabGraalJSScriptEngine engine = localContextPool != null ? localContextPool.take() : null;
+        if (engine == null) {
+            engine = createEngine();
+        }
+        return new DebuggingGraalScriptEngine<>(engine);
+    }
+
+    private OpenhabGraalJSScriptEngine createEngine() {
+        return new OpenhabGraalJSScriptEngine(injectionEnabled, injectionCachingEnabled, jsScriptServiceUtil,
+                jsDependencyTracker, jsLockMonitor);
     }
 
     @Override
@@ -101,5 +118,26 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         this.injectionEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_ENABLED), Boolean.class, true);
         this.injectionCachingEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_CACHING_ENABLED),
                 Boolean.class, true);
+
+        // pooled engines have been created with the previous configuration
+        closeContextPool();
+        int contextPoolSize = ConfigParser.valueAsOrElse(config.get(CFG_CONTEXT_POOL_SIZE), Integer.class, 0);
+        if (contextPoolSize > 0) {
+            contextPool = new GraalJSContextPool(this::createEngine, ThreadPoolManager.getPool(POOL_THREAD_NAME),
+                    contextPoolSize);
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        closeContextPool();
+    }
+
+    private void closeContextPool() {
+        GraalJSContextPool localContextPool = contextPool;
+        if (localContextPool != null) {
+            localContextPool.close();
+            contextPool = null;
+        }
     }
 }
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.automation.jsscripting.internal.threading.InstrumentedLock;
+import org.openhab.core.config.core.ConfigParser;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+
+/**
+ * OSGi service creating and keeping track of the {@link InstrumentedLock}s of all script engines, so that their
+ * statistics can be shown on the console.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@Component(service = JSLockMonitor.class, configurationPid = "org.openhab.jsscripting")
+@NonNullByDefault
+public class JSLockMonitor {
+    private static final String CFG_LOCK_WAIT_WARNING_THRESHOLD = "lockWaitWarningThreshold";
+
+    // engines are not always closed, so do not keep their locks from being garbage collected
+    private final Set<InstrumentedLock> locks = Collections
+            .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private volatile long lockWaitWarningThreshold = 0;
+
+    @Activate
+    public JSLockMonitor(Map<String, Object> config) {
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(Map<String, ?> config) {
+        lockWaitWarningThreshold = ConfigParser.valueAsOrElse(config.get(CFG_LOCK_WAIT_WARNING_THRESHOLD),
+                Integer.class, 0);
+    }
+
+    /**
+     * Creates a new lock for a script engine. It is not tracked until it is registered, so that the locks of prepared
+     * engines that have not been handed out to a script yet are not shown.
+     *
+     * @return the lock
+     */
+    public InstrumentedLock createLock() {
+        return new InstrumentedLock(() -> lockWaitWarningThreshold);
+    }
+
+    /**
+     * Starts tracking the lock of a script engine once it is used by a script.
+     *
+     * @param lock the lock, named after the script
+     */
+    public void register(InstrumentedLock lock) {
+        locks.add(lock);
+    }
+
+    /**
+     * Stops tracking the lock of a closed script engine.
+     *
+     * @param lock the lock
+     */
+    public void remove(InstrumentedLock lock) {
+        locks.remove(lock);
+    }
+
+    /**
+     * @return the locks of all script engines
+     */
+    public List<InstrumentedLock> getLocks() {
+        synchronized (locks) {
+            return new ArrayList<>(locks);
+        }
+    }
+}
@@ -31,11 +31,11 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -53,6 +53,7 @@ import org.openhab.automation.jsscripting.internal.fs.PrefixedSeekableByteChanne
 import org.openhab.automation.jsscripting.internal.fs.ReadOnlySeekableByteArrayChannel;
 import org.openhab.automation.jsscripting.internal.fs.watch.JSDependencyTracker;
 import org.openhab.automation.jsscripting.internal.scriptengine.InvocationInterceptingScriptEngineWithInvocableAndCompilableAndAutoCloseable;
+import org.openhab.automation.jsscripting.internal.threading.InstrumentedLock;
 import org.openhab.core.automation.module.script.ScriptExtensionAccessor;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.types.QuantityType;
@@ -134,13 +135,16 @@ public class OpenhabGraalJSScriptEngine
     private final Logger logger = LoggerFactory.getLogger(OpenhabGraalJSScriptEngine.class);
 
     /** {@link Lock} synchronization of multi-thread access */
-    private final Lock lock = new ReentrantLock();
+    private final InstrumentedLock lock;
+    private final JSLockMonitor jsLockMonitor;
     private final JSRuntimeFeatures jsRuntimeFeatures;
 
     // these fields start as null because they are populated on first use
     private @Nullable Consumer<String> scriptDependencyListener;
     private String engineIdentifier; // this field is very helpful for debugging, please do not remove it
+    private @Nullable ScriptExtensionModuleProvider scriptExtensionModuleProvider;
 
+    private boolean prepared = false;
     private boolean initialized = false;
     private final boolean injectionEnabled;
     private final boolean injectionCachingEnabled;
@@ -150,10 +154,13 @@ public class OpenhabGraalJSScriptEngine
      * that tracks the script lifecycle and provides hooks for scripts to do so too.
      */
     public OpenhabGraalJSScriptEngine(boolean injectionEnabled, boolean injectionCachingEnabled,
-            JSScriptServiceUtil jsScriptServiceUtil, JSDependencyTracker jsDependencyTracker) {
+            JSScriptServiceUtil jsScriptServiceUtil, JSDependencyTracker jsDependencyTracker,
+            JSLockMonitor jsLockMonitor) {
         super(null); // delegate depends on fields not yet initialised, so we cannot set it immediately
         this.injectionEnabled = injectionEnabled;
         this.injectionCachingEnabled = injectionCachingEnabled;
+        this.jsLockMonitor = jsLockMonitor;
+        this.lock = jsLockMonitor.createLock();
         this.jsRuntimeFeatures = jsScriptServiceUtil.getJSRuntimeFeatures(lock);
 
         delegate = GraalJSScriptEngine.create(ENGINE,
@@ -225,6 +232,40 @@ public class OpenhabGraalJSScriptEngine
                         }));
     }
 
+    /**
+     * Performs the part of the initialization that does not depend on the script the engine is used for: creates the
+     * polyglot context, wraps "require", injects the {@link JSRuntimeFeatures} and evaluates the global script.
+     *
+     * This is called on first invocation, or ahead of time for engines kept in the {@link GraalJSContextPool}.
+     */
+    void prepare() {
+        if (prepared) {
+            return;
+        }
+        prepared = true;
+
+        // Wrap the "require" function to also allow loading modules from the ScriptExtensionModuleProvider.
+        // The provider is only known once the engine is used for a script, so it is looked up when "require" is called.
+        Function<Function<Object[], Object>, Function<String, Object>> wrapRequireFn = originalRequireFn -> moduleName -> {
+            ScriptExtensionModuleProvider localScriptExtensionModuleProvider = scriptExtensionModuleProvider;
+            Optional<Value> module = localScriptExtensionModuleProvider == null ? Optional.empty()
+                    : localScriptExtensionModuleProvider.locatorFor(delegate.getPolyglotContext(), engineIdentifier)
+                            .locateModule(moduleName);
+            return module.map(m -> (Object) m).orElseGet(() -> originalRequireFn.apply(new Object[] { moduleName }));
+        };
+        delegate.getBindings(ScriptContext.ENGINE_SCOPE).put(REQUIRE_WRAPPER_NAME, wrapRequireFn);
+        delegate.put("require", wrapRequireFn.apply((Function<Object[], Object>) delegate.get("require")));
+
+        // Injections into the JS runtime
+        jsRuntimeFeatures.getFeatures().forEach((key, obj) -> {
+            logger.debug("Injecting {} into the JS runtime...", key);
+            delegate.put(key, obj);
+        });
+
+        logger.debug("Evaluating cached global script...");
+        delegate.getPolyglotContext().eval(GLOBAL_SOURCE);
+    }
+
     @Override
     protected void beforeInvocation() {
         super.beforeInvocation();
@@ -249,6 +290,8 @@ public class OpenhabGraalJSScriptEngine
             throw new IllegalStateException("Failed to retrieve engine identifier from engine bindings");
         }
         this.engineIdentifier = localEngineIdentifier;
+        lock.setName(localEngineIdentifier);
+        jsLockMonitor.register(lock);
 
         ScriptExtensionAccessor scriptExtensionAccessor = (ScriptExtensionAccessor) ctx
                 .getAttribute(CONTEXT_KEY_EXTENSION_ACCESSOR);
@@ -264,27 +307,13 @@ public class OpenhabGraalJSScriptEngine
         }
         scriptDependencyListener = localScriptDependencyListener;
 
-        ScriptExtensionModuleProvider scriptExtensionModuleProvider = new ScriptExtensionModuleProvider(
-                scriptExtensionAccessor, lock);
-
-        // Wrap the "require" function to also allow loading modules from the ScriptExtensionModuleProvider
-        Function<Function<Object[], Object>, Function<String, Object>> wrapRequireFn = originalRequireFn -> moduleName -> scriptExtensionModuleProvider
-                .locatorFor(delegate.getPolyglotContext(), localEngineIdentifier).locateModule(moduleName)
-                .map(m -> (Object) m).orElseGet(() -> originalRequireFn.apply(new Object[] { moduleName }));
-        delegate.getBindings(ScriptContext.ENGINE_SCOPE).put(REQUIRE_WRAPPER_NAME, wrapRequireFn);
-        delegate.put("require", wrapRequireFn.apply((Function<Object[], Object>) delegate.get("require")));
-
-        // Injections into the JS runtime
-        jsRuntimeFeatures.getFeatures().forEach((key, obj) -> {
-            logger.debug("Injecting {} into the JS runtime...", key);
-            delegate.put(key, obj);
-        });
+        scriptExtensionModuleProvider = new ScriptExtensionModuleProvider(scriptExtensionAccessor, lock);
 
         initialized = true;
 
+        prepare();
+
         try {
-            logger.debug("Evaluating cached global script...");
-            delegate.getPolyglotContext().eval(GLOBAL_SOURCE);
             if (this.injectionEnabled) {
                 if (this.injectionCachingEnabled) {
                     logger.debug("Evaluating cached openhab-js injection...");
@@ -316,6 +345,15 @@ public class OpenhabGraalJSScriptEngine
     @Override
     public void close() {
         jsRuntimeFeatures.close();
+        jsLockMonitor.remove(lock);
+    }
+
+    /**
+     * Closes this engine and its polyglot context. Used for engines that are discarded before being handed out.
+     */
+    void closeContext() {
+        close();
+        delegate.close();
     }
 
     /**
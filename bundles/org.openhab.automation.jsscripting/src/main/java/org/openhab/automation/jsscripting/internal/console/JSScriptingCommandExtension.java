@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.console;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.automation.jsscripting.internal.JSLockMonitor;
+import org.openhab.automation.jsscripting.internal.threading.InstrumentedLock;
+import org.openhab.core.io.console.Console;
+import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
+import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link JSScriptingCommandExtension} shows how long the JS script engines are busy and how long callers wait for
+ * them.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class JSScriptingCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String LOCKS = "locks";
+    private static final String RESET = "reset";
+
+    private final JSLockMonitor jsLockMonitor;
+
+    @Activate
+    public JSScriptingCommandExtension(final @Reference JSLockMonitor jsLockMonitor) {
+        super("jsscripting", "Interact with the JavaScript Scripting add-on");
+        this.jsLockMonitor = jsLockMonitor;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && LOCKS.equals(args[0])) {
+            printLocks(console);
+        } else if (args.length == 2 && LOCKS.equals(args[0]) && RESET.equals(args[1])) {
+            jsLockMonitor.getLocks().forEach(InstrumentedLock::resetStatistics);
+            console.println("Lock statistics reset");
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printLocks(Console console) {
+        List<InstrumentedLock> locks = jsLockMonitor.getLocks();
+        if (locks.isEmpty()) {
+            console.println("No script engines");
+            return;
+        }
+        console.printf("%-50s %8s %8s %10s %10s %10s %10s%n", "Script", "Waiting", "Count", "Avg wait", "Max wait",
+                "Avg hold", "Max hold");
+        locks.stream().sorted(Comparator.comparingLong(InstrumentedLock::getTotalWaitNanos).reversed())
+                .forEach(lock -> {
+                    long count = lock.getAcquisitions();
+                    console.printf("%-50s %8d %8d %10s %10s %10s %10s%n", lock.getName(), lock.getQueueLength(), count,
+                            millis(count == 0 ? 0 : lock.getTotalWaitNanos() / count), millis(lock.getMaxWaitNanos()),
+                            millis(count == 0 ? 0 : lock.getTotalHoldNanos() / count), millis(lock.getMaxHoldNanos()));
+                });
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return List.of(buildCommandUsage(LOCKS, "list wait and hold times of the script engine locks"),
+                buildCommandUsage(LOCKS + " " + RESET, "reset the lock statistics"));
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ReentrantLock} based {@link Lock} that measures how long threads wait for and hold the lock of a script
+ * engine. Only the outermost acquisition of a thread is measured, reentrant acquisitions are free. Time spent awaiting
+ * a {@link Condition} of the lock does not count as hold time.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class InstrumentedLock implements Lock {
+    private final Logger logger = LoggerFactory.getLogger(InstrumentedLock.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongSupplier waitWarningThresholdMillis;
+    private volatile String name = "javascript";
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalHoldNanos = new AtomicLong();
+    private final AtomicLong maxHoldNanos = new AtomicLong();
+
+    // only accessed by the thread holding the lock
+    private long acquiredAt;
+
+    /**
+     * @param waitWarningThresholdMillis provides the wait time in milliseconds above which a warning is logged, 0 to
+     *            disable the warning
+     */
+    public InstrumentedLock(LongSupplier waitWarningThresholdMillis) {
+        this.waitWarningThresholdMillis = waitWarningThresholdMillis;
+    }
+
+    /**
+     * Sets the name used in log messages and statistics, usually the identifier of the script.
+     *
+     * @param name name of the lock
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void lock() {
+        if (lock.isHeldByCurrentThread()) {
+            lock.lock();
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        acquired(start);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (lock.isHeldByCurrentThread()) {
+            lock.lockInterruptibly();
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lockInterruptibly();
+        acquired(start);
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (lock.isHeldByCurrentThread()) {
+            return lock.tryLock();
+        }
+        long start = System.nanoTime();
+        if (lock.tryLock()) {
+            acquired(start);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (lock.isHeldByCurrentThread()) {
+            return lock.tryLock(time, unit);
+        }
+        long start = System.nanoTime();
+        if (lock.tryLock(time, unit)) {
+            acquired(start);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void unlock() {
+        if (lock.getHoldCount() == 1) {
+            released();
+        }
+        lock.unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new InstrumentedCondition(lock.newCondition());
+    }
+
+    private void released() {
+        long held = System.nanoTime() - acquiredAt;
+        totalHoldNanos.addAndGet(held);
+        maxHoldNanos.accumulateAndGet(held, Math::max);
+    }
+
+    private void acquired(long start) {
+        acquiredAt = System.nanoTime();
+        long waited = acquiredAt - start;
+        acquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        long threshold = waitWarningThresholdMillis.getAsLong();
+        if (threshold > 0 && TimeUnit.NANOSECONDS.toMillis(waited) > threshold) {
+            logger.warn("Waited {} ms for the lock of script '{}', it is busy with other invocations, timers or rules.",
+                    TimeUnit.NANOSECONDS.toMillis(waited), name);
+        }
+    }
+
+    /**
+     * {@link Condition} that stops measuring the hold time while the lock is released to await the condition.
+     */
+    private class InstrumentedCondition implements Condition {
+        private final Condition condition;
+
+        InstrumentedCondition(Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            boolean held = beforeAwait();
+            try {
+                condition.await();
+            } finally {
+                afterAwait(held);
+            }
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            boolean held = beforeAwait();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                afterAwait(held);
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            boolean held = beforeAwait();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                afterAwait(held);
+            }
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            boolean held = beforeAwait();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                afterAwait(held);
+            }
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            boolean held = beforeAwait();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                afterAwait(held);
+            }
+        }
+
+        @Override
+        public void signal() {
+            condition.signal();
+        }
+
+        @Override
+        public void signalAll() {
+            condition.signalAll();
+        }
+
+        private boolean beforeAwait() {
+            // awaiting without holding the lock fails, so there is nothing to measure then
+            boolean held = lock.isHeldByCurrentThread();
+            if (held) {
+                released();
+            }
+            return held;
+        }
+
+        private void afterAwait(boolean held) {
+            if (held) {
+                acquiredAt = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * @return number of threads currently waiting for the lock
+     */
+    public int getQueueLength() {
+        return lock.getQueueLength();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.get();
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.get();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    public long getTotalHoldNanos() {
+        return totalHoldNanos.get();
+    }
+
+    public long getMaxHoldNanos() {
+        return maxHoldNanos.get();
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public void resetStatistics() {
+        acquisitions.set(0);
+        totalWaitNanos.set(0);
+        maxWaitNanos.set(0);
+        totalHoldNanos.set(0);
+        maxHoldNanos.set(0);
+    }
+}
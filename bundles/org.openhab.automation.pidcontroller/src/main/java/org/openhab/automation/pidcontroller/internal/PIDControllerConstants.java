@@ -28,6 +28,7 @@ public class PIDControllerConstants {
     public static final String CONFIG_SETPOINT_ITEM = "setpoint";
     public static final String CONFIG_COMMAND_ITEM = "commandItem";
     public static final String CONFIG_LOOP_TIME = "loopTime";
+    public static final String CONFIG_FIXED_RATE = "fixedRate";
     public static final String CONFIG_KP_GAIN = "kp";
     public static final String CONFIG_KI_GAIN = "ki";
     public static final String CONFIG_KD_GAIN = "kd";
@@ -38,5 +39,7 @@ public class PIDControllerConstants {
     public static final String I_INSPECTOR = "iInspector";
     public static final String D_INSPECTOR = "dInspector";
     public static final String E_INSPECTOR = "eInspector";
+    public static final String JITTER_INSPECTOR = "jitterInspector";
+    public static final String EXECUTION_TIME_INSPECTOR = "executionTimeInspector";
     public static final String COMMAND = "command";
 }
@@ -14,6 +14,7 @@ package org.openhab.automation.pidcontroller.internal.factory;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -23,11 +24,13 @@ import org.openhab.core.automation.Trigger;
 import org.openhab.core.automation.handler.BaseModuleHandlerFactory;
 import org.openhab.core.automation.handler.ModuleHandler;
 import org.openhab.core.automation.handler.ModuleHandlerFactory;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.events.EventPublisher;
 import org.openhab.core.items.ItemRegistry;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 
 /**
@@ -41,6 +44,11 @@ public class PIDControllerModuleHandlerFactory extends BaseModuleHandlerFactory
     private ItemRegistry itemRegistry;
     private EventPublisher eventPublisher;
     private BundleContext bundleContext;
+    // runs the loops with a fixed rate, so that they are not delayed by busy rules. A single thread is shared by all
+    // fixed rate controllers, as a run only calculates the output and posts events asynchronously. Runs of different
+    // controllers do not overlap, so a slow run delays the others, which shows up in their jitter inspector items.
+    private final ScheduledThreadPoolExecutor loopExecutor = new ScheduledThreadPoolExecutor(1,
+            new NamedThreadFactory("pidcontroller", true, Thread.MAX_PRIORITY));
 
     @Activate
     public PIDControllerModuleHandlerFactory(@Reference ItemRegistry itemRegistry,
@@ -48,6 +56,14 @@ public class PIDControllerModuleHandlerFactory extends BaseModuleHandlerFactory
         this.itemRegistry = itemRegistry;
         this.eventPublisher = eventPublisher;
         this.bundleContext = bundleContext;
+        loopExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    @Deactivate
+    protected void deactivate() {
+        super.deactivate();
+        loopExecutor.shutdownNow();
     }
 
     @Override
@@ -59,7 +75,8 @@ public class PIDControllerModuleHandlerFactory extends BaseModuleHandlerFactory
     protected @Nullable ModuleHandler internalCreate(Module module, String ruleUID) {
         switch (module.getTypeUID()) {
             case PIDControllerTriggerHandler.MODULE_TYPE_ID:
-                return new PIDControllerTriggerHandler((Trigger) module, itemRegistry, eventPublisher, bundleContext);
+                return new PIDControllerTriggerHandler((Trigger) module, itemRegistry, eventPublisher, bundleContext,
+                        loopExecutor);
         }
 
         return null;
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link LoopStatistics} measures the jitter and the execution time of the scheduled runs of the control loop.
+ *
+ * The jitter is the deviation of the time between the starts of two consecutive runs from the loop time. With a fixed
+ * delay it also contains the execution time of the previous run, with a fixed rate it is caused by scheduling delays
+ * only.
+ *
+ * Not thread-safe, runs of the control loop must not overlap.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+class LoopStatistics {
+    private final long loopTimeNanos;
+
+    private long previousStartNanos;
+    private boolean started;
+
+    private long intervals;
+    private long runs;
+    private long lastJitterNanos;
+    private long maxJitterNanos;
+    private long totalJitterNanos;
+    private long lastExecutionNanos;
+    private long maxExecutionNanos;
+    private long totalExecutionNanos;
+
+    LoopStatistics(long loopTimeNanos) {
+        this.loopTimeNanos = loopTimeNanos;
+    }
+
+    /**
+     * Records the start of a run.
+     *
+     * @param startNanos {@link System#nanoTime()} at the start of the run
+     */
+    void started(long startNanos) {
+        if (started) {
+            lastJitterNanos = Math.abs(startNanos - previousStartNanos - loopTimeNanos);
+            maxJitterNanos = Math.max(maxJitterNanos, lastJitterNanos);
+            totalJitterNanos += lastJitterNanos;
+            intervals++;
+        }
+        previousStartNanos = startNanos;
+        started = true;
+    }
+
+    /**
+     * Records the end of a run.
+     *
+     * @param endNanos {@link System#nanoTime()} at the end of the run
+     */
+    void finished(long endNanos) {
+        lastExecutionNanos = endNanos - previousStartNanos;
+        runs++;
+        maxExecutionNanos = Math.max(maxExecutionNanos, lastExecutionNanos);
+        totalExecutionNanos += lastExecutionNanos;
+    }
+
+    long getLastJitterNanos() {
+        return lastJitterNanos;
+    }
+
+    long getMaxJitterNanos() {
+        return maxJitterNanos;
+    }
+
+    long getAverageJitterNanos() {
+        return intervals == 0 ? 0 : totalJitterNanos / intervals;
+    }
+
+    long getLastExecutionNanos() {
+        return lastExecutionNanos;
+    }
+
+    long getMaxExecutionNanos() {
+        return maxExecutionNanos;
+    }
+
+    long getAverageExecutionNanos() {
+        return runs == 0 ? 0 : totalExecutionNanos / runs;
+    }
+}
@@ -36,6 +36,12 @@ class PIDController {
     private double iMinResult;
     private double iMaxResult;
 
+    // parts of the last calculation, kept in fields so that calculating does not allocate
+    private double proportionalPart;
+    private double integralPart;
+    private double derivativePart;
+    private double error;
+
     public PIDController(double kpAdjuster, double kiAdjuster, double kdAdjuster, double derivativeTimeConstantSec,
             double iMinValue, double iMaxValue, double previousIntegralPart, double previousDerivativePart,
             double previousError) {
@@ -72,9 +78,14 @@ class PIDController {
         }
     }
 
-    public PIDOutputDTO calculate(double input, double setpoint, long lastInvocationMs, int loopTimeMs) {
+    /**
+     * Calculates the output. The parts the output consists of are available through the getters afterwards.
+     *
+     * @return the output
+     */
+    public double calculate(double input, double setpoint, double lastInvocationMs, int loopTimeMs) {
         final double lastInvocationSec = lastInvocationMs / 1000d;
-        final double error = setpoint - input;
+        error = setpoint - input;
 
         // derivative T1 calculation
         final double timeQuotient = lastInvocationSec / derivativeTimeConstantSec;
@@ -93,15 +104,29 @@ class PIDController {
         }
 
         // calculate parts
-        final double proportionalPart = kp * error;
+        proportionalPart = kp * error;
+
+        integralPart = ki * integralResult;
+
+        derivativePart = kd * derivativeResult;
+
+        return proportionalPart + integralPart + derivativePart;
+    }
 
-        double integralPart = ki * integralResult;
+    public double getProportionalPart() {
+        return proportionalPart;
+    }
 
-        final double derivativePart = kd * derivativeResult;
+    public double getIntegralPart() {
+        return integralPart;
+    }
 
-        final double output = proportionalPart + integralPart + derivativePart;
+    public double getDerivativePart() {
+        return derivativePart;
+    }
 
-        return new PIDOutputDTO(output, proportionalPart, integralPart, derivativePart, error);
+    public double getError() {
+        return error;
     }
 
     public void setIntegralResult(double integralResult) {
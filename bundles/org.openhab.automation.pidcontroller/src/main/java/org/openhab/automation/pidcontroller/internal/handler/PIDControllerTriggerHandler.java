@@ -18,11 +18,12 @@ import java.math.BigDecimal;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
-import org.openhab.automation.pidcontroller.internal.PIDException;
 import org.openhab.core.automation.ModuleHandlerCallback;
 import org.openhab.core.automation.Trigger;
 import org.openhab.core.automation.handler.BaseTriggerModuleHandler;
@@ -32,7 +33,6 @@ import org.openhab.core.events.Event;
 import org.openhab.core.events.EventFilter;
 import org.openhab.core.events.EventPublisher;
 import org.openhab.core.events.EventSubscriber;
-import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.events.ItemEventFactory;
@@ -52,18 +52,29 @@ import org.slf4j.LoggerFactory;
  *
  * @author Hilbrand Bouwkamp - Initial Contribution
  * @author Fabian Wolter - Add PID debug output values
+ * @author openHAB Team - Add fixed rate loop, cache item states, add loop statistics
  */
 @NonNullByDefault
 public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implements EventSubscriber {
     public static final String MODULE_TYPE_ID = AUTOMATION_NAME + ".trigger";
     private static final Set<String> SUBSCRIBED_EVENT_TYPES = Set.of(ItemStateEvent.TYPE, ItemStateChangedEvent.TYPE);
+    private static final double NANOS_PER_MILLISECOND = 1_000_000d;
     private final Logger logger = LoggerFactory.getLogger(PIDControllerTriggerHandler.class);
     private final ServiceRegistration<?> eventSubscriberRegistration;
     private final PIDController controller;
     private final int loopTimeMs;
-    private long previousTimeMs = System.currentTimeMillis();
-    private Item inputItem;
-    private Item setpointItem;
+    private final boolean fixedRate;
+    private final ScheduledExecutorService loopExecutor;
+    private final LoopStatistics loopStatistics;
+    private long previousTimeNanos = System.nanoTime();
+    private final String inputItemName;
+    private final String setpointItemName;
+    // item states are cached from the state changed events, which carry the state converted to the item type, so
+    // that the loop does not need to convert them every time
+    private volatile State inputState;
+    private volatile double input;
+    private volatile State setpointState;
+    private volatile double setpoint;
     private Optional<String> commandTopic;
     private EventFilter eventFilter;
     private EventPublisher eventPublisher;
@@ -71,27 +82,31 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
     private @Nullable String iInspector;
     private @Nullable String dInspector;
     private @Nullable String eInspector;
-    private ItemRegistry itemRegistry;
+    private @Nullable String jitterInspector;
+    private @Nullable String executionTimeInspector;
+    private @Nullable ScheduledFuture<?> loopJob;
 
     public PIDControllerTriggerHandler(Trigger module, ItemRegistry itemRegistry, EventPublisher eventPublisher,
-            BundleContext bundleContext) {
+            BundleContext bundleContext, ScheduledExecutorService loopExecutor) {
         super(module);
-        this.itemRegistry = itemRegistry;
         this.eventPublisher = eventPublisher;
+        this.loopExecutor = loopExecutor;
 
         Configuration config = module.getConfiguration();
 
-        String inputItemName = (String) requireNonNull(config.get(CONFIG_INPUT_ITEM), "Input item is not set");
-        String setpointItemName = (String) requireNonNull(config.get(CONFIG_SETPOINT_ITEM), "Setpoint item is not set");
+        inputItemName = (String) requireNonNull(config.get(CONFIG_INPUT_ITEM), "Input item is not set");
+        setpointItemName = (String) requireNonNull(config.get(CONFIG_SETPOINT_ITEM), "Setpoint item is not set");
 
         try {
-            inputItem = itemRegistry.getItem(inputItemName);
+            inputState = itemRegistry.getItem(inputItemName).getState();
+            input = getStateAsNumberOrNaN(inputState);
         } catch (ItemNotFoundException e) {
             throw new IllegalArgumentException("Configured input item not found: " + inputItemName, e);
         }
 
         try {
-            setpointItem = itemRegistry.getItem(setpointItemName);
+            setpointState = itemRegistry.getItem(setpointItemName).getState();
+            setpoint = getStateAsNumberOrNaN(setpointState);
         } catch (ItemNotFoundException e) {
             throw new IllegalArgumentException("Configured setpoint item not found: " + setpointItemName, e);
         }
@@ -113,9 +128,18 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         iInspector = (String) config.get(I_INSPECTOR);
         dInspector = (String) config.get(D_INSPECTOR);
         eInspector = (String) config.get(E_INSPECTOR);
+        jitterInspector = (String) config.get(JITTER_INSPECTOR);
+        executionTimeInspector = (String) config.get(EXECUTION_TIME_INSPECTOR);
+
+        // the other inspector items are checked when recovering their values
+        warnIfItemDoesNotExist(itemRegistry, pInspector);
+        warnIfItemDoesNotExist(itemRegistry, jitterInspector);
+        warnIfItemDoesNotExist(itemRegistry, executionTimeInspector);
 
         loopTimeMs = ((BigDecimal) requireNonNull(config.get(CONFIG_LOOP_TIME), CONFIG_LOOP_TIME + " is not set"))
                 .intValue();
+        fixedRate = Boolean.TRUE.equals(config.get(CONFIG_FIXED_RATE));
+        loopStatistics = new LoopStatistics(TimeUnit.MILLISECONDS.toNanos(loopTimeMs));
 
         double previousIntegralPart = getItemNameValueAsNumberOrZero(itemRegistry, iInspector);
         double previousDerivativePart = getItemNameValueAsNumberOrZero(itemRegistry, dInspector);
@@ -141,7 +165,12 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
     @Override
     public void setCallback(ModuleHandlerCallback callback) {
         super.setCallback(callback);
-        getCallback().getScheduler().scheduleWithFixedDelay(this::calculate, 0, loopTimeMs, TimeUnit.MILLISECONDS);
+        if (fixedRate) {
+            loopJob = loopExecutor.scheduleAtFixedRate(this::loop, 0, loopTimeMs, TimeUnit.MILLISECONDS);
+        } else {
+            loopJob = getCallback().getScheduler().scheduleWithFixedDelay(this::loop, 0, loopTimeMs,
+                    TimeUnit.MILLISECONDS);
+        }
     }
 
     private <T> T requireNonNull(T obj, String message) {
@@ -161,46 +190,62 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         return ((BigDecimal) rawValue).doubleValue();
     }
 
-    private void calculate() {
-        double input;
-        double setpoint;
+    private void warnIfItemDoesNotExist(ItemRegistry itemRegistry, @Nullable String itemName) {
+        if (itemName != null && itemRegistry.get(itemName) == null) {
+            logger.warn("Item doesn't exist: {}", itemName);
+        }
+    }
 
+    /**
+     * Scheduled run of the control loop. Runs never overlap, no matter whether they are scheduled at a fixed rate or
+     * with a fixed delay.
+     */
+    private void loop() {
+        loopStatistics.started(System.nanoTime());
         try {
-            input = getItemValueAsNumber(inputItem);
-        } catch (PIDException e) {
-            logger.warn("Input item: {}: {}", inputItem.getName(), e.getMessage());
+            calculate();
+        } catch (RuntimeException e) {
+            // an exception would cancel all further runs
+            logger.warn("Calculating the output failed: {}", e.getMessage(), e);
+        }
+        loopStatistics.finished(System.nanoTime());
+
+        updateItem(jitterInspector, loopStatistics.getLastJitterNanos() / NANOS_PER_MILLISECOND);
+        updateItem(executionTimeInspector, loopStatistics.getLastExecutionNanos() / NANOS_PER_MILLISECOND);
+    }
+
+    private synchronized void calculate() {
+        double input = this.input;
+        double setpoint = this.setpoint;
+
+        if (Double.isNaN(input)) {
+            logger.warn("Input item: {}: {}", inputItemName, notANumberMessage(inputState));
             return;
         }
 
-        try {
-            setpoint = getItemValueAsNumber(setpointItem);
-        } catch (PIDException e) {
-            logger.warn("Setpoint item: {}: {}", setpointItem.getName(), e.getMessage());
+        if (Double.isNaN(setpoint)) {
+            logger.warn("Setpoint item: {}: {}", setpointItemName, notANumberMessage(setpointState));
             return;
         }
 
-        long now = System.currentTimeMillis();
+        long now = System.nanoTime();
 
-        PIDOutputDTO output = controller.calculate(input, setpoint, now - previousTimeMs, loopTimeMs);
-        previousTimeMs = now;
+        double output = controller.calculate(input, setpoint, (now - previousTimeNanos) / NANOS_PER_MILLISECOND,
+                loopTimeMs);
+        previousTimeNanos = now;
 
-        updateItem(pInspector, output.getProportionalPart());
-        updateItem(iInspector, output.getIntegralPart());
-        updateItem(dInspector, output.getDerivativePart());
-        updateItem(eInspector, output.getError());
+        updateItem(pInspector, controller.getProportionalPart());
+        updateItem(iInspector, controller.getIntegralPart());
+        updateItem(dInspector, controller.getDerivativePart());
+        updateItem(eInspector, controller.getError());
 
-        getCallback().triggered(module, Map.of(COMMAND, new DecimalType(output.getOutput())));
+        getCallback().triggered(module, Map.of(COMMAND, new DecimalType(output)));
     }
 
     private void updateItem(@Nullable String itemName, double value) {
         if (itemName != null) {
-            try {
-                itemRegistry.getItem(itemName);
-                eventPublisher.post(ItemEventFactory.createStateEvent(itemName,
-                        Double.isFinite(value) ? new DecimalType(value) : UnDefType.UNDEF));
-            } catch (ItemNotFoundException e) {
-                logger.warn("Item doesn't exist: {}", itemName);
-            }
+            eventPublisher.post(ItemEventFactory.createStateEvent(itemName,
+                    Double.isFinite(value) ? new DecimalType(value) : UnDefType.UNDEF));
         }
     }
 
@@ -221,35 +266,58 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
             return value;
         }
 
+        State state;
         try {
-            value = getItemValueAsNumber(itemRegistry.getItem(itemName));
-            logger.debug("Item '{}' value {} recovered by PID controller", itemName, value);
+            state = itemRegistry.getItem(itemName).getState();
         } catch (ItemNotFoundException e) {
             throw new IllegalArgumentException("Configured item not found: " + itemName, e);
-        } catch (PIDException e) {
-            logger.warn("Item '{}' value recovery errored: {}", itemName, e.getMessage());
+        }
+
+        double number = getStateAsNumberOrNaN(state);
+        if (Double.isNaN(number)) {
+            logger.warn("Item '{}' value recovery errored: {}", itemName, notANumberMessage(state));
+        } else {
+            value = number;
+            logger.debug("Item '{}' value {} recovered by PID controller", itemName, value);
         }
 
         return value;
     }
 
-    private double getItemValueAsNumber(Item item) throws PIDException {
-        State setpointState = item.getState();
-
-        if (setpointState instanceof Number number) {
+    private static double getStateAsNumberOrNaN(State state) {
+        if (state instanceof Number number) {
             double doubleValue = number.doubleValue();
 
-            if (Double.isFinite(doubleValue) && !Double.isNaN(doubleValue)) {
+            if (Double.isFinite(doubleValue)) {
                 return doubleValue;
             }
-        } else if (setpointState instanceof StringType) {
+        } else if (state instanceof StringType) {
             try {
-                return Double.parseDouble(setpointState.toString());
+                double doubleValue = Double.parseDouble(state.toString());
+
+                if (Double.isFinite(doubleValue)) {
+                    return doubleValue;
+                }
             } catch (NumberFormatException e) {
                 // nothing
             }
         }
-        throw new PIDException("Not a number: " + setpointState.getClass().getSimpleName() + ": " + setpointState);
+        return Double.NaN;
+    }
+
+    private static String notANumberMessage(State state) {
+        return "Not a number: " + state.getClass().getSimpleName() + ": " + state;
+    }
+
+    private void updateState(String itemName, State state) {
+        if (inputItemName.equals(itemName)) {
+            inputState = state;
+            input = getStateAsNumberOrNaN(state);
+        }
+        if (setpointItemName.equals(itemName)) {
+            setpointState = state;
+            setpoint = getStateAsNumberOrNaN(state);
+        }
     }
 
     @Override
@@ -257,13 +325,16 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         if (event instanceof ItemStateChangedEvent changedEvent) {
             if (commandTopic.isPresent() && event.getTopic().equals(commandTopic.get())) {
                 if ("RESET".equals(changedEvent.getItemState().toString())) {
-                    controller.setIntegralResult(0);
-                    controller.setDerivativeResult(0);
+                    synchronized (this) {
+                        controller.setIntegralResult(0);
+                        controller.setDerivativeResult(0);
+                    }
                     eventPublisher.post(ItemEventFactory.createStateEvent(changedEvent.getItemName(), UnDefType.NULL));
                 } else if (changedEvent.getItemState() != UnDefType.NULL) {
                     logger.warn("Unknown command: {}", changedEvent.getItemState());
                 }
             } else {
+                updateState(changedEvent.getItemName(), changedEvent.getItemState());
                 calculate();
             }
         }
@@ -281,8 +352,20 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
 
     @Override
     public void dispose() {
+        ScheduledFuture<?> localLoopJob = loopJob;
+        if (localLoopJob != null) {
+            localLoopJob.cancel(false);
+            loopJob = null;
+        }
         eventSubscriberRegistration.unregister();
 
+        logger.debug(
+                "Loop statistics of PID controller for {}: jitter avg {} ms, max {} ms; execution time avg {} ms, max {} ms",
+                inputItemName, loopStatistics.getAverageJitterNanos() / NANOS_PER_MILLISECOND,
+                loopStatistics.getMaxJitterNanos() / NANOS_PER_MILLISECOND,
+                loopStatistics.getAverageExecutionNanos() / NANOS_PER_MILLISECOND,
+                loopStatistics.getMaxExecutionNanos() / NANOS_PER_MILLISECOND);
+
         super.dispose();
     }
 }
@@ -94,6 +94,15 @@ public class PIDControllerTriggerType extends TriggerType {
                 .withDescription("The interval the output value is updated in ms") //
                 .withUnit("ms") //
                 .build());
+        configDescriptions.add(ConfigDescriptionParameterBuilder.create(CONFIG_FIXED_RATE, Type.BOOLEAN) //
+                .withRequired(false) //
+                .withMultiple(false) //
+                .withDefault("false") //
+                .withLabel("Fixed Rate Loop") //
+                .withDescription("Run the loop at a fixed rate on a dedicated high priority thread "
+                        + "instead of with a fixed delay on the rule engine's scheduler.") //
+                .withAdvanced(true) //
+                .build());
         configDescriptions.add(ConfigDescriptionParameterBuilder.create(CONFIG_I_MIN, Type.DECIMAL) //
                 .withRequired(false) //
                 .withMultiple(false) //
@@ -132,6 +141,22 @@ public class PIDControllerTriggerType extends TriggerType {
                 .withLabel("Error Inspector Item") //
                 .withDescription("Item for debugging the error value") //
                 .build());
+        configDescriptions.add(ConfigDescriptionParameterBuilder.create(JITTER_INSPECTOR, Type.TEXT) //
+                .withRequired(false) //
+                .withMultiple(false) //
+                .withContext(ITEM) //
+                .withLabel("Loop Jitter Inspector Item") //
+                .withDescription("Item for the deviation of the last loop interval from the loop time in ms") //
+                .withAdvanced(true) //
+                .build());
+        configDescriptions.add(ConfigDescriptionParameterBuilder.create(EXECUTION_TIME_INSPECTOR, Type.TEXT) //
+                .withRequired(false) //
+                .withMultiple(false) //
+                .withContext(ITEM) //
+                .withLabel("Loop Execution Time Inspector Item") //
+                .withDescription("Item for the execution time of the last loop in ms") //
+                .withAdvanced(true) //
+                .build());
 
         Output output = new Output(COMMAND, BigDecimal.class.getName(), "Output", "Output value of the PID Controller",
                 Set.of("command"), null, null);
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for LoopStatistics.
+ *
+ * @author openHAB Team - Initial contribution
+ *
+ */
+@NonNullByDefault
+class LoopStatisticsTest {
+    @Test
+    void testFirstRunHasNoJitter() {
+        LoopStatistics statistics = new LoopStatistics(100);
+        statistics.started(1000);
+        statistics.finished(1010);
+
+        assertEquals(0, statistics.getLastJitterNanos());
+        assertEquals(0, statistics.getAverageJitterNanos());
+        assertEquals(10, statistics.getLastExecutionNanos());
+    }
+
+    @Test
+    void testJitterIsDeviationFromLoopTime() {
+        LoopStatistics statistics = new LoopStatistics(100);
+        statistics.started(1000);
+        statistics.finished(1010);
+        statistics.started(1120);
+        statistics.finished(1125);
+        statistics.started(1210);
+        statistics.finished(1240);
+
+        assertEquals(10, statistics.getLastJitterNanos());
+        assertEquals(20, statistics.getMaxJitterNanos());
+        assertEquals(15, statistics.getAverageJitterNanos());
+        assertEquals(30, statistics.getLastExecutionNanos());
+        assertEquals(30, statistics.getMaxExecutionNanos());
+        assertEquals(15, statistics.getAverageExecutionNanos());
+    }
+}
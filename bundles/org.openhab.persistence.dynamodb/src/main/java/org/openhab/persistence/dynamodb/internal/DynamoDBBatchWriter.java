@@ -0,0 +1,511 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.RequestLimitExceededException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+/**
+ * Collects items to be stored and writes them with BatchWriteItem requests instead of one PutItem request per item.
+ *
+ * A batch is written as soon as it is full, or when the batch interval has passed since the first item was queued.
+ * Only one request is in flight at a time. Items that DynamoDB did not process (typically because the table is
+ * throttled) are queued again and retried with a jittered exponential backoff, based on the number of attempts of the
+ * retried items. When a rate limiter is given, batches are delayed so that the configured number of items per second
+ * is not exceeded. At most a given number of items is queued, the oldest items are discarded above that.
+ *
+ * BatchWriteItem does not create missing tables. If a table does not exist, the items of the batch are written with
+ * {@link TableCreatingPutItem}, creating the table.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class DynamoDBBatchWriter {
+    /**
+     * Maximum number of items in one BatchWriteItem request, as defined by DynamoDB
+     */
+    public static final int MAX_BATCH_SIZE = 25;
+
+    /**
+     * Default maximum number of queued items
+     */
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 10_000;
+
+    private static final long BACKOFF_BASE_MILLIS = 50;
+    private static final long BACKOFF_MAX_MILLIS = 20_000;
+    private static final int MAX_FAILED_ATTEMPTS = 5;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration STATISTICS_INTERVAL = Duration.ofMinutes(5);
+
+    private final Logger logger = LoggerFactory.getLogger(DynamoDBBatchWriter.class);
+
+    private final DynamoDBPersistenceService service;
+    private final DynamoDbEnhancedAsyncClient client;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final int batchSize;
+    private final long batchIntervalMillis;
+    private final int maxQueueSize;
+    private final @Nullable DynamoDBWriteRateLimiter rateLimiter;
+
+    private final Deque<TableCreatingPutItem<?>> queue = new ArrayDeque<>();
+    private @Nullable ScheduledFuture<?> flushJob;
+    private @Nullable Instant backoffUntil;
+    private boolean inFlight = false;
+    private boolean closed = false;
+    // failed attempts of the items that are retried, by key
+    private final Map<String, Integer> failedAttempts = new HashMap<>();
+    private long overflowDropped = 0;
+    private Instant statisticsLogged = Instant.now();
+
+    private final AtomicLong batchesWritten = new AtomicLong();
+    private final AtomicLong itemsWritten = new AtomicLong();
+    private final AtomicLong throttleEvents = new AtomicLong();
+    private final AtomicLong itemsDropped = new AtomicLong();
+
+    /**
+     * @param service the persistence service, used for writing items with {@link TableCreatingPutItem}
+     * @param client client used for BatchWriteItem requests
+     * @param scheduler scheduler for delayed writes
+     * @param executor executor for handling responses
+     * @param batchSize maximum number of items per request, at most {@link #MAX_BATCH_SIZE}
+     * @param batchIntervalMillis maximum time items wait for the batch to become full
+     * @param maxQueueSize maximum number of queued items, the oldest items are discarded above
+     * @param rateLimiter limits the number of items written per second, or null for no limit
+     */
+    public DynamoDBBatchWriter(DynamoDBPersistenceService service, DynamoDbEnhancedAsyncClient client,
+            ScheduledExecutorService scheduler, Executor executor, int batchSize, long batchIntervalMillis,
+            int maxQueueSize, @Nullable DynamoDBWriteRateLimiter rateLimiter) {
+        this.service = service;
+        this.client = client;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.batchSize = Math.max(1, Math.min(MAX_BATCH_SIZE, batchSize));
+        this.batchIntervalMillis = batchIntervalMillis;
+        this.maxQueueSize = Math.max(1, maxQueueSize);
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Queues an item for writing.
+     */
+    public void add(TableCreatingPutItem<?> item) {
+        synchronized (this) {
+            if (!closed) {
+                queue.add(item);
+                dropOverflow();
+                scheduleFlush(queue.size() >= batchSize ? 0 : batchIntervalMillis);
+                return;
+            }
+        }
+        item.putItemAsync();
+    }
+
+    /**
+     * Writes the queued items and stops accepting new ones. Waits at most {@link #CLOSE_TIMEOUT} for the writes.
+     */
+    public void close() {
+        Instant deadline = Instant.now().plus(CLOSE_TIMEOUT);
+        synchronized (this) {
+            closed = true;
+            ScheduledFuture<?> localFlushJob = flushJob;
+            if (localFlushJob != null) {
+                localFlushJob.cancel(false);
+                flushJob = null;
+            }
+            try {
+                while (inFlight && Instant.now().isBefore(deadline)) {
+                    wait(Math.max(1, Duration.between(Instant.now(), deadline).toMillis()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int attempt = 0;
+        while (Instant.now().isBefore(deadline)) {
+            List<TableCreatingPutItem<?>> batch = takeBatch();
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                List<TableCreatingPutItem<?>> unprocessed = writeBatch(batch)
+                        .get(Math.max(1, Duration.between(Instant.now(), deadline).toMillis()), TimeUnit.MILLISECONDS);
+                requeue(unprocessed);
+                if (!unprocessed.isEmpty()) {
+                    Thread.sleep(Math.max(0, Math.min(backoffMillis(++attempt),
+                            Duration.between(Instant.now(), deadline).toMillis())));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                requeue(batch);
+                break;
+            } catch (ExecutionException | TimeoutException | RuntimeException e) {
+                logger.warn("Failed to write {} items on shutdown: {}", batch.size(), describe(unwrap(e)));
+                itemsDropped.addAndGet(batch.size());
+            }
+        }
+        synchronized (this) {
+            reportOverflow();
+            if (!queue.isEmpty()) {
+                logger.warn("Discarding {} items that could not be written on shutdown", queue.size());
+                itemsDropped.addAndGet(queue.size());
+                queue.clear();
+            }
+            failedAttempts.clear();
+        }
+        logger.debug("Batch writer closed: {}", getStatistics());
+    }
+
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return the highest number of failed attempts of the queued items, on which the backoff is based
+     */
+    synchronized int getRetryAttempts() {
+        return failedAttempts.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    /**
+     * @return number of requests that were throttled, completely or partly
+     */
+    public long getThrottleEvents() {
+        return throttleEvents.get();
+    }
+
+    /**
+     * @return number of items that were discarded after repeated errors or because the queue was full
+     */
+    public long getItemsDropped() {
+        return itemsDropped.get();
+    }
+
+    /**
+     * @return average share of the maximum batch size that was used by the written batches, between 0 and 1
+     */
+    public double getBatchFillRatio() {
+        long batches = batchesWritten.get();
+        return batches == 0 ? 0 : itemsWritten.get() / (double) (batches * batchSize);
+    }
+
+    public String getStatistics() {
+        return String.format("queue=%d, batches=%d, items=%d, fill ratio=%.2f, throttled=%d, dropped=%d",
+                getQueueSize(), batchesWritten.get(), itemsWritten.get(), getBatchFillRatio(), getThrottleEvents(),
+                getItemsDropped());
+    }
+
+    /**
+     * Schedules writing the next batch, unless a request is in flight. Must be called holding the lock.
+     */
+    private void scheduleFlush(long delayMillis) {
+        if (inFlight || closed || queue.isEmpty()) {
+            return;
+        }
+        long delay = delayMillis;
+        Instant localBackoffUntil = backoffUntil;
+        if (localBackoffUntil != null) {
+            delay = Math.max(delay, Duration.between(Instant.now(), localBackoffUntil).toMillis());
+        }
+        ScheduledFuture<?> localFlushJob = flushJob;
+        if (localFlushJob != null && !localFlushJob.isDone()) {
+            if (localFlushJob.getDelay(TimeUnit.MILLISECONDS) <= delay) {
+                return;
+            }
+            localFlushJob.cancel(false);
+        }
+        flushJob = scheduler.schedule(this::flush, Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        List<TableCreatingPutItem<?>> batch;
+        long waitMillis;
+        synchronized (this) {
+            flushJob = null;
+            if (inFlight || closed) {
+                return;
+            }
+            batch = takeBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            inFlight = true;
+            DynamoDBWriteRateLimiter localRateLimiter = rateLimiter;
+            waitMillis = localRateLimiter == null ? 0 : localRateLimiter.reserve(batch.size());
+        }
+        if (waitMillis > 0) {
+            logger.trace("Delaying batch of {} items by {} ms to stay within write rate limit", batch.size(),
+                    waitMillis);
+            scheduler.schedule(() -> send(batch), waitMillis, TimeUnit.MILLISECONDS);
+        } else {
+            send(batch);
+        }
+    }
+
+    private void send(List<TableCreatingPutItem<?>> batch) {
+        CompletableFuture<List<TableCreatingPutItem<?>>> future;
+        try {
+            future = writeBatch(batch);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenCompleteAsync((unprocessed, exception) -> {
+            long nextDelay;
+            synchronized (this) {
+                if (exception == null) {
+                    nextDelay = handleResult(batch, unprocessed);
+                } else {
+                    nextDelay = handleFailure(batch, unwrap(exception));
+                }
+                inFlight = false;
+                notifyAll();
+                reportOverflow();
+                logStatistics();
+                scheduleFlush(nextDelay);
+            }
+        }, executor);
+    }
+
+    /**
+     * Discards the oldest items while the queue is too large. Called holding the lock.
+     */
+    private void dropOverflow() {
+        while (queue.size() > maxQueueSize) {
+            failedAttempts.remove(key(queue.removeFirst()));
+            itemsDropped.incrementAndGet();
+            overflowDropped++;
+        }
+    }
+
+    /**
+     * Reports the items discarded because the queue was full since the last report. Called holding the lock.
+     */
+    private void reportOverflow() {
+        if (overflowDropped > 0) {
+            logger.warn("BatchWriteItem: more than {} items are queued, discarded the {} oldest items", maxQueueSize,
+                    overflowDropped);
+            overflowDropped = 0;
+        }
+    }
+
+    /**
+     * Logs the statistics every {@link #STATISTICS_INTERVAL}. Called holding the lock.
+     */
+    private void logStatistics() {
+        Instant now = Instant.now();
+        if (logger.isDebugEnabled() && now.isAfter(statisticsLogged.plus(STATISTICS_INTERVAL))) {
+            statisticsLogged = now;
+            logger.debug("Batch writer: {}", getStatistics());
+        }
+    }
+
+    /**
+     * @return delay for writing the next batch. Called holding the lock.
+     */
+    private long handleResult(List<TableCreatingPutItem<?>> batch, List<TableCreatingPutItem<?>> unprocessed) {
+        batchesWritten.incrementAndGet();
+        itemsWritten.addAndGet(batch.size() - unprocessed.size());
+        // only the written items start over, the attempts of the unprocessed ones keep counting for the backoff
+        Set<String> unprocessedKeys = unprocessed.stream().map(DynamoDBBatchWriter::key).collect(Collectors.toSet());
+        batch.stream().map(DynamoDBBatchWriter::key).filter(key -> !unprocessedKeys.contains(key))
+                .forEach(failedAttempts::remove);
+        if (unprocessed.isEmpty()) {
+            backoffUntil = null;
+            logger.trace("BatchWriteItem: {} items written", batch.size());
+            return queue.size() >= batchSize ? 0 : batchIntervalMillis;
+        }
+        throttleEvents.incrementAndGet();
+        int attempts = 0;
+        for (TableCreatingPutItem<?> item : unprocessed) {
+            attempts = Math.max(attempts, failedAttempts.merge(key(item), 1, Integer::sum));
+        }
+        requeue(unprocessed);
+        long backoff = backoffMillis(attempts);
+        backoffUntil = Instant.now().plusMillis(backoff);
+        logger.debug("BatchWriteItem: {} of {} items not processed, retrying in {} ms", unprocessed.size(),
+                batch.size(), backoff);
+        return backoff;
+    }
+
+    /**
+     * @return delay for writing the next batch. Called holding the lock.
+     */
+    private long handleFailure(List<TableCreatingPutItem<?>> batch, Throwable cause) {
+        if (cause instanceof ResourceNotFoundException) {
+            // BatchWriteItem does not create tables, write the items one by one creating the table
+            logger.trace("BatchWriteItem: table not found, writing {} items with PutItem", batch.size());
+            batch.forEach(item -> failedAttempts.remove(key(item)));
+            batch.forEach(TableCreatingPutItem::putItemAsync);
+            return queue.size() >= batchSize ? 0 : batchIntervalMillis;
+        }
+        boolean throttled = cause instanceof ProvisionedThroughputExceededException
+                || cause instanceof RequestLimitExceededException;
+        if (throttled) {
+            throttleEvents.incrementAndGet();
+        }
+        List<TableCreatingPutItem<?>> retried = new ArrayList<>(batch.size());
+        int attempts = 0;
+        for (TableCreatingPutItem<?> item : batch) {
+            int itemAttempts = failedAttempts.merge(key(item), 1, Integer::sum);
+            if (!throttled && itemAttempts >= MAX_FAILED_ATTEMPTS) {
+                failedAttempts.remove(key(item));
+            } else {
+                retried.add(item);
+                attempts = Math.max(attempts, itemAttempts);
+            }
+        }
+        int discarded = batch.size() - retried.size();
+        if (discarded > 0) {
+            logger.warn("BatchWriteItem: failed (final) with {}. Discarding {} items.", describe(cause), discarded);
+            itemsDropped.addAndGet(discarded);
+        }
+        if (retried.isEmpty()) {
+            backoffUntil = null;
+            return queue.size() >= batchSize ? 0 : batchIntervalMillis;
+        }
+        requeue(retried);
+        long backoff = backoffMillis(attempts);
+        backoffUntil = Instant.now().plusMillis(backoff);
+        logger.debug("BatchWriteItem: failed with {}, retrying {} items in {} ms", describe(cause), retried.size(),
+                backoff);
+        return backoff;
+    }
+
+    /**
+     * Takes the next batch from the queue. Items with the same key as a later item of the batch are skipped, since
+     * BatchWriteItem rejects duplicate keys and PutItem would have overwritten them anyway.
+     */
+    private synchronized List<TableCreatingPutItem<?>> takeBatch() {
+        Map<String, TableCreatingPutItem<?>> batch = new LinkedHashMap<>();
+        while (batch.size() < batchSize && !queue.isEmpty()) {
+            TableCreatingPutItem<?> item = queue.poll();
+            String key = key(item);
+            batch.remove(key);
+            batch.put(key, item);
+        }
+        return new ArrayList<>(batch.values());
+    }
+
+    private synchronized void requeue(List<TableCreatingPutItem<?>> items) {
+        ListIterator<TableCreatingPutItem<?>> iterator = items.listIterator(items.size());
+        while (iterator.hasPrevious()) {
+            queue.addFirst(iterator.previous());
+        }
+        dropOverflow();
+    }
+
+    /**
+     * @return the key of an item, unique per table, item name and time
+     */
+    private static String key(TableCreatingPutItem<?> item) {
+        DynamoDBItem<?> dto = item.getDto();
+        return item.getTable().tableName() + "/" + dto.getName() + "/" + dto.getTime().toInstant().toEpochMilli();
+    }
+
+    /**
+     * Sends one BatchWriteItem request.
+     *
+     * @return future completing with the items DynamoDB did not process
+     */
+    CompletableFuture<List<TableCreatingPutItem<?>>> writeBatch(List<TableCreatingPutItem<?>> batch) {
+        Map<String, List<TableCreatingPutItem<?>>> byTable = new LinkedHashMap<>();
+        for (TableCreatingPutItem<?> item : batch) {
+            byTable.computeIfAbsent(item.getTable().tableName(), name -> new ArrayList<>()).add(item);
+        }
+        List<WriteBatch> writeBatches = new ArrayList<>(byTable.size());
+        for (List<TableCreatingPutItem<?>> items : byTable.values()) {
+            writeBatches.add(toWriteBatch(items.get(0).getTable(), items));
+        }
+        return client.batchWriteItem(BatchWriteItemEnhancedRequest.builder().writeBatches(writeBatches).build())
+                .thenApplyAsync(result -> {
+                    List<TableCreatingPutItem<?>> unprocessed = new ArrayList<>();
+                    for (List<TableCreatingPutItem<?>> items : byTable.values()) {
+                        unprocessed.addAll(unprocessedItems(result, items.get(0).getTable()));
+                    }
+                    return unprocessed;
+                }, executor);
+    }
+
+    private static <T extends DynamoDBItem<?>> WriteBatch toWriteBatch(DynamoDbAsyncTable<T> table,
+            List<TableCreatingPutItem<?>> items) {
+        Class<T> itemClass = table.tableSchema().itemType().rawClass();
+        WriteBatch.Builder<T> builder = WriteBatch.builder(itemClass).mappedTableResource(table);
+        for (TableCreatingPutItem<?> item : items) {
+            builder.addPutItem(itemClass.cast(item.getDto()));
+        }
+        return builder.build();
+    }
+
+    private <T extends DynamoDBItem<?>> List<TableCreatingPutItem<?>> unprocessedItems(BatchWriteResult result,
+            DynamoDbAsyncTable<T> table) {
+        List<TableCreatingPutItem<?>> items = new ArrayList<>();
+        for (T dto : result.unprocessedPutItemsForTable(table)) {
+            items.add(new TableCreatingPutItem<>(service, dto, table));
+        }
+        return items;
+    }
+
+    /**
+     * Exponential backoff with full jitter
+     */
+    private static long backoffMillis(int attempt) {
+        long max = Math.min(BACKOFF_MAX_MILLIS, BACKOFF_BASE_MILLIS << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(max + 1);
+    }
+
+    private static Throwable unwrap(Throwable exception) {
+        Throwable cause = exception.getCause();
+        if ((exception instanceof CompletionException || exception instanceof ExecutionException) && cause != null) {
+            return cause;
+        }
+        return exception;
+    }
+
+    private static String describe(Throwable exception) {
+        return exception.getClass().getSimpleName() + " " + exception.getMessage();
+    }
+}
@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.dynamodb.internal;
 
+import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
@@ -49,6 +50,7 @@ public class DynamoDBConfig {
     public static final String DEFAULT_TABLE_NAME = "openhab";
     public static final long DEFAULT_READ_CAPACITY_UNITS = 1;
     public static final long DEFAULT_WRITE_CAPACITY_UNITS = 1;
+    public static final long DEFAULT_BATCH_INTERVAL = 1000;
     private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDBConfig.class);
 
     private long readCapacityUnits;
@@ -60,6 +62,9 @@ public class DynamoDBConfig {
     private String table;
     private String tablePrefixLegacy;
     private @Nullable Integer expireDays;
+    private int batchSize;
+    private long batchInterval = DEFAULT_BATCH_INTERVAL;
+    private long writeRateLimit;
 
     /**
      *
@@ -168,31 +173,60 @@ public class DynamoDBConfig {
                 }
             }
 
+            final int batchSize = (int) parseLong(config.get("batchSize"), 0);
+            if (batchSize < 0 || batchSize > DynamoDBBatchWriter.MAX_BATCH_SIZE) {
+                LOGGER.error("batchSize should be between 0 and {}", DynamoDBBatchWriter.MAX_BATCH_SIZE);
+                return null;
+            }
+            final long batchInterval = parseLong(config.get("batchInterval"), DEFAULT_BATCH_INTERVAL);
+            final long writeRateLimit = parseLong(config.get("writeRateLimit"), 0);
+            if (batchInterval < 0 || writeRateLimit < 0) {
+                LOGGER.error("batchInterval and writeRateLimit should not be negative");
+                return null;
+            }
+
+            final DynamoDBConfig dbConfig;
             switch (tableRevision) {
                 case NEW:
                     LOGGER.debug("Using new DynamoDB table schema");
-                    return DynamoDBConfig.newSchema(region, credentials, retryMode.map(AwsRetryPolicy::forRetryMode),
-                            table, readCapacityUnits, writeCapacityUnits, expireDays);
+                    dbConfig = DynamoDBConfig.newSchema(region, credentials,
+                            retryMode.map(AwsRetryPolicy::forRetryMode), table, readCapacityUnits, writeCapacityUnits,
+                            expireDays);
+                    break;
                 case LEGACY:
                     LOGGER.warn(
                             "Using legacy DynamoDB table schema. It is recommended to transition to new schema by defining 'table' parameter and not configuring 'tablePrefix'");
-                    return DynamoDBConfig.legacySchema(region, credentials, retryMode.map(AwsRetryPolicy::forRetryMode),
-                            tablePrefixLegacy, readCapacityUnits, writeCapacityUnits);
+                    dbConfig = DynamoDBConfig.legacySchema(region, credentials,
+                            retryMode.map(AwsRetryPolicy::forRetryMode), tablePrefixLegacy, readCapacityUnits,
+                            writeCapacityUnits);
+                    break;
                 case MAYBE_LEGACY:
                     LOGGER.debug(
                             "Unclear whether we should use new legacy DynamoDB table schema. It is recommended to explicitly define new 'table' parameter. The correct table schema will be detected at runtime.");
-                    return DynamoDBConfig.maybeLegacySchema(region, credentials,
+                    dbConfig = DynamoDBConfig.maybeLegacySchema(region, credentials,
                             retryMode.map(AwsRetryPolicy::forRetryMode), table, tablePrefixLegacy, readCapacityUnits,
                             writeCapacityUnits, expireDays);
+                    break;
                 default:
                     throw new IllegalStateException("Unhandled enum. Bug");
             }
+            dbConfig.batchSize = batchSize;
+            dbConfig.batchInterval = batchInterval;
+            dbConfig.writeRateLimit = writeRateLimit;
+            return dbConfig;
         } catch (Exception e) {
             LOGGER.error("Error with configuration: {} {}", e.getClass().getSimpleName(), e.getMessage());
             return null;
         }
     }
 
+    private static long parseLong(@Nullable Object value, long defaultValue) {
+        if (value == null || value.toString().isBlank()) {
+            return defaultValue;
+        }
+        return new BigDecimal(value.toString().trim()).longValueExact();
+    }
+
     private static DynamoDBConfig newSchema(Region region, AwsCredentials credentials,
             Optional<RetryPolicy> retryPolicy, String table, long readCapacityUnits, long writeCapacityUnits,
             @Nullable Integer expireDays) {
@@ -263,4 +297,25 @@ public class DynamoDBConfig {
     public @Nullable Integer getExpireDays() {
         return expireDays;
     }
+
+    /**
+     * @return maximum number of items written with one BatchWriteItem request, 0 or 1 if items are written one by one
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return maximum time in milliseconds items wait for a batch to become full
+     */
+    public long getBatchInterval() {
+        return batchInterval;
+    }
+
+    /**
+     * @return maximum number of items written per second with batches, 0 for no limit
+     */
+    public long getWriteRateLimit() {
+        return writeRateLimit;
+    }
 }
@@ -103,6 +103,7 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
     protected static final String CONFIG_URI = "persistence:dynamodb";
 
     private static final String DYNAMODB_THREADPOOL_NAME = "dynamodbPersistenceService";
+    private static final String DYNAMODB_SCHEDULER_NAME = "dynamodbPersistenceServiceBatch";
 
     private final ItemRegistry itemRegistry;
     private final UnitProvider unitProvider;
@@ -113,6 +114,7 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
     private @Nullable DynamoDBConfig dbConfig;
     private @Nullable DynamoDBTableNameResolver tableNameResolver;
     private final ExecutorService executor = ThreadPoolManager.getPool(DYNAMODB_THREADPOOL_NAME);
+    private @Nullable DynamoDBBatchWriter batchWriter;
     private static final Duration TIMEOUT_API_CALL = Duration.ofSeconds(60);
     private static final Duration TIMEOUT_API_CALL_ATTEMPT = Duration.ofSeconds(5);
     private Map<Class<? extends DynamoDBItem<?>>, DynamoDbAsyncTable<? extends DynamoDBItem<?>>> tableCache = new ConcurrentHashMap<>(
@@ -197,6 +199,16 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
             return;
         }
 
+        DynamoDbEnhancedAsyncClient localClient = client;
+        if (localDbConfig.getBatchSize() > 1 && localClient != null) {
+            long writeRateLimit = localDbConfig.getWriteRateLimit();
+            batchWriter = new DynamoDBBatchWriter(this, localClient,
+                    ThreadPoolManager.getScheduledPool(DYNAMODB_SCHEDULER_NAME), executor, localDbConfig.getBatchSize(),
+                    localDbConfig.getBatchInterval(), DynamoDBBatchWriter.DEFAULT_MAX_QUEUE_SIZE,
+                    writeRateLimit > 0 ? new DynamoDBWriteRateLimiter(writeRateLimit) : null);
+            logger.debug("Writing items in batches of up to {} items", localDbConfig.getBatchSize());
+        }
+
         isProperlyConfigured = true;
         logger.debug("dynamodb persistence service activated");
     }
@@ -316,6 +328,11 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
     }
 
     private void disconnect() {
+        DynamoDBBatchWriter localBatchWriter = batchWriter;
+        if (localBatchWriter != null) {
+            batchWriter = null;
+            localBatchWriter.close();
+        }
         DynamoDbAsyncClient localLowLevelClient = lowLevelClient;
         if (client == null || localLowLevelClient == null) {
             return;
@@ -561,21 +578,29 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
             }
             logger.trace("store() called with item {} {} '{}', which was converted to DTO {}",
                     copiedItem.getClass().getSimpleName(), effectiveName, copiedItem.getState(), dto);
-            dto.accept(new DynamoDBItemVisitor<TableCreatingPutItem<? extends DynamoDBItem<?>>>() {
-
-                @Override
-                public TableCreatingPutItem<? extends DynamoDBItem<?>> visit(
-                        DynamoDBBigDecimalItem dynamoBigDecimalItem) {
-                    return new TableCreatingPutItem<>(DynamoDBPersistenceService.this, dynamoBigDecimalItem,
-                            getTable(DynamoDBBigDecimalItem.class));
-                }
-
-                @Override
-                public TableCreatingPutItem<? extends DynamoDBItem<?>> visit(DynamoDBStringItem dynamoStringItem) {
-                    return new TableCreatingPutItem<>(DynamoDBPersistenceService.this, dynamoStringItem,
-                            getTable(DynamoDBStringItem.class));
-                }
-            }).putItemAsync();
+            TableCreatingPutItem<? extends DynamoDBItem<?>> putItem = dto
+                    .accept(new DynamoDBItemVisitor<TableCreatingPutItem<? extends DynamoDBItem<?>>>() {
+
+                        @Override
+                        public TableCreatingPutItem<? extends DynamoDBItem<?>> visit(
+                                DynamoDBBigDecimalItem dynamoBigDecimalItem) {
+                            return new TableCreatingPutItem<>(DynamoDBPersistenceService.this, dynamoBigDecimalItem,
+                                    getTable(DynamoDBBigDecimalItem.class));
+                        }
+
+                        @Override
+                        public TableCreatingPutItem<? extends DynamoDBItem<?>> visit(
+                                DynamoDBStringItem dynamoStringItem) {
+                            return new TableCreatingPutItem<>(DynamoDBPersistenceService.this, dynamoStringItem,
+                                    getTable(DynamoDBStringItem.class));
+                        }
+                    });
+            DynamoDBBatchWriter localBatchWriter = batchWriter;
+            if (localBatchWriter != null) {
+                localBatchWriter.add(putItem);
+            } else {
+                putItem.putItemAsync();
+            }
         }, executor).exceptionally(e -> {
             logger.error("Unexcepted error", e);
             return null;
@@ -658,6 +683,10 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
     }
 
     private void logIfManyQueuedTasks() {
+        DynamoDBBatchWriter localBatchWriter = batchWriter;
+        if (localBatchWriter != null && logger.isTraceEnabled()) {
+            logger.trace("batch writer: {}", localBatchWriter.getStatistics());
+        }
         if (executor instanceof ThreadPoolExecutor localExecutor) {
             if (localExecutor.getQueue().size() >= 5) {
                 logger.trace("executor queue size: {}, remaining space {}. Active threads {}",
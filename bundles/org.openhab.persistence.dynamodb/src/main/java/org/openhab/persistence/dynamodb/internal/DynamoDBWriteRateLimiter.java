@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Token bucket limiting the number of items written per second, so that writes stay within the provisioned write
+ * capacity of the tables instead of being throttled by DynamoDB.
+ *
+ * The bucket holds at most one second worth of tokens. Reservations may exceed the available tokens, the caller is
+ * then told how long to wait before sending.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class DynamoDBWriteRateLimiter {
+
+    private final long itemsPerSecond;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param itemsPerSecond number of items that may be written per second
+     */
+    public DynamoDBWriteRateLimiter(long itemsPerSecond) {
+        this(itemsPerSecond, System::nanoTime);
+    }
+
+    /**
+     * For tests
+     */
+    DynamoDBWriteRateLimiter(long itemsPerSecond, LongSupplier nanoClock) {
+        if (itemsPerSecond <= 0) {
+            throw new IllegalArgumentException("itemsPerSecond must be positive");
+        }
+        this.itemsPerSecond = itemsPerSecond;
+        this.nanoClock = nanoClock;
+        this.tokens = itemsPerSecond;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes tokens for writing the given number of items.
+     *
+     * @param items number of items to be written
+     * @return time in milliseconds to wait before the items may be written, 0 if they may be written immediately
+     */
+    public synchronized long reserve(int items) {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(itemsPerSecond,
+                tokens + (now - lastRefill) * (double) itemsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+        tokens -= items;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(-tokens * TimeUnit.SECONDS.toMillis(1) / itemsPerSecond);
+    }
+}
@@ -103,6 +103,14 @@ public class TableCreatingPutItem<T extends DynamoDBItem<?>> {
         tableNameResolver = localTableNameResolver;
     }
 
+    public T getDto() {
+        return dto;
+    }
+
+    public DynamoDbAsyncTable<T> getTable() {
+        return table;
+    }
+
     public CompletableFuture<Void> putItemAsync() {
         start = Instant.now();
         return internalPutItemAsync(false, true);
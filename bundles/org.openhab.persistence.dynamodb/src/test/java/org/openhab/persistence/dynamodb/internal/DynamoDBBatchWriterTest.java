@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * Tests for {@link DynamoDBBatchWriter} with a mocked client
+ *
+ * @author openHAB Team - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class DynamoDBBatchWriterTest {
+
+    private static final String TABLE_NAME = "openhab";
+
+    private @NonNullByDefault({}) ScheduledExecutorService scheduler;
+    private @NonNullByDefault({}) DynamoDBPersistenceService service;
+    private @NonNullByDefault({}) DynamoDbEnhancedAsyncClient client;
+    private @NonNullByDefault({}) DynamoDbAsyncTable<DynamoDBBigDecimalItem> table;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        service = mock(DynamoDBPersistenceService.class);
+        when(service.getExecutor()).thenReturn(scheduler);
+        when(service.getLowLevelClient()).thenReturn(mock(DynamoDbAsyncClient.class));
+        when(service.getDbConfig()).thenReturn(mock(DynamoDBConfig.class));
+        when(service.getTableNameResolver()).thenReturn(mock(DynamoDBTableNameResolver.class));
+        client = mock(DynamoDbEnhancedAsyncClient.class);
+        table = mock(DynamoDbAsyncTable.class);
+        when(table.tableName()).thenReturn(TABLE_NAME);
+        when(table.tableSchema()).thenReturn(DynamoDBBigDecimalItem.TABLE_SCHEMA_NEW);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testItemsAreWrittenInBatchesOfAtMost25() {
+        when(client.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(result(Map.of())));
+        DynamoDBBatchWriter writer = new DynamoDBBatchWriter(service, client, scheduler, Runnable::run, 25, 60_000,
+                DynamoDBBatchWriter.DEFAULT_MAX_QUEUE_SIZE, null);
+
+        for (int i = 0; i < 30; i++) {
+            writer.add(putItem("item" + i, i));
+        }
+        writer.close();
+
+        ArgumentCaptor<BatchWriteItemEnhancedRequest> captor = ArgumentCaptor
+                .forClass(BatchWriteItemEnhancedRequest.class);
+        verify(client, times(2)).batchWriteItem(captor.capture());
+        assertEquals(List.of(25, 5), captor.getAllValues().stream().map(DynamoDBBatchWriterTest::itemCount).toList());
+        assertEquals(0, writer.getQueueSize());
+        assertEquals(0, writer.getItemsDropped());
+    }
+
+    @Test
+    public void testUnprocessedItemsAreRetried() {
+        DynamoDBBigDecimalItem unprocessed = dto("item1", 1);
+        WriteRequest unprocessedRequest = WriteRequest.builder()
+                .putRequest(PutRequest.builder()
+                        .item(DynamoDBBigDecimalItem.TABLE_SCHEMA_NEW.itemToMap(unprocessed, true)).build())
+                .build();
+        when(client.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(result(Map.of(TABLE_NAME, List.of(unprocessedRequest)))))
+                .thenReturn(CompletableFuture.completedFuture(result(Map.of())));
+        DynamoDBBatchWriter writer = new DynamoDBBatchWriter(service, client, scheduler, Runnable::run, 2, 60_000,
+                DynamoDBBatchWriter.DEFAULT_MAX_QUEUE_SIZE, null);
+
+        writer.add(putItem("item0", 0));
+        writer.add(putItem("item1", 1));
+
+        ArgumentCaptor<BatchWriteItemEnhancedRequest> captor = ArgumentCaptor
+                .forClass(BatchWriteItemEnhancedRequest.class);
+        verify(client, timeout(5000).times(2)).batchWriteItem(captor.capture());
+        assertEquals(List.of(2, 1), captor.getAllValues().stream().map(DynamoDBBatchWriterTest::itemCount).toList());
+        assertEquals(1, writer.getThrottleEvents());
+        writer.close();
+        assertEquals(0, writer.getItemsDropped());
+    }
+
+    @Test
+    public void testBackoffGrowsWhileItemsStayUnprocessed() {
+        DynamoDBBigDecimalItem unprocessed = dto("item1", 1);
+        WriteRequest unprocessedRequest = WriteRequest.builder()
+                .putRequest(PutRequest.builder()
+                        .item(DynamoDBBigDecimalItem.TABLE_SCHEMA_NEW.itemToMap(unprocessed, true)).build())
+                .build();
+        DynamoDBBatchWriter writer = new DynamoDBBatchWriter(service, client, scheduler, Runnable::run, 2, 60_000,
+                DynamoDBBatchWriter.DEFAULT_MAX_QUEUE_SIZE, null);
+        // the attempts the backoff before each request was based on
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        when(client.batchWriteItem(any(BatchWriteItemEnhancedRequest.class))).thenAnswer(invocation -> {
+            attempts.add(writer.getRetryAttempts());
+            // the first four requests leave item1 unprocessed
+            return CompletableFuture.completedFuture(
+                    result(attempts.size() < 5 ? Map.of(TABLE_NAME, List.of(unprocessedRequest)) : Map.of()));
+        });
+
+        writer.add(putItem("item0", 0));
+        writer.add(putItem("item1", 1));
+
+        verify(client, timeout(10_000).times(5)).batchWriteItem(any(BatchWriteItemEnhancedRequest.class));
+        assertEquals(List.of(0, 1, 2, 3, 4), attempts);
+        assertEquals(4, writer.getThrottleEvents());
+        writer.close();
+        assertEquals(0, writer.getRetryAttempts());
+        assertEquals(0, writer.getItemsDropped());
+    }
+
+    @Test
+    public void testDuplicateKeysAreNotSentInSameBatch() {
+        when(client.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(result(Map.of())));
+        DynamoDBBatchWriter writer = new DynamoDBBatchWriter(service, client, scheduler, Runnable::run, 25, 60_000,
+                DynamoDBBatchWriter.DEFAULT_MAX_QUEUE_SIZE, null);
+
+        writer.add(putItem("item", 0));
+        writer.add(putItem("item", 0));
+        writer.close();
+
+        ArgumentCaptor<BatchWriteItemEnhancedRequest> captor = ArgumentCaptor
+                .forClass(BatchWriteItemEnhancedRequest.class);
+        verify(client).batchWriteItem(captor.capture());
+        assertEquals(1, itemCount(captor.getValue()));
+    }
+
+    @Test
+    public void testOldestItemsAreDiscardedWhenQueueIsFull() {
+        CompletableFuture<BatchWriteResult> pending = new CompletableFuture<>();
+        when(client.batchWriteItem(any(BatchWriteItemEnhancedRequest.class))).thenReturn(pending)
+                .thenReturn(CompletableFuture.completedFuture(result(Map.of())));
+        DynamoDBBatchWriter writer = new DynamoDBBatchWriter(service, client, scheduler, Runnable::run, 2, 60_000, 3,
+                null);
+
+        // the first batch stays in flight, so the following items are queued
+        writer.add(putItem("item0", 0));
+        writer.add(putItem("item1", 1));
+        verify(client, timeout(5000)).batchWriteItem(any(BatchWriteItemEnhancedRequest.class));
+        for (int i = 2; i < 7; i++) {
+            writer.add(putItem("item" + i, i));
+        }
+
+        assertEquals(3, writer.getQueueSize());
+        assertEquals(2, writer.getItemsDropped());
+        pending.complete(result(Map.of()));
+        writer.close();
+    }
+
+    private TableCreatingPutItem<DynamoDBBigDecimalItem> putItem(String name, int value) {
+        return new TableCreatingPutItem<>(service, dto(name, value), table);
+    }
+
+    private static DynamoDBBigDecimalItem dto(String name, int value) {
+        return new DynamoDBBigDecimalItem(name, new BigDecimal(value),
+                ZonedDateTime.parse("2024-01-01T00:00:00Z").plusSeconds(value), null);
+    }
+
+    private static BatchWriteResult result(Map<String, List<WriteRequest>> unprocessed) {
+        return BatchWriteResult.builder().unprocessedRequests(unprocessed).build();
+    }
+
+    private static int itemCount(BatchWriteItemEnhancedRequest request) {
+        return request.writeBatches().stream().mapToInt(batch -> batch.writeRequests().size()).sum();
+    }
+}
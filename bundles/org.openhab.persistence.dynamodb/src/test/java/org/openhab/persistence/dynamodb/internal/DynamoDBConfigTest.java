@@ -255,4 +255,30 @@ public class DynamoDBConfigTest {
         assertEquals(Optional.empty(), fromConfig.getRetryPolicy().map(RetryPolicy::retryMode));
         assertEquals(ExpectedTableSchema.MAYBE_LEGACY, fromConfig.getTableRevision());
     }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testBatchSettings() throws Exception {
+        DynamoDBConfig fromConfig = DynamoDBConfig.fromConfig(mapFrom("region", "eu-west-1", "accessKey", "access1",
+                "secretKey", "secret1", "batchSize", "25", "batchInterval", "200", "writeRateLimit", "5"));
+        assertEquals(25, fromConfig.getBatchSize());
+        assertEquals(200, fromConfig.getBatchInterval());
+        assertEquals(5, fromConfig.getWriteRateLimit());
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testBatchSettingsDefaults() throws Exception {
+        DynamoDBConfig fromConfig = DynamoDBConfig
+                .fromConfig(mapFrom("region", "eu-west-1", "accessKey", "access1", "secretKey", "secret1"));
+        assertEquals(0, fromConfig.getBatchSize());
+        assertEquals(DynamoDBConfig.DEFAULT_BATCH_INTERVAL, fromConfig.getBatchInterval());
+        assertEquals(0, fromConfig.getWriteRateLimit());
+    }
+
+    @Test
+    public void testBatchSizeTooLarge() throws Exception {
+        assertNull(DynamoDBConfig.fromConfig(
+                mapFrom("region", "eu-west-1", "accessKey", "access1", "secretKey", "secret1", "batchSize", "26")));
+    }
 }
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author openHAB Team - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class DynamoDBWriteRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(0);
+
+    @Test
+    public void testBurstWithinLimit() {
+        DynamoDBWriteRateLimiter limiter = new DynamoDBWriteRateLimiter(25, nanos::get);
+        assertEquals(0, limiter.reserve(25));
+    }
+
+    @Test
+    public void testWaitWhenExceeded() {
+        DynamoDBWriteRateLimiter limiter = new DynamoDBWriteRateLimiter(10, nanos::get);
+        assertEquals(0, limiter.reserve(10));
+        // 5 more items need half a second worth of tokens
+        assertEquals(500, limiter.reserve(5));
+
+        // after one second the debt is paid and 5 tokens are available again
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.reserve(5));
+    }
+
+    @Test
+    public void testTokensDoNotExceedOneSecond() {
+        DynamoDBWriteRateLimiter limiter = new DynamoDBWriteRateLimiter(10, nanos::get);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(0, limiter.reserve(10));
+        assertEquals(100, limiter.reserve(1));
+    }
+}
@@ -14,25 +14,31 @@ package org.openhab.persistence.influxdb;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
@@ -51,11 +57,12 @@ import org.openhab.core.types.UnDefType;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBHistoricItem;
+import org.openhab.persistence.influxdb.internal.InfluxDBItemIndex;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
-import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
+import org.openhab.persistence.influxdb.internal.InfluxPointQueue;
 import org.openhab.persistence.influxdb.internal.influx1.InfluxDB1RepositoryImpl;
 import org.openhab.persistence.influxdb.internal.influx2.InfluxDB2RepositoryImpl;
 import org.osgi.framework.Constants;
@@ -98,6 +105,8 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
     private final Logger logger = LoggerFactory.getLogger(InfluxDBPersistenceService.class);
 
     private static final int COMMIT_INTERVAL = 3; // in s
+    private static final long ITEM_INDEX_SAVE_INTERVAL = 60000; // in ms
+    private static final long STREAMED_QUERY_IDLE_TIMEOUT = TimeUnit.MINUTES.toNanos(1);
     protected static final String CONFIG_URI = "persistence:influxdb";
 
     // External dependencies
@@ -110,7 +119,19 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     // storage
     private final ScheduledFuture<?> storeJob;
-    private final BlockingQueue<InfluxPoint> pointsQueue = new LinkedBlockingQueue<>();
+    private final InfluxPointQueue pointsQueue;
+    private final ExecutorService writePool = ThreadPoolManager.getPool("org.openhab.influxdb.write");
+    private long droppedReported = 0;
+
+    // streamed query results that have not been read to the end yet
+    private final Set<StreamedQuery> openStreamedQueries = ConcurrentHashMap.newKeySet();
+
+    // stored items
+    private final InfluxDBItemIndex itemIndex = new InfluxDBItemIndex();
+    private final Path itemIndexFile = Path.of(OpenHAB.getUserDataFolder(), "persistence", SERVICE_NAME,
+            "iteminfo.idx");
+    private volatile boolean itemIndexReconciled;
+    private long itemIndexSaved = 0;
 
     // conversion
     private final Set<ItemFactory> itemFactories = new HashSet<>();
@@ -122,6 +143,8 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         this.itemRegistry = itemRegistry;
         this.influxDBMetadataService = influxDBMetadataService;
         this.configuration = new InfluxDBConfiguration(config);
+        this.pointsQueue = createPointsQueue();
+        itemIndex.load(itemIndexFile);
         if (configuration.isValid()) {
             this.influxDBRepository = createInfluxDBRepository();
             this.influxDBRepository.connect();
@@ -144,6 +167,14 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         };
     }
 
+    private InfluxPointQueue createPointsQueue() {
+        InfluxPointQueue.OverflowPolicy policy = configuration.getQueueOverflow();
+        Path spillFile = policy == InfluxPointQueue.OverflowPolicy.SPILL
+                ? Path.of(OpenHAB.getUserDataFolder(), "persistence", SERVICE_NAME, "spill.bin")
+                : null;
+        return new InfluxPointQueue(configuration.getQueueSize(), policy, spillFile);
+    }
+
     /**
      * Disconnect from database when service is deactivated
      */
@@ -153,9 +184,20 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
         storeJob.cancel(false);
         commit(); // ensure we at least tried to store the data;
+        openStreamedQueries.forEach(StreamedQuery::close);
 
         if (!pointsQueue.isEmpty()) {
-            logger.warn("InfluxDB failed to finally store {} points.", pointsQueue.size());
+            int remaining = pointsQueue.size();
+            if (remaining > 0 && !pointsQueue.spillAll()) {
+                logger.warn("InfluxDB failed to finally store {} points.", remaining);
+            } else {
+                logger.info(
+                        "InfluxDB kept unwritten points in the spill file, they will be stored after the next start.");
+            }
+        }
+
+        if (itemIndex.isDirty()) {
+            itemIndex.save(itemIndexFile);
         }
 
         influxDBRepository.disconnect();
@@ -174,13 +216,7 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        if (checkConnection()) {
-            return influxDBRepository.getStoredItemsCount().entrySet().stream().map(InfluxDBPersistentItemInfo::new)
-                    .collect(Collectors.toUnmodifiableSet());
-        } else {
-            logger.info("getItemInfo ignored, InfluxDB is not connected");
-            return Set.of();
-        }
+        return itemIndex.getItemInfo();
     }
 
     @Override
@@ -209,11 +245,8 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 logger.trace("Ignoring item {}, conversion to an InfluxDB point failed.", item.getName());
                 return;
             }
-            if (pointsQueue.offer(point)) {
-                logger.trace("Queued {} for item {}", point, item);
-            } else {
-                logger.warn("Failed to queue {} for item {}", point, item);
-            }
+            pointsQueue.add(point);
+            logger.trace("Queued {} for item {}", point, item);
         });
     }
 
@@ -224,7 +257,11 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 logger.warn("Item name is missing in filter {} when trying to remove data.", filter);
                 return false;
             }
-            return influxDBRepository.remove(filter);
+            boolean removed = influxDBRepository.remove(filter);
+            if (removed) {
+                itemIndex.invalidate(Objects.requireNonNull(filter.getItemName()));
+            }
+            return removed;
         } else {
             logger.debug("Remove query {} ignored, InfluxDB is not connected.", filter);
             return false;
@@ -243,6 +280,12 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 return List.of();
             }
 
+            if (configuration.isQueryStreaming()) {
+                // the query is run once, the result can only be iterated once
+                Iterator<HistoricItem> result = streamQuery(filter);
+                return () -> result;
+            }
+
             List<InfluxDBRepository.InfluxRow> results = influxDBRepository.query(filter,
                     configuration.getRetentionPolicy());
             return results.stream().map(this::mapRowToHistoricItem).collect(Collectors.toList());
@@ -252,6 +295,109 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         }
     }
 
+    /**
+     * Runs the query and maps the rows while they are read. The response is closed when the last row has been read or
+     * when the result has not been advanced for a while. The returned iterator can not be restarted, iterating the
+     * result again requires a new query.
+     */
+    private Iterator<HistoricItem> streamQuery(FilterCriteria filter) {
+        StreamedQuery streamedQuery = new StreamedQuery(filter,
+                influxDBRepository.queryStream(filter, configuration.getRetentionPolicy()));
+        openStreamedQueries.add(streamedQuery);
+        return streamedQuery;
+    }
+
+    private void closeIdleStreamedQueries() {
+        long now = System.nanoTime();
+        for (StreamedQuery streamedQuery : openStreamedQueries) {
+            if (streamedQuery.closeIfIdle(now)) {
+                logger.debug("Closed the result of query {}, it has not been read to the end", streamedQuery.filter);
+            }
+        }
+    }
+
+    /**
+     * The result of a streamed query, holds the HTTP response until it is closed.
+     */
+    private class StreamedQuery implements Iterator<HistoricItem> {
+        private final FilterCriteria filter;
+        private final Stream<InfluxDBRepository.InfluxRow> rows;
+        private final Iterator<InfluxDBRepository.InfluxRow> rowIterator;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastAccessNanos = System.nanoTime();
+        private boolean open = true;
+
+        StreamedQuery(FilterCriteria filter, Stream<InfluxDBRepository.InfluxRow> rows) {
+            this.filter = filter;
+            this.rows = rows;
+            this.rowIterator = rows.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            lock.lock();
+            try {
+                lastAccessNanos = System.nanoTime();
+                if (!open) {
+                    return false;
+                }
+                try {
+                    if (rowIterator.hasNext()) {
+                        return true;
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Reading the result of query {} failed, it is incomplete: {}", filter,
+                            e.getMessage());
+                }
+                close();
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public HistoricItem next() {
+            lock.lock();
+            try {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return mapRowToHistoricItem(rowIterator.next());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean closeIfIdle(long nowNanos) {
+            if (nowNanos - lastAccessNanos < STREAMED_QUERY_IDLE_TIMEOUT || !lock.tryLock()) {
+                return false;
+            }
+            try {
+                if (!open) {
+                    return false;
+                }
+                close();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (open) {
+                    open = false;
+                    rows.close();
+                }
+            } finally {
+                lock.unlock();
+            }
+            openStreamedQueries.remove(this);
+        }
+    }
+
     private HistoricItem mapRowToHistoricItem(InfluxDBRepository.InfluxRow row) {
         State state = InfluxDBStateConvertUtils.objectToState(row.value(), row.itemName(), itemRegistry);
         return new InfluxDBHistoricItem(row.itemName(), state, row.time());
@@ -277,18 +423,91 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         return false;
     }
 
-    private void commit() {
+    private synchronized void commit() {
         if (!pointsQueue.isEmpty() && checkConnection()) {
-            List<InfluxPoint> points = new ArrayList<>();
-            pointsQueue.drainTo(points);
-            if (!influxDBRepository.write(points)) {
-                logger.warn("Re-queuing {} elements, failed to write batch.", points.size());
-                pointsQueue.addAll(points);
+            // spilled points are read in portions, so the memory used stays bounded
+            List<InfluxPoint> points = pointsQueue
+                    .drain(configuration.getWriteBatchSize() * configuration.getWriteThreads());
+            List<InfluxPoint> failedPoints = write(points);
+            if (!failedPoints.isEmpty()) {
+                logger.warn("Re-queuing {} elements, failed to write batch.", failedPoints.size());
+                pointsQueue.addAll(failedPoints);
                 influxDBRepository.disconnect();
             } else {
                 logger.trace("Wrote {} elements to database", points.size());
             }
+            long dropped = pointsQueue.getDropped();
+            if (dropped > droppedReported) {
+                logger.warn("{} points have been discarded because the queue was full, {} in total",
+                        dropped - droppedReported, dropped);
+                droppedReported = dropped;
+            }
+        }
+        closeIdleStreamedQueries();
+        if (!itemIndexReconciled && influxDBRepository.isConnected()) {
+            itemIndexReconciled = true;
+            ThreadPoolManager.getScheduledPool("org.openhab.influxdb").execute(this::reconcileItemIndex);
+        }
+        if (itemIndex.isDirty() && System.currentTimeMillis() - itemIndexSaved > ITEM_INDEX_SAVE_INTERVAL) {
+            itemIndexSaved = System.currentTimeMillis();
+            itemIndex.save(itemIndexFile);
+        }
+    }
+
+    /**
+     * Aligns the item index with the items stored in the database. Only the item names are read from the schema, the
+     * points are not counted as that would scan all data.
+     */
+    private void reconcileItemIndex() {
+        try {
+            Instant queried = Instant.now();
+            itemIndex.reconcile(influxDBRepository.getStoredItemNames(), queried);
+            logger.debug("Item index contains {} items", itemIndex.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read the stored items, will retry: {}", e.getMessage());
+            itemIndexReconciled = false;
+        }
+    }
+
+    /**
+     * Writes the points in batches of the configured size, using the configured number of threads.
+     *
+     * @return the points that could not be written
+     */
+    private List<InfluxPoint> write(List<InfluxPoint> points) {
+        int batchSize = configuration.getWriteBatchSize();
+        List<List<InfluxPoint>> batches = new ArrayList<>();
+        for (int i = 0; i < points.size(); i += batchSize) {
+            batches.add(points.subList(i, Math.min(points.size(), i + batchSize)));
+        }
+        int threads = Math.min(configuration.getWriteThreads(), batches.size());
+        if (threads <= 1) {
+            return writeBatches(batches, 0, 1);
+        }
+        List<CompletableFuture<List<InfluxPoint>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int first = i;
+            futures.add(CompletableFuture.supplyAsync(() -> writeBatches(batches, first, threads), writePool));
+        }
+        return futures.stream().map(CompletableFuture::join).flatMap(List::stream).toList();
+    }
+
+    private List<InfluxPoint> writeBatches(List<List<InfluxPoint>> batches, int first, int step) {
+        List<InfluxPoint> failedPoints = new ArrayList<>();
+        for (int i = first; i < batches.size(); i += step) {
+            List<InfluxPoint> batch = batches.get(i);
+            if (influxDBRepository.write(batch)) {
+                batch.forEach(point -> {
+                    String itemName = point.getTags().get(TAG_ITEM_NAME);
+                    if (itemName != null) {
+                        itemIndex.record(itemName, point.getTime());
+                    }
+                });
+            } else {
+                failedPoints.addAll(batch);
+            }
         }
+        return failedPoints;
     }
 
     /**
@@ -39,6 +39,11 @@ public class InfluxDBConfiguration {
     public static final String ADD_CATEGORY_TAG_PARAM = "addCategoryTag";
     public static final String ADD_LABEL_TAG_PARAM = "addLabelTag";
     public static final String ADD_TYPE_TAG_PARAM = "addTypeTag";
+    public static final String QUEUE_SIZE_PARAM = "queueSize";
+    public static final String QUEUE_OVERFLOW_PARAM = "queueOverflow";
+    public static final String WRITE_BATCH_SIZE_PARAM = "writeBatchSize";
+    public static final String WRITE_THREADS_PARAM = "writeThreads";
+    public static final String QUERY_STREAMING_PARAM = "queryStreaming";
     private final Logger logger = LoggerFactory.getLogger(InfluxDBConfiguration.class);
     private final String url;
     private final String user;
@@ -51,6 +56,11 @@ public class InfluxDBConfiguration {
     private final boolean addCategoryTag;
     private final boolean addTypeTag;
     private final boolean addLabelTag;
+    private final int queueSize;
+    private final InfluxPointQueue.OverflowPolicy queueOverflow;
+    private final int writeBatchSize;
+    private final int writeThreads;
+    private final boolean queryStreaming;
 
     public InfluxDBConfiguration(Map<String, Object> config) {
         url = ConfigParser.valueAsOrElse(config.get(URL_PARAM), String.class, "http://127.0.0.1:8086");
@@ -64,6 +74,14 @@ public class InfluxDBConfiguration {
         addCategoryTag = ConfigParser.valueAsOrElse(config.get(ADD_CATEGORY_TAG_PARAM), Boolean.class, false);
         addLabelTag = ConfigParser.valueAsOrElse(config.get(ADD_LABEL_TAG_PARAM), Boolean.class, false);
         addTypeTag = ConfigParser.valueAsOrElse(config.get(ADD_TYPE_TAG_PARAM), Boolean.class, false);
+        queueSize = Math.max(0, ConfigParser.valueAsOrElse(config.get(QUEUE_SIZE_PARAM), Integer.class, 100000));
+        queueOverflow = InfluxPointQueue.OverflowPolicy.fromString(
+                ConfigParser.valueAs(config.get(QUEUE_OVERFLOW_PARAM), String.class),
+                InfluxPointQueue.OverflowPolicy.DROP_OLDEST);
+        writeBatchSize = Math.max(1,
+                ConfigParser.valueAsOrElse(config.get(WRITE_BATCH_SIZE_PARAM), Integer.class, 5000));
+        writeThreads = Math.max(1, ConfigParser.valueAsOrElse(config.get(WRITE_THREADS_PARAM), Integer.class, 1));
+        queryStreaming = ConfigParser.valueAsOrElse(config.get(QUERY_STREAMING_PARAM), Boolean.class, false);
     }
 
     private InfluxDBVersion parseInfluxVersion(@Nullable String value) {
@@ -142,6 +160,26 @@ public class InfluxDBConfiguration {
         return addLabelTag;
     }
 
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public InfluxPointQueue.OverflowPolicy getQueueOverflow() {
+        return queueOverflow;
+    }
+
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public int getWriteThreads() {
+        return writeThreads;
+    }
+
+    public boolean isQueryStreaming() {
+        return queryStreaming;
+    }
+
     public String getUser() {
         return user;
     }
@@ -160,6 +198,8 @@ public class InfluxDBConfiguration {
                 + " chars', token='" + token.length() + " chars', databaseName='" + databaseName
                 + "', retentionPolicy='" + retentionPolicy + "', version=" + version + ", replaceUnderscore="
                 + replaceUnderscore + ", addCategoryTag=" + addCategoryTag + ", addTypeTag=" + addTypeTag
-                + ", addLabelTag=" + addLabelTag + '}';
+                + ", addLabelTag=" + addLabelTag + ", queueSize=" + queueSize + ", queueOverflow=" + queueOverflow
+                + ", writeBatchSize=" + writeBatchSize + ", writeThreads=" + writeThreads + ", queryStreaming="
+                + queryStreaming + '}';
     }
 }
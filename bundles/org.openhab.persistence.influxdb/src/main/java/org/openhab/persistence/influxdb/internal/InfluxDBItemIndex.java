@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.PersistenceItemInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the stored items with their number of points and first and last time, so they do not have to be queried from
+ * the database. It is updated for every written point and saved to a local file.
+ * <p>
+ * The count and times of items that were stored before the index existed, or whose points have been removed, are
+ * unknown. Until the index has been reconciled with the database, items that are written for the first time may have
+ * older points, so their count and first time are unknown too.
+ * <p>
+ * Only the item names are reconciled, as counting the points would scan all data of the database. The counts are
+ * therefore approximate: points removed by the retention policy of the database are not noticed.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBItemIndex {
+    private static final String SEPARATOR = "\t";
+    private static final String UNKNOWN = "-";
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBItemIndex.class);
+
+    private final Map<String, Entry> items = new ConcurrentHashMap<>();
+    private volatile boolean dirty = false;
+    private volatile boolean reconciled = false;
+
+    private static class Entry {
+        private @Nullable Long count;
+        private @Nullable Instant earliest;
+        private @Nullable Instant latest;
+
+        Entry(@Nullable Long count, @Nullable Instant earliest, @Nullable Instant latest) {
+            this.count = count;
+            this.earliest = earliest;
+            this.latest = latest;
+        }
+
+        synchronized void record(Instant time) {
+            Long localCount = count;
+            if (localCount != null) {
+                count = localCount + 1;
+            }
+            Instant localEarliest = earliest;
+            if (localEarliest == null && localCount != null && localCount == 0
+                    || localEarliest != null && time.isBefore(localEarliest)) {
+                earliest = time;
+            }
+            Instant localLatest = latest;
+            if (localLatest == null || time.isAfter(localLatest)) {
+                latest = time;
+            }
+        }
+
+        synchronized PersistenceItemInfo toItemInfo(String name) {
+            Long localCount = count;
+            Instant localEarliest = earliest;
+            Instant localLatest = latest;
+            return new InfluxDBPersistentItemInfo(name,
+                    localCount == null ? null : (int) Math.min(Integer.MAX_VALUE, localCount),
+                    localEarliest == null ? null : Date.from(localEarliest),
+                    localLatest == null ? null : Date.from(localLatest));
+        }
+
+        synchronized String toLine(String name) {
+            return String.join(SEPARATOR, name, format(count), format(earliest), format(latest));
+        }
+
+        private static String format(@Nullable Object value) {
+            if (value instanceof Instant instant) {
+                return String.valueOf(instant.toEpochMilli());
+            }
+            return value == null ? UNKNOWN : value.toString();
+        }
+    }
+
+    /**
+     * Records a point that has been written.
+     */
+    public void record(String itemName, Instant time) {
+        // an item that is new to a reconciled index has no older points
+        items.computeIfAbsent(itemName, name -> reconciled ? new Entry(0L, null, null) : new Entry(null, null, null))
+                .record(time);
+        dirty = true;
+    }
+
+    /**
+     * Makes count and times of an item unknown, e.g. because some of its points have been removed.
+     */
+    public void invalidate(String itemName) {
+        items.computeIfPresent(itemName, (name, entry) -> new Entry(null, null, entry.latest));
+        dirty = true;
+    }
+
+    /**
+     * Aligns the index with the items stored in the database: items that are no longer stored are removed and items
+     * that are missing are added with an unknown count. The counts of the other items are kept.
+     *
+     * @param storedItemNames the items stored in the database
+     * @param queried when the stored items were queried, items written since then are kept
+     */
+    public void reconcile(Set<String> storedItemNames, Instant queried) {
+        int removed = 0;
+        for (Map.Entry<String, Entry> item : Set.copyOf(items.entrySet())) {
+            Instant latest = item.getValue().latest;
+            if (!storedItemNames.contains(item.getKey()) && (latest == null || latest.isBefore(queried))) {
+                items.remove(item.getKey());
+                removed++;
+            }
+        }
+        int added = 0;
+        for (String name : storedItemNames) {
+            if (items.putIfAbsent(name, new Entry(null, null, null)) == null) {
+                added++;
+            }
+        }
+        reconciled = true;
+        if (removed > 0 || added > 0) {
+            logger.debug("Reconciled item index: {} items added, {} items removed", added, removed);
+            dirty = true;
+        }
+    }
+
+    public Set<PersistenceItemInfo> getItemInfo() {
+        return items.entrySet().stream().map(e -> e.getValue().toItemInfo(e.getKey()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * @return <code>true</code> if the file existed and has been loaded
+     */
+    public boolean load(Path file) {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(SEPARATOR);
+                if (fields.length != 4) {
+                    continue;
+                }
+                items.put(fields[0],
+                        new Entry(parseLong(fields[1]), parseInstant(fields[2]), parseInstant(fields[3])));
+            }
+            logger.debug("Loaded item index with {} items from {}", items.size(), file);
+            return true;
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Failed to load item index from {}: {}", file, e.getMessage());
+            items.clear();
+            return false;
+        }
+    }
+
+    public void save(Path file) {
+        dirty = false;
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Entry> item : items.entrySet()) {
+                    writer.write(item.getValue().toLine(item.getKey()));
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            logger.warn("Failed to save item index to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static @Nullable Long parseLong(String value) {
+        return UNKNOWN.equals(value) ? null : Long.valueOf(value);
+    }
+
+    private static @Nullable Instant parseInstant(String value) {
+        return UNKNOWN.equals(value) ? null : Instant.ofEpochMilli(Long.parseLong(value));
+    }
+}
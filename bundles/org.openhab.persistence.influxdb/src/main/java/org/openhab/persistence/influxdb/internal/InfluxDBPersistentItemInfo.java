@@ -13,7 +13,6 @@
 package org.openhab.persistence.influxdb.internal;
 
 import java.util.Date;
-import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -27,11 +26,16 @@ import org.openhab.core.persistence.PersistenceItemInfo;
 @NonNullByDefault
 public class InfluxDBPersistentItemInfo implements PersistenceItemInfo {
     private final String name;
-    private final Integer count;
-
-    public InfluxDBPersistentItemInfo(Map.Entry<String, Integer> itemInfo) {
-        this.name = itemInfo.getKey();
-        this.count = itemInfo.getValue();
+    private final @Nullable Integer count;
+    private final @Nullable Date earliest;
+    private final @Nullable Date latest;
+
+    public InfluxDBPersistentItemInfo(String name, @Nullable Integer count, @Nullable Date earliest,
+            @Nullable Date latest) {
+        this.name = name;
+        this.count = count;
+        this.earliest = earliest;
+        this.latest = latest;
     }
 
     @Override
@@ -48,12 +52,12 @@ public class InfluxDBPersistentItemInfo implements PersistenceItemInfo {
     @Override
     @Nullable
     public Date getEarliest() {
-        return null;
+        return earliest;
     }
 
     @Override
     @Nullable
     public Date getLatest() {
-        return null;
+        return latest;
     }
 }
@@ -15,6 +15,8 @@ package org.openhab.persistence.influxdb.internal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.persistence.FilterCriteria;
@@ -59,6 +61,13 @@ public interface InfluxDBRepository {
      */
     Map<String, Integer> getStoredItemsCount();
 
+    /**
+     * Return the names of all stored items, read from the schema instead of the stored points
+     *
+     * @return names of the stored items
+     */
+    Set<String> getStoredItemNames();
+
     /**
      * Executes Flux query
      *
@@ -68,6 +77,16 @@ public interface InfluxDBRepository {
      */
     List<InfluxRow> query(FilterCriteria filter, String retentionPolicy);
 
+    /**
+     * Executes Flux query and returns the results while they are read from the response
+     *
+     * @param filter the query filter
+     * @return Query results, the stream has to be closed when it is not read to the end
+     */
+    default Stream<InfluxRow> queryStream(FilterCriteria filter, String retentionPolicy) {
+        return query(filter, retentionPolicy).stream();
+    }
+
     /**
      * Write points to database
      *
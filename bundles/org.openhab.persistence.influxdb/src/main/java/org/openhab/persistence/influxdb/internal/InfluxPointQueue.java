@@ -0,0 +1,380 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.TAG_ITEM_NAME;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the points that are waiting to be written. The number of points kept in memory is limited, what happens
+ * with further points is defined by the {@link OverflowPolicy}.
+ * <p>
+ * Spilled points are appended to a local file and read back in chunks when the queue is drained. The file is
+ * removed when all its points have been read. A point may be written twice if openHAB stops in between, which is
+ * harmless because InfluxDB overwrites points with the same series and time.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointQueue {
+    public enum OverflowPolicy {
+        /** discard the oldest queued point */
+        DROP_OLDEST,
+        /** keep only the newest queued point of each item, then discard the oldest */
+        COALESCE,
+        /** move the queued points to the spill file */
+        SPILL;
+
+        public static OverflowPolicy fromString(@Nullable String value, OverflowPolicy defaultPolicy) {
+            if (value == null || value.isBlank()) {
+                return defaultPolicy;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                return defaultPolicy;
+            }
+        }
+    }
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_STRING = 1;
+    private static final byte VALUE_LONG = 2;
+    private static final byte VALUE_DOUBLE = 3;
+    private static final byte VALUE_BOOLEAN = 4;
+    private static final byte VALUE_DECIMAL = 5;
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxPointQueue.class);
+
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final @Nullable Path spillFile;
+    private final ArrayDeque<InfluxPoint> points = new ArrayDeque<>();
+
+    private long spillReadPosition = 0;
+    private long dropped = 0;
+
+    /**
+     * @param capacity maximum number of points kept in memory, 0 for no limit
+     * @param policy what to do with points that do not fit into memory
+     * @param spillFile file for spilled points, required for {@link OverflowPolicy#SPILL}
+     */
+    public InfluxPointQueue(int capacity, OverflowPolicy policy, @Nullable Path spillFile) {
+        this.capacity = capacity;
+        this.policy = spillFile == null && policy == OverflowPolicy.SPILL ? OverflowPolicy.DROP_OLDEST : policy;
+        this.spillFile = spillFile;
+    }
+
+    public synchronized void add(InfluxPoint point) {
+        points.add(point);
+        enforceCapacity();
+    }
+
+    /**
+     * Adds points again that could not be written.
+     */
+    public synchronized void addAll(Collection<InfluxPoint> newPoints) {
+        points.addAll(newPoints);
+        enforceCapacity();
+    }
+
+    /**
+     * Removes and returns all points held in memory and up to {@code maxSpilled} points from the spill file.
+     */
+    public synchronized List<InfluxPoint> drain(int maxSpilled) {
+        List<InfluxPoint> drained = new ArrayList<>(points);
+        points.clear();
+        if (maxSpilled > 0) {
+            drained.addAll(readSpilled(maxSpilled));
+        }
+        return drained;
+    }
+
+    public synchronized int size() {
+        return points.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return points.isEmpty() && !hasSpilledPoints();
+    }
+
+    /**
+     * @return number of points discarded because the queue was full
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Moves all points held in memory to the spill file, so they survive a restart.
+     *
+     * @return <code>true</code> if the points were spilled, <code>false</code> if spilling is not possible
+     */
+    public synchronized boolean spillAll() {
+        if (spillFile == null || points.isEmpty()) {
+            return false;
+        }
+        return spill();
+    }
+
+    private void enforceCapacity() {
+        if (capacity <= 0 || points.size() <= capacity) {
+            return;
+        }
+        switch (policy) {
+            case SPILL:
+                if (spill()) {
+                    return;
+                }
+                break;
+            case COALESCE:
+                coalesce();
+                break;
+            default:
+                break;
+        }
+        while (points.size() > capacity) {
+            points.poll();
+            dropped++;
+        }
+    }
+
+    private void coalesce() {
+        Set<String> seen = new HashSet<>();
+        ArrayDeque<InfluxPoint> newest = new ArrayDeque<>();
+        Iterator<InfluxPoint> iterator = points.descendingIterator();
+        while (iterator.hasNext()) {
+            InfluxPoint point = iterator.next();
+            String itemName = point.getTags().getOrDefault(TAG_ITEM_NAME, point.getMeasurementName());
+            if (seen.add(itemName)) {
+                newest.addFirst(point);
+            }
+        }
+        dropped += points.size() - newest.size();
+        logger.debug("Coalesced {} queued points to {}", points.size(), newest.size());
+        points.clear();
+        points.addAll(newest);
+    }
+
+    private boolean spill() {
+        Path localSpillFile = spillFile;
+        if (localSpillFile == null) {
+            return false;
+        }
+        try {
+            Files.createDirectories(localSpillFile.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files
+                    .newOutputStream(localSpillFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                for (InfluxPoint point : points) {
+                    writePoint(out, point);
+                }
+            }
+            logger.debug("Spilled {} points to {}", points.size(), localSpillFile);
+            points.clear();
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to spill points to {}: {}", localSpillFile, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean hasSpilledPoints() {
+        Path localSpillFile = spillFile;
+        try {
+            return localSpillFile != null && Files.exists(localSpillFile)
+                    && Files.size(localSpillFile) > spillReadPosition;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private List<InfluxPoint> readSpilled(int max) {
+        Path localSpillFile = spillFile;
+        if (localSpillFile == null || !Files.exists(localSpillFile)) {
+            return List.of();
+        }
+        List<InfluxPoint> spilled = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(localSpillFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            channel.position(spillReadPosition);
+            // counts the bytes of completely read points, the buffer below reads ahead
+            CountingInputStream counting = new CountingInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel)));
+            DataInputStream in = new DataInputStream(counting);
+            long position = spillReadPosition;
+            while (spilled.size() < max && position < size) {
+                try {
+                    spilled.add(readPoint(in));
+                    position = spillReadPosition + counting.count;
+                } catch (EOFException e) {
+                    logger.debug("Ignoring incomplete point at the end of {}", localSpillFile);
+                    position = size;
+                }
+            }
+            spillReadPosition = position;
+            if (spillReadPosition >= size) {
+                channel.close();
+                Files.delete(localSpillFile);
+                spillReadPosition = 0;
+                logger.debug("All spilled points have been read, removed {}", localSpillFile);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read spilled points from {}, discarding it: {}", localSpillFile, e.getMessage());
+            try {
+                Files.deleteIfExists(localSpillFile);
+            } catch (IOException e1) {
+                logger.debug("Failed to remove {}: {}", localSpillFile, e1.getMessage());
+            }
+            spillReadPosition = 0;
+        }
+        return spilled;
+    }
+
+    private static void writePoint(DataOutputStream out, InfluxPoint point) throws IOException {
+        writeString(out, point.getMeasurementName());
+        out.writeLong(point.getTime().toEpochMilli());
+        Object value = point.getValue();
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte(VALUE_DECIMAL);
+            writeString(out, decimal.toString());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Number number) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble(number.doubleValue());
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean(bool);
+        } else {
+            out.writeByte(VALUE_STRING);
+            writeString(out, value.toString());
+        }
+        Map<String, String> tags = point.getTags();
+        out.writeInt(tags.size());
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            writeString(out, tag.getKey());
+            writeString(out, tag.getValue());
+        }
+    }
+
+    private static InfluxPoint readPoint(DataInputStream in) throws IOException {
+        InfluxPoint.Builder builder = InfluxPoint.newBuilder(readString(in))
+                .withTime(Instant.ofEpochMilli(in.readLong()));
+        byte type = in.readByte();
+        switch (type) {
+            case VALUE_NULL:
+                break;
+            case VALUE_STRING:
+                builder.withValue(readString(in));
+                break;
+            case VALUE_LONG:
+                builder.withValue(in.readLong());
+                break;
+            case VALUE_DOUBLE:
+                builder.withValue(in.readDouble());
+                break;
+            case VALUE_BOOLEAN:
+                builder.withValue(in.readBoolean());
+                break;
+            case VALUE_DECIMAL:
+                builder.withValue(new BigDecimal(readString(in)));
+                break;
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+        int tagCount = in.readInt();
+        for (int i = 0; i < tagCount; i++) {
+            builder.withTag(readString(in), readString(in));
+        }
+        return builder.build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte @Nullable [] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -20,10 +20,12 @@ import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.TAG_IT
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -235,4 +237,31 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
     public Map<String, Integer> getStoredItemsCount() {
         return Collections.emptyMap();
     }
+
+    @Override
+    public Set<String> getStoredItemNames() {
+        final InfluxDB currentClient = client;
+        if (currentClient == null) {
+            return Set.of();
+        }
+        Query query = new Query("SHOW TAG VALUES WITH KEY = \"" + TAG_ITEM_NAME + "\"",
+                configuration.getDatabaseName());
+        Set<String> result = new HashSet<>();
+        for (QueryResult.Result queryResult : currentClient.query(query).getResults()) {
+            List<QueryResult.Series> allSeries = queryResult.getSeries();
+            if (queryResult.getError() != null || allSeries == null) {
+                continue;
+            }
+            for (QueryResult.Series series : allSeries) {
+                List<String> columns = series.getColumns();
+                List<List<Object>> allValues = series.getValues();
+                int valueColumn = columns == null ? -1 : columns.indexOf("value");
+                if (valueColumn == -1 || allValues == null) {
+                    continue;
+                }
+                allValues.forEach(values -> result.add(String.valueOf(values.get(valueColumn))));
+            }
+        }
+        return result;
+    }
 }
@@ -18,11 +18,13 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -43,11 +45,12 @@ import com.influxdb.client.InfluxDBClient;
 import com.influxdb.client.InfluxDBClientFactory;
 import com.influxdb.client.InfluxDBClientOptions;
 import com.influxdb.client.QueryApi;
-import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteApiBlocking;
 import com.influxdb.client.domain.Ready;
 import com.influxdb.client.domain.WritePrecision;
 import com.influxdb.client.write.Point;
 import com.influxdb.exceptions.InfluxException;
+import com.influxdb.query.FluxRecord;
 import com.influxdb.query.FluxTable;
 
 /**
@@ -64,7 +67,7 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
 
     private @Nullable InfluxDBClient client;
     private @Nullable QueryApi queryAPI;
-    private @Nullable WriteApi writeAPI;
+    private @Nullable WriteApiBlocking writeAPI;
     private @Nullable DeleteApi deleteAPI;
 
     public InfluxDB2RepositoryImpl(InfluxDBConfiguration configuration,
@@ -96,7 +99,8 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
         this.client = createdClient;
 
         queryAPI = createdClient.getQueryApi();
-        writeAPI = createdClient.makeWriteApi();
+        // blocking, so failed writes are reported and can be retried
+        writeAPI = createdClient.getWriteApiBlocking();
         deleteAPI = createdClient.getDeleteApi();
 
         logger.debug("Successfully connected to InfluxDB. Instance pingable={}", createdClient.ping());
@@ -141,7 +145,7 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
 
     @Override
     public boolean write(List<InfluxPoint> influxPoints) {
-        final WriteApi currentWriteAPI = writeAPI;
+        final WriteApiBlocking currentWriteAPI = writeAPI;
         if (currentWriteAPI == null) {
             return false;
         }
@@ -230,16 +234,36 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
         }
     }
 
-    private Stream<InfluxRow> mapRawResultToHistoric(FluxTable rawRow) {
-        return rawRow.getRecords().stream().map(r -> {
-            String itemName = (String) r.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
-            if (itemName == null) {
-                itemName = r.getMeasurement();
+    @Override
+    public Stream<InfluxRow> queryStream(FilterCriteria filter, String retentionPolicy) {
+        try {
+            final QueryApi currentQueryAPI = queryAPI;
+            if (currentQueryAPI != null) {
+                String query = queryCreator.createQuery(filter, retentionPolicy);
+                logger.trace("Query {}", query);
+                // records are parsed from the CSV response while the stream is read
+                return currentQueryAPI.queryStream(query).map(this::mapRecordToRow);
+            } else {
+                throw new InfluxException("API not present");
             }
-            Object value = r.getValueByKey(COLUMN_VALUE_NAME_V2);
-            Instant time = (Instant) r.getValueByKey(COLUMN_TIME_NAME_V2);
-            return new InfluxRow(time, itemName, value);
-        });
+        } catch (InfluxException | InfluxDBIOException e) {
+            logger.warn("Failed to execute query '{}': {}", filter, e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    private Stream<InfluxRow> mapRawResultToHistoric(FluxTable rawRow) {
+        return rawRow.getRecords().stream().map(this::mapRecordToRow);
+    }
+
+    private InfluxRow mapRecordToRow(FluxRecord r) {
+        String itemName = (String) r.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
+        if (itemName == null) {
+            itemName = r.getMeasurement();
+        }
+        Object value = r.getValueByKey(COLUMN_VALUE_NAME_V2);
+        Instant time = (Instant) r.getValueByKey(COLUMN_TIME_NAME_V2);
+        return new InfluxRow(time, itemName, value);
     }
 
     @Override
@@ -265,4 +289,25 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
             return Collections.emptyMap();
         }
     }
+
+    @Override
+    public Set<String> getStoredItemNames() {
+        final QueryApi currentQueryAPI = queryAPI;
+        if (currentQueryAPI == null) {
+            logger.warn("Returning empty result because queryAPI isn't present");
+            return Set.of();
+        }
+        // reads the tag values from the index, not the points
+        String query = "import \"influxdata/influxdb/schema\"\n" + "schema.tagValues(bucket: \""
+                + configuration.getRetentionPolicy() + "\", tag: \"" + TAG_ITEM_NAME
+                + "\", start: 1970-01-01T00:00:00Z)";
+        Set<String> result = new HashSet<>();
+        currentQueryAPI.query(query).forEach(table -> table.getRecords().forEach(row -> {
+            Object value = row.getValue();
+            if (value != null) {
+                result.add(value.toString());
+            }
+        }));
+        return result;
+    }
 }
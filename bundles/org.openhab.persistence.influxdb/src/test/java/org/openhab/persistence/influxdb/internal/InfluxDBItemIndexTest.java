@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.core.persistence.PersistenceItemInfo;
+
+/**
+ * Tests the {@link InfluxDBItemIndex}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBItemIndexTest {
+    private @TempDir @NonNullByDefault({}) Path tempDir;
+
+    private static PersistenceItemInfo info(InfluxDBItemIndex index, String name) {
+        return index.getItemInfo().stream().filter(i -> i.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void recordedPointsAreCounted() {
+        InfluxDBItemIndex index = new InfluxDBItemIndex();
+        index.reconcile(Set.of(), Instant.ofEpochMilli(0));
+        index.record("a", Instant.ofEpochMilli(2000));
+        index.record("a", Instant.ofEpochMilli(1000));
+        index.record("a", Instant.ofEpochMilli(3000));
+
+        PersistenceItemInfo info = info(index, "a");
+        assertThat(info.getCount(), is(3));
+        assertThat(info.getEarliest(), is(new Date(1000)));
+        assertThat(info.getLatest(), is(new Date(3000)));
+    }
+
+    @Test
+    public void pointsRecordedBeforeReconciliationHaveUnknownCount() {
+        InfluxDBItemIndex index = new InfluxDBItemIndex();
+        index.record("a", Instant.ofEpochMilli(1000));
+
+        PersistenceItemInfo info = info(index, "a");
+        assertThat(info.getCount(), is(nullValue()));
+        assertThat(info.getEarliest(), is(nullValue()));
+        assertThat(info.getLatest(), is(new Date(1000)));
+    }
+
+    @Test
+    public void reconcileKeepsUnknownCountOfItemsRecordedBefore() {
+        InfluxDBItemIndex index = new InfluxDBItemIndex();
+        index.record("a", Instant.ofEpochMilli(5000));
+        index.reconcile(Set.of("a"), Instant.ofEpochMilli(4000));
+        index.record("a", Instant.ofEpochMilli(6000));
+
+        PersistenceItemInfo info = info(index, "a");
+        assertThat(info.getCount(), is(nullValue()));
+        assertThat(info.getEarliest(), is(nullValue()));
+        assertThat(info.getLatest(), is(new Date(6000)));
+    }
+
+    @Test
+    public void reconcileKeepsCounts() {
+        InfluxDBItemIndex index = new InfluxDBItemIndex();
+        index.reconcile(Set.of(), Instant.ofEpochMilli(0));
+        index.record("a", Instant.ofEpochMilli(1000));
+        index.record("a", Instant.ofEpochMilli(2000));
+
+        index.reconcile(Set.of("a", "b"), Instant.ofEpochMilli(3000));
+
+        assertThat(info(index, "a").getCount(), is(2));
+        assertThat(info(index, "a").getEarliest(), is(new Date(1000)));
+        assertThat(info(index, "a").getLatest(), is(new Date(2000)));
+        assertThat(info(index, "b").getCount(), is(nullValue()));
+    }
+
+    @Test
+    public void reconcileAddsAndRemovesItems() {
+        InfluxDBItemIndex index = new InfluxDBItemIndex();
+        index.reconcile(Set.of(), Instant.ofEpochMilli(0));
+        index.record("old", Instant.ofEpochMilli(1000));
+        index.record("recent", Instant.ofEpochMilli(5000));
+
+        index.reconcile(Set.of("other"), Instant.ofEpochMilli(4000));
+
+        assertThat(index.size(), is(2));
+        assertThat(info(index, "other").getCount(), is(nullValue()));
+        assertThat(info(index, "recent").getCount(), is(1));
+    }
+
+    @Test
+    public void invalidateMakesCountUnknown() {
+        InfluxDBItemIndex index = new InfluxDBItemIndex();
+        index.reconcile(Set.of(), Instant.ofEpochMilli(0));
+        index.record("a", Instant.ofEpochMilli(1000));
+        index.invalidate("a");
+
+        assertThat(info(index, "a").getCount(), is(nullValue()));
+    }
+
+    @Test
+    public void saveAndLoadKeepItems() {
+        Path file = tempDir.resolve("iteminfo.idx");
+        InfluxDBItemIndex index = new InfluxDBItemIndex();
+        index.reconcile(Set.of(), Instant.ofEpochMilli(0));
+        index.record("a", Instant.ofEpochMilli(1000));
+        index.reconcile(Set.of("a", "b"), Instant.ofEpochMilli(0));
+        index.save(file);
+        assertThat(index.isDirty(), is(false));
+
+        InfluxDBItemIndex loaded = new InfluxDBItemIndex();
+        assertThat(loaded.load(file), is(true));
+        assertThat(info(loaded, "a").getCount(), is(1));
+        assertThat(info(loaded, "a").getEarliest(), is(new Date(1000)));
+        assertThat(info(loaded, "b").getCount(), is(nullValue()));
+        assertThat(new InfluxDBItemIndex().load(tempDir.resolve("missing.idx")), is(false));
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.TAG_ITEM_NAME;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.persistence.influxdb.internal.InfluxPointQueue.OverflowPolicy;
+
+/**
+ * Tests the {@link InfluxPointQueue}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointQueueTest {
+    private @TempDir @NonNullByDefault({}) Path tempDir;
+
+    private static InfluxPoint point(String itemName, long time, Object value) {
+        return InfluxPoint.newBuilder(itemName).withTime(Instant.ofEpochMilli(time)).withValue(value)
+                .withTag(TAG_ITEM_NAME, itemName).build();
+    }
+
+    private static List<Object> values(List<InfluxPoint> points) {
+        return points.stream().map(InfluxPoint::getValue).toList();
+    }
+
+    @Test
+    public void dropOldestKeepsNewestPoints() {
+        InfluxPointQueue queue = new InfluxPointQueue(2, OverflowPolicy.DROP_OLDEST, null);
+        queue.add(point("a", 1, 1L));
+        queue.add(point("a", 2, 2L));
+        queue.add(point("a", 3, 3L));
+
+        assertThat(queue.getDropped(), is(1L));
+        assertThat(values(queue.drain(0)), contains(2L, 3L));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void coalesceKeepsNewestPointOfEachItem() {
+        InfluxPointQueue queue = new InfluxPointQueue(3, OverflowPolicy.COALESCE, null);
+        queue.add(point("a", 1, 1L));
+        queue.add(point("b", 2, 2L));
+        queue.add(point("a", 3, 3L));
+        queue.add(point("b", 4, 4L));
+
+        assertThat(queue.getDropped(), is(2L));
+        assertThat(values(queue.drain(0)), contains(3L, 4L));
+    }
+
+    @Test
+    public void spilledPointsAreReadBackInPortions() {
+        Path spillFile = tempDir.resolve("spill.bin");
+        InfluxPointQueue queue = new InfluxPointQueue(2, OverflowPolicy.SPILL, spillFile);
+        queue.add(point("a", 1, new BigDecimal("1.5")));
+        queue.add(point("b", 2, "text"));
+        queue.add(point("c", 3, true));
+        queue.add(point("d", 4, 4.25));
+        queue.add(point("e", 5, 5L));
+
+        assertThat(queue.getDropped(), is(0L));
+        assertThat(Files.exists(spillFile), is(true));
+
+        // points in memory first, then the requested number of spilled points
+        List<InfluxPoint> first = queue.drain(1);
+        assertThat(values(first), contains(4.25, 5L, new BigDecimal("1.5")));
+        assertThat(first.get(2).getTags().get(TAG_ITEM_NAME), is("a"));
+        assertThat(first.get(2).getTime(), is(Instant.ofEpochMilli(1)));
+
+        assertThat(values(queue.drain(10)), contains("text", true));
+        assertThat(Files.exists(spillFile), is(false));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void spillAllKeepsPointsForNextStart() {
+        Path spillFile = tempDir.resolve("spill.bin");
+        InfluxPointQueue queue = new InfluxPointQueue(10, OverflowPolicy.SPILL, spillFile);
+        queue.add(point("a", 1, 1L));
+        assertThat(queue.spillAll(), is(true));
+
+        InfluxPointQueue restarted = new InfluxPointQueue(10, OverflowPolicy.SPILL, spillFile);
+        assertThat(restarted.isEmpty(), is(false));
+        assertThat(values(restarted.drain(10)), contains(1L));
+    }
+
+    @Test
+    public void overflowPolicyIsParsed() {
+        assertThat(OverflowPolicy.fromString("coalesce", OverflowPolicy.DROP_OLDEST), is(OverflowPolicy.COALESCE));
+        assertThat(OverflowPolicy.fromString("drop-oldest", OverflowPolicy.SPILL), is(OverflowPolicy.DROP_OLDEST));
+        assertThat(OverflowPolicy.fromString("invalid", OverflowPolicy.DROP_OLDEST), is(OverflowPolicy.DROP_OLDEST));
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.inmemory.internal;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link CompactNumberDatabase} stores the values of a numeric item in primitive arrays, sorted by timestamp. The
+ * timestamps are stored as epoch milliseconds, the values as doubles and the unit (if any) once for the whole item.
+ * States are only created when they are read.
+ * <p>
+ * The arrays have free space at both ends, so removing the oldest value and appending a new value do not require
+ * moving the other values. This class is not thread-safe.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class CompactNumberDatabase {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final @Nullable Unit<?> unit;
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int start = 0;
+    private int end = 0;
+
+    private CompactNumberDatabase(@Nullable Unit<?> unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Create a database that can store the given state
+     *
+     * @param state the first state that shall be stored
+     * @return a new database or {@code null} if the state can not be stored in compact form
+     */
+    public static @Nullable CompactNumberDatabase create(State state) {
+        if (state.getClass().equals(DecimalType.class)) {
+            return new CompactNumberDatabase(null);
+        } else if (state instanceof QuantityType<?> quantityState) {
+            return new CompactNumberDatabase(quantityState.getUnit());
+        }
+        return null;
+    }
+
+    /**
+     * Add a state. If a value with the same timestamp already exists, the new value is ignored.
+     *
+     * @param timestamp the timestamp in epoch milliseconds
+     * @param state the state
+     * @return {@code false} if the state can not be stored in this database (different type or incompatible unit)
+     */
+    public boolean add(long timestamp, State state) {
+        double value;
+        Unit<?> unit = this.unit;
+        if (unit == null) {
+            if (!state.getClass().equals(DecimalType.class)) {
+                return false;
+            }
+            value = ((DecimalType) state).doubleValue();
+        } else {
+            if (!(state instanceof QuantityType<?> quantityState)) {
+                return false;
+            }
+            QuantityType<?> convertedState = quantityState.toUnit(unit);
+            if (convertedState == null) {
+                return false;
+            }
+            value = convertedState.doubleValue();
+        }
+
+        int index = start + lowerBound(timestamp);
+        if (index < end && timestamps[index] == timestamp) {
+            return true;
+        }
+        if (end == timestamps.length) {
+            int size = size();
+            if (start > 0 && start >= size >> 2) {
+                // the removed values left space at the beginning, move the values to the front. When only a few
+                // values have been removed, the arrays are grown instead so that the values are not moved on every add
+                System.arraycopy(timestamps, start, timestamps, 0, size);
+                System.arraycopy(values, start, values, 0, size);
+            } else {
+                int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+                long[] newTimestamps = new long[capacity];
+                double[] newValues = new double[capacity];
+                System.arraycopy(timestamps, start, newTimestamps, 0, size);
+                System.arraycopy(values, start, newValues, 0, size);
+                timestamps = newTimestamps;
+                values = newValues;
+            }
+            index -= start;
+            start = 0;
+            end = size;
+        }
+        if (index < end) {
+            System.arraycopy(timestamps, index, timestamps, index + 1, end - index);
+            System.arraycopy(values, index, values, index + 1, end - index);
+        }
+        timestamps[index] = timestamp;
+        values[index] = value;
+        end++;
+        return true;
+    }
+
+    public int size() {
+        return end - start;
+    }
+
+    public boolean isEmpty() {
+        return end == start;
+    }
+
+    /**
+     * Remove the value with the oldest timestamp
+     */
+    public void removeFirst() {
+        if (start < end) {
+            start++;
+        }
+        if (start == end) {
+            start = 0;
+            end = 0;
+        }
+    }
+
+    /**
+     * Remove all values in a range that match a predicate
+     *
+     * @param from the first index (inclusive)
+     * @param to the last index (exclusive)
+     * @param predicate the predicate, gets the index of the value
+     */
+    public void removeIf(int from, int to, IntPredicate predicate) {
+        int target = start + from;
+        for (int i = from; i < to; i++) {
+            if (!predicate.test(i)) {
+                timestamps[target] = timestamps[start + i];
+                values[target] = values[start + i];
+                target++;
+            }
+        }
+        int removed = start + to - target;
+        if (removed > 0) {
+            System.arraycopy(timestamps, start + to, timestamps, target, end - start - to);
+            System.arraycopy(values, start + to, values, target, end - start - to);
+            end -= removed;
+        }
+    }
+
+    /**
+     * Get the timestamp of a value
+     *
+     * @param index the index of the value
+     * @return the timestamp in epoch milliseconds
+     */
+    public long getTimestamp(int index) {
+        return timestamps[start + index];
+    }
+
+    /**
+     * Get the state of a value
+     *
+     * @param index the index of the value
+     * @return the state
+     */
+    public State getState(int index) {
+        double value = values[start + index];
+        Unit<?> unit = this.unit;
+        return unit == null ? new DecimalType(value) : toQuantityType(value, unit);
+    }
+
+    /**
+     * Get the index of the first value with a timestamp equal to or after the given timestamp
+     *
+     * @param timestamp the timestamp in epoch milliseconds
+     * @return the index, {@link #size()} if there is no such value
+     */
+    public int lowerBound(long timestamp) {
+        int index = Arrays.binarySearch(timestamps, start, end, timestamp);
+        return (index >= 0 ? index : -index - 1) - start;
+    }
+
+    /**
+     * Get the index of the first value with a timestamp after the given timestamp
+     *
+     * @param timestamp the timestamp in epoch milliseconds
+     * @return the index, {@link #size()} if there is no such value
+     */
+    public int upperBound(long timestamp) {
+        int index = Arrays.binarySearch(timestamps, start, end, timestamp);
+        // timestamps are unique
+        return (index >= 0 ? index + 1 : -index - 1) - start;
+    }
+
+    private static <Q extends Quantity<Q>> QuantityType<Q> toQuantityType(double value, Unit<Q> unit) {
+        return new QuantityType<>(value, unit);
+    }
+}
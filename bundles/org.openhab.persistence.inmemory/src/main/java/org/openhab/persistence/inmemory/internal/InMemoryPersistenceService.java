@@ -13,18 +13,25 @@
 package org.openhab.persistence.inmemory.internal;
 
 import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -66,11 +73,13 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     protected static final String CONFIG_URI = "persistence:inmemory";
     private final String MAX_ENTRIES_CONFIG = "maxEntries";
     private final long MAX_ENTRIES_DEFAULT = 512;
+    private final String COMPACT_NUMBERS_CONFIG = "compactNumbers";
 
     private final Logger logger = LoggerFactory.getLogger(InMemoryPersistenceService.class);
 
     private final Map<String, PersistItem> persistMap = new ConcurrentHashMap<>();
     private long maxEntries = MAX_ENTRIES_DEFAULT;
+    private boolean compactNumbers = false;
 
     @Activate
     public void activate(Map<String, Object> config) {
@@ -81,13 +90,14 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     @Modified
     public void modified(Map<String, Object> config) {
         maxEntries = ConfigParser.valueAsOrElse(config.get(MAX_ENTRIES_CONFIG), Long.class, MAX_ENTRIES_DEFAULT);
+        compactNumbers = ConfigParser.valueAsOrElse(config.get(COMPACT_NUMBERS_CONFIG), Boolean.class, false);
 
         persistMap.values().forEach(persistItem -> {
-            Lock lock = persistItem.lock();
+            Lock lock = persistItem.lock.writeLock();
             lock.lock();
             try {
-                while (persistItem.database().size() > maxEntries) {
-                    persistItem.database().pollFirst();
+                while (persistItem.size() > maxEntries) {
+                    persistItem.removeOldest();
                 }
             } finally {
                 lock.unlock();
@@ -148,11 +158,16 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             return false;
         }
 
-        Lock lock = persistItem.lock();
+        Lock lock = persistItem.lock.writeLock();
         lock.lock();
         try {
-            List<PersistEntry> toRemove = persistItem.database().stream().filter(e -> applies(e, filter)).toList();
-            toRemove.forEach(persistItem.database()::remove);
+            CompactNumberDatabase compactDatabase = persistItem.compactDatabase;
+            if (compactDatabase != null) {
+                int[] range = getRange(compactDatabase, filter);
+                compactDatabase.removeIf(range[0], range[1], i -> applies(toPersistEntry(compactDatabase, i), filter));
+            } else {
+                getRange(persistItem.database, filter).removeIf(e -> applies(e, filter));
+            }
         } finally {
             lock.unlock();
         }
@@ -171,21 +186,91 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             return List.of();
         }
 
-        Lock lock = persistItem.lock();
+        Lock lock = persistItem.lock.readLock();
         lock.lock();
-
-        Comparator<PersistEntry> comparator = filter.getOrdering() == FilterCriteria.Ordering.ASCENDING
-                ? Comparator.comparing(PersistEntry::timestamp)
-                : Comparator.comparing(PersistEntry::timestamp).reversed();
-
         try {
-            return persistItem.database().stream().filter(e -> applies(e, filter)).sorted(comparator)
-                    .map(e -> toHistoricItem(itemName, e)).toList();
+            boolean descending = filter.getOrdering() == FilterCriteria.Ordering.DESCENDING;
+            Iterable<PersistEntry> range;
+            CompactNumberDatabase compactDatabase = persistItem.compactDatabase;
+            if (compactDatabase != null) {
+                int[] indexRange = getRange(compactDatabase, filter);
+                range = () -> new CompactRangeIterator(compactDatabase, indexRange[0], indexRange[1], descending);
+            } else {
+                NavigableSet<PersistEntry> entryRange = getRange(persistItem.database, filter);
+                range = descending ? entryRange.descendingSet() : entryRange;
+            }
+
+            long skip = (long) filter.getPageNumber() * filter.getPageSize();
+            int pageSize = filter.getPageSize();
+            List<HistoricItem> result = new ArrayList<>();
+            for (PersistEntry entry : range) {
+                if (result.size() >= pageSize) {
+                    break;
+                }
+                if (!applies(entry, filter)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    result.add(toHistoricItem(itemName, entry));
+                }
+            }
+            return result;
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Get a view of all entries between the begin and end date of the filter. As {@link ZonedDateTime}s with the same
+     * instant but different zones are not equal, the view is widened by one nanosecond on each side and the exact
+     * boundaries need to be checked with {@link #applies(PersistEntry, FilterCriteria)}.
+     *
+     * @param database the database of the item
+     * @param filter the filter
+     * @return the (modifiable) view of the entries
+     */
+    private NavigableSet<PersistEntry> getRange(TreeSet<PersistEntry> database, FilterCriteria filter) {
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        if (beginDate != null && endDate != null) {
+            if (beginDate.isAfter(endDate)) {
+                return Collections.emptyNavigableSet();
+            }
+            return database.subSet(new PersistEntry(beginDate.minusNanos(1), UnDefType.NULL), false,
+                    new PersistEntry(endDate.plusNanos(1), UnDefType.NULL), false);
+        } else if (beginDate != null) {
+            return database.tailSet(new PersistEntry(beginDate.minusNanos(1), UnDefType.NULL), false);
+        } else if (endDate != null) {
+            return database.headSet(new PersistEntry(endDate.plusNanos(1), UnDefType.NULL), false);
+        }
+        return database;
+    }
+
+    /**
+     * Get the index range of all values between the begin and end date of the filter. As the timestamps are stored
+     * with millisecond precision, the exact boundaries need to be checked with
+     * {@link #applies(PersistEntry, FilterCriteria)}.
+     *
+     * @param database the compact database of the item
+     * @param filter the filter
+     * @return the first (inclusive) and last (exclusive) index
+     */
+    private int[] getRange(CompactNumberDatabase database, FilterCriteria filter) {
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        int from = beginDate == null ? 0 : database.lowerBound(beginDate.toInstant().toEpochMilli());
+        int to = endDate == null ? database.size() : database.upperBound(endDate.toInstant().toEpochMilli());
+        return new int[] { from, Math.max(from, to) };
+    }
+
+    private PersistEntry toPersistEntry(CompactNumberDatabase database, int index) {
+        return new PersistEntry(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(database.getTimestamp(index)), ZoneId.systemDefault()),
+                database.getState(index));
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         // persist only forecasts by default
@@ -193,13 +278,22 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     }
 
     private PersistenceItemInfo toItemInfo(Map.Entry<String, PersistItem> itemEntry) {
-        Lock lock = itemEntry.getValue().lock();
+        PersistItem persistItem = itemEntry.getValue();
+        Lock lock = persistItem.lock.readLock();
         lock.lock();
         try {
             String name = itemEntry.getKey();
-            Integer count = itemEntry.getValue().database().size();
-            Instant earliest = itemEntry.getValue().database().first().timestamp().toInstant();
-            Instant latest = itemEntry.getValue().database.last().timestamp.toInstant();
+            Integer count = persistItem.size();
+            Instant earliest;
+            Instant latest;
+            CompactNumberDatabase compactDatabase = persistItem.compactDatabase;
+            if (compactDatabase != null) {
+                earliest = Instant.ofEpochMilli(compactDatabase.getTimestamp(0));
+                latest = Instant.ofEpochMilli(compactDatabase.getTimestamp(compactDatabase.size() - 1));
+            } else {
+                earliest = persistItem.database.first().timestamp().toInstant();
+                latest = persistItem.database.last().timestamp().toInstant();
+            }
             return new PersistenceItemInfo() {
 
                 @Override
@@ -251,17 +345,15 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             return;
         }
 
-        PersistItem persistItem = Objects.requireNonNull(persistMap.computeIfAbsent(itemName,
-                k -> new PersistItem(new TreeSet<>(Comparator.comparing(PersistEntry::timestamp)),
-                        new ReentrantLock())));
+        PersistItem persistItem = Objects.requireNonNull(persistMap.computeIfAbsent(itemName, k -> new PersistItem()));
 
-        Lock lock = persistItem.lock();
+        Lock lock = persistItem.lock.writeLock();
         lock.lock();
         try {
-            persistItem.database().add(new PersistEntry(timestamp, state));
+            persistItem.add(timestamp, state, compactNumbers);
 
-            while (persistItem.database.size() > maxEntries) {
-                persistItem.database().pollFirst();
+            while (persistItem.size() > maxEntries) {
+                persistItem.removeOldest();
             }
         } finally {
             lock.unlock();
@@ -316,6 +408,81 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     private record PersistEntry(ZonedDateTime timestamp, State state) {
     }
 
-    private record PersistItem(TreeSet<PersistEntry> database, Lock lock) {
+    /**
+     * The values of an item, either stored as {@link PersistEntry}s or (for numeric items in compact mode) in a
+     * {@link CompactNumberDatabase}. All access must be guarded by the lock.
+     */
+    private class PersistItem {
+        private final TreeSet<PersistEntry> database = new TreeSet<>(Comparator.comparing(PersistEntry::timestamp));
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private @Nullable CompactNumberDatabase compactDatabase;
+
+        private void add(ZonedDateTime timestamp, State state, boolean compact) {
+            CompactNumberDatabase compactDatabase = this.compactDatabase;
+            if (compactDatabase == null && compact && database.isEmpty()) {
+                compactDatabase = this.compactDatabase = CompactNumberDatabase.create(state);
+            }
+            if (compactDatabase != null) {
+                if (compactDatabase.add(timestamp.toInstant().toEpochMilli(), state)) {
+                    return;
+                }
+                // the new state can't be stored in compact form, move all values to the regular database
+                logger.debug("Switching to regular storage because state '{}' can not be stored in compact form",
+                        state);
+                for (int i = 0; i < compactDatabase.size(); i++) {
+                    database.add(toPersistEntry(compactDatabase, i));
+                }
+                this.compactDatabase = null;
+            }
+            database.add(new PersistEntry(timestamp, state));
+        }
+
+        private int size() {
+            CompactNumberDatabase compactDatabase = this.compactDatabase;
+            return compactDatabase != null ? compactDatabase.size() : database.size();
+        }
+
+        private void removeOldest() {
+            CompactNumberDatabase compactDatabase = this.compactDatabase;
+            if (compactDatabase != null) {
+                compactDatabase.removeFirst();
+            } else {
+                database.pollFirst();
+            }
+        }
+    }
+
+    /**
+     * Iterates over an index range of a {@link CompactNumberDatabase} and creates the {@link PersistEntry}s on the fly
+     */
+    private class CompactRangeIterator implements Iterator<PersistEntry> {
+        private final CompactNumberDatabase database;
+        private final int from;
+        private final int to;
+        private final boolean descending;
+        private int next;
+
+        private CompactRangeIterator(CompactNumberDatabase database, int from, int to, boolean descending) {
+            this.database = database;
+            this.from = from;
+            this.to = to;
+            this.descending = descending;
+            this.next = descending ? to - 1 : from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return descending ? next >= from : next < to;
+        }
+
+        @Override
+        public PersistEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PersistEntry entry = toPersistEntry(database, next);
+            next += descending ? -1 : 1;
+            return entry;
+        }
     }
 }
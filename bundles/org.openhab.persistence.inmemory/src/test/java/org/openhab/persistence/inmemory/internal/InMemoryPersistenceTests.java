@@ -21,6 +21,7 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,7 +36,9 @@ import org.openhab.core.items.GenericItem;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.HSBType;
 import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
@@ -175,6 +178,167 @@ public class InMemoryPersistenceTests {
         assertThat(resultSet, contains(3, 2, 1));
     }
 
+    @Test
+    public void queryReturnsEntriesBetweenBeginAndEndDate() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        filterCriteria.setBeginDate(start.plusHours(3));
+        filterCriteria.setEndDate(start.plusHours(6).withZoneSameInstant(ZoneId.of("UTC")));
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(3, 4, 5, 6));
+    }
+
+    @Test
+    public void querySupportsPaging() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.DESCENDING);
+        filterCriteria.setPageSize(3);
+        filterCriteria.setPageNumber(1);
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(6, 5, 4));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        filterCriteria.setPageNumber(3);
+
+        resultSet.clear();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(9));
+    }
+
+    @Test
+    public void pagingIsAppliedAfterStateFilter() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        filterCriteria.setState(new DecimalType(4));
+        filterCriteria.setOperator(FilterCriteria.Operator.GT);
+        filterCriteria.setPageSize(2);
+        filterCriteria.setPageNumber(1);
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(7, 8));
+    }
+
+    @Test
+    public void compactModeStoresNumbers() {
+        service.activate(Map.of("compactNumbers", true));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        // store out of order to check values are sorted by timestamp
+        for (int i = 9; i >= 0; i--) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.DESCENDING);
+        filterCriteria.setBeginDate(start.plusHours(2));
+        filterCriteria.setEndDate(start.plusHours(5));
+
+        List<HistoricItem> result = new ArrayList<>();
+        service.query(filterCriteria).forEach(result::add);
+
+        assertThat(result.stream().map(h -> ((DecimalType) h.getState()).intValue()).toList(), contains(5, 4, 3, 2));
+        assertThat(result.get(0).getTimestamp().toInstant(), is(start.plusHours(5).toInstant()));
+    }
+
+    @Test
+    public void compactModeKeepsUnit() {
+        service.activate(Map.of("compactNumbers", true));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, new QuantityType<>(20, SIUnits.CELSIUS));
+        service.store(item, start.plusHours(1), new QuantityType<>(300, SIUnits.KELVIN));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<State> result = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> result.add(h.getState()));
+
+        assertThat(result, hasSize(2));
+        assertThat(((QuantityType<?>) result.get(0)).getUnit(), is(SIUnits.CELSIUS));
+        assertThat(((QuantityType<?>) result.get(0)).doubleValue(), is(closeTo(20.0, 0.001)));
+        assertThat(((QuantityType<?>) result.get(1)).doubleValue(), is(closeTo(26.85, 0.001)));
+    }
+
+    @Test
+    public void compactModeSwitchesToRegularStorageForOtherStates() {
+        service.activate(Map.of("compactNumbers", true));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, new DecimalType(1));
+        service.store(item, start.plusHours(1), new StringType("value"));
+        service.store(item, start.plusHours(2), new DecimalType(3));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<State> result = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> result.add(h.getState()));
+
+        assertThat(result, contains(new DecimalType(1), new StringType("value"), new DecimalType(3)));
+    }
+
+    @Test
+    public void compactModeRemoveBetweenTimes() {
+        service.activate(Map.of("compactNumbers", true, "maxEntries", 8));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setBeginDate(start.plusHours(4));
+        filterCriteria.setEndDate(start.plusHours(5));
+        service.remove(filterCriteria);
+
+        filterCriteria = new FilterCriteria();
+        filterCriteria.setItemName(ITEM_NAME);
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(2, 3, 6, 7, 8, 9));
+    }
+
+    @Test
+    public void compactModeKeepsNewestValuesWhenFull() {
+        service.activate(Map.of("compactNumbers", true, "maxEntries", 20));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        // the oldest value is removed on every store, so the values are moved to the front of the arrays repeatedly
+        for (int i = 0; i < 100; i++) {
+            service.store(item, start.plusMinutes(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet.size(), is(20));
+        assertThat(resultSet.get(0), is(80));
+        assertThat(resultSet.get(19), is(99));
+    }
+
     @Test
     public void removeBetweenTimes() {
         State historicState1 = new StringType("value1");
@@ -24,6 +24,8 @@ import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.persistence.jdbc.internal.WriteBehindQueue.OverflowPolicy;
+import org.openhab.persistence.jdbc.internal.db.AggregateFunction;
 import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
 import org.openhab.persistence.jdbc.internal.utils.MovingAverage;
 import org.openhab.persistence.jdbc.internal.utils.StringUtilsExt;
@@ -66,6 +68,19 @@ public class JdbcConfiguration {
 
     private int errReconnectThreshold = 0;
 
+    private boolean writeBehind = false;
+    private int batchSize = 100;
+    private int batchInterval = 1000;
+    private int queueSize = 10000;
+    private OverflowPolicy queueOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+    private int writeThreads = 2;
+
+    private boolean queryStreaming = false;
+    private int queryFetchSize = 1000;
+
+    private int aggregateMaxPoints = 0;
+    private AggregateFunction aggregateFunction = AggregateFunction.AVG;
+
     public int timerCount = 0;
     public int time1000Statements = 0;
     public long timer1000 = 0;
@@ -215,6 +230,66 @@ public class JdbcConfiguration {
         }
         logger.debug("JDBC::updateConfig: enableLogTime {}", enableLogTime);
 
+        String wb = (String) configuration.get("writeBehind");
+        if (wb != null && !wb.isBlank()) {
+            writeBehind = Boolean.parseBoolean(wb);
+            logger.debug("JDBC::updateConfig: writeBehind={}", writeBehind);
+        }
+
+        String bs = (String) configuration.get("batchSize");
+        if (bs != null && !bs.isBlank() && isNumericPattern.matcher(bs).matches()) {
+            batchSize = Math.max(1, Integer.parseInt(bs));
+            logger.debug("JDBC::updateConfig: batchSize={}", batchSize);
+        }
+
+        String bi = (String) configuration.get("batchInterval");
+        if (bi != null && !bi.isBlank() && isNumericPattern.matcher(bi).matches()) {
+            batchInterval = Math.max(10, Integer.parseInt(bi));
+            logger.debug("JDBC::updateConfig: batchInterval={}", batchInterval);
+        }
+
+        String qs = (String) configuration.get("queueSize");
+        if (qs != null && !qs.isBlank() && isNumericPattern.matcher(qs).matches()) {
+            queueSize = Math.max(1, Integer.parseInt(qs));
+            logger.debug("JDBC::updateConfig: queueSize={}", queueSize);
+        }
+
+        String qo = (String) configuration.get("queueOverflow");
+        if (qo != null && !qo.isBlank()) {
+            queueOverflowPolicy = OverflowPolicy.fromString(qo, queueOverflowPolicy);
+            logger.debug("JDBC::updateConfig: queueOverflow={}", queueOverflowPolicy);
+        }
+
+        String wt = (String) configuration.get("writeThreads");
+        if (wt != null && !wt.isBlank() && isNumericPattern.matcher(wt).matches()) {
+            writeThreads = Math.max(1, Integer.parseInt(wt));
+            logger.debug("JDBC::updateConfig: writeThreads={}", writeThreads);
+        }
+
+        String qst = (String) configuration.get("queryStreaming");
+        if (qst != null && !qst.isBlank()) {
+            queryStreaming = Boolean.parseBoolean(qst);
+            logger.debug("JDBC::updateConfig: queryStreaming={}", queryStreaming);
+        }
+
+        String qfs = (String) configuration.get("queryFetchSize");
+        if (qfs != null && !qfs.isBlank() && isNumericPattern.matcher(qfs).matches()) {
+            queryFetchSize = Math.max(1, Integer.parseInt(qfs));
+            logger.debug("JDBC::updateConfig: queryFetchSize={}", queryFetchSize);
+        }
+
+        String amp = (String) configuration.get("aggregateMaxPoints");
+        if (amp != null && !amp.isBlank() && isNumericPattern.matcher(amp).matches()) {
+            aggregateMaxPoints = Integer.parseInt(amp);
+            logger.debug("JDBC::updateConfig: aggregateMaxPoints={}", aggregateMaxPoints);
+        }
+
+        String af = (String) configuration.get("aggregateFunction");
+        if (af != null && !af.isBlank()) {
+            aggregateFunction = AggregateFunction.fromString(af, aggregateFunction);
+            logger.debug("JDBC::updateConfig: aggregateFunction={}", aggregateFunction);
+        }
+
         // undocumented
         String fd = (String) configuration.get("driverClassName");
         if (fd != null && !fd.isBlank()) {
@@ -375,6 +450,46 @@ public class JdbcConfiguration {
         return errReconnectThreshold;
     }
 
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchInterval() {
+        return batchInterval;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public OverflowPolicy getQueueOverflowPolicy() {
+        return queueOverflowPolicy;
+    }
+
+    public int getWriteThreads() {
+        return writeThreads;
+    }
+
+    public boolean isQueryStreaming() {
+        return queryStreaming;
+    }
+
+    public int getQueryFetchSize() {
+        return queryFetchSize;
+    }
+
+    public int getAggregateMaxPoints() {
+        return aggregateMaxPoints;
+    }
+
+    public AggregateFunction getAggregateFunction() {
+        return aggregateFunction;
+    }
+
     public boolean getRebuildTableNames() {
         return rebuildTableNames;
     }
@@ -427,6 +542,8 @@ public class JdbcConfiguration {
         dBDAO.initAfterFirstDbConnection();
         // Running once again to prior external configured SqlTypes!
         setSqlTypes();
+        // SQL resolved before is based on the old types
+        dBDAO.clearSqlCache();
         this.dbConnected = dbConnected;
     }
 
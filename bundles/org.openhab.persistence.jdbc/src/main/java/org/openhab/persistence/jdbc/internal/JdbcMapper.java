@@ -13,6 +13,7 @@
 package org.openhab.persistence.jdbc.internal;
 
 import java.sql.SQLInvalidAuthorizationSpecException;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -20,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -32,9 +34,11 @@ import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.db.AggregateFunction;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcItemValue;
 import org.openhab.persistence.jdbc.internal.dto.JdbcPersistenceItemInfo;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
@@ -55,8 +59,8 @@ public class JdbcMapper {
     private final Logger logger = LoggerFactory.getLogger(JdbcMapper.class);
     private final TimeZoneProvider timeZoneProvider;
 
-    // Error counter - used to reconnect to database on error
-    protected int errCnt;
+    // Error counter - used to reconnect to database on error, updated by the writer threads
+    protected final AtomicInteger errCnt = new AtomicInteger();
     protected boolean initialized = false;
     protected @NonNullByDefault({}) JdbcConfiguration conf;
     protected final Map<String, String> itemNameToTableNameMap = new HashMap<>();
@@ -222,7 +226,15 @@ public class JdbcMapper {
             conf.getDBDAO().doStoreItemValue(item, itemState, new ItemVO(tableName, null), date);
         }
         logTime("storeItemValue", timerStart, System.currentTimeMillis());
-        errCnt = 0;
+        errCnt.set(0);
+    }
+
+    protected void storeItemValues(Item item, String tableName, List<JdbcItemValue> values) throws JdbcSQLException {
+        logger.debug("JDBC::storeItemValues: item={} table={} count={}", item, tableName, values.size());
+        long timerStart = System.currentTimeMillis();
+        conf.getDBDAO().doStoreItemValues(item, new ItemVO(tableName, null), values);
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        errCnt.set(0);
     }
 
     public long getRowCount(String tableName) throws JdbcSQLException {
@@ -238,7 +250,48 @@ public class JdbcMapper {
         List<HistoricItem> result = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount, table,
                 item.getName(), timeZoneProvider.getTimeZone());
         logTime("getHistItemFilterQuery", timerStart, System.currentTimeMillis());
-        errCnt = 0;
+        errCnt.set(0);
+        return result;
+    }
+
+    protected Iterable<HistoricItem> streamHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount,
+            String table, Item item) {
+        logger.debug("JDBC::streamHistItemFilterQuery numberDecimalcount='{}' table='{}' itemName='{}'",
+                numberDecimalcount, table, item.getName());
+        return conf.getDBDAO().doStreamHistItemFilterQuery(item, filter, numberDecimalcount, table, item.getName(),
+                timeZoneProvider.getTimeZone(), conf.getQueryFetchSize());
+    }
+
+    /**
+     * Query the values of an item aggregated into at most the given number of points.
+     *
+     * @return the aggregated values or {@code null} if the filter has no begin date or the range does not contain
+     *         considerably more values than points, the raw values should be queried then
+     */
+    protected @Nullable List<HistoricItem> getAggregatedHistItemFilterQuery(FilterCriteria filter,
+            int numberDecimalcount, String table, Item item, AggregateFunction function, int points)
+            throws JdbcSQLException {
+        ZonedDateTime beginDate = filter.getBeginDate();
+        if (beginDate == null || points <= 0) {
+            return null;
+        }
+        ZonedDateTime endDate = Objects.requireNonNullElse(filter.getEndDate(), ZonedDateTime.now());
+        long timerStart = System.currentTimeMillis();
+        long rowCount = conf.getDBDAO().doGetRowCount(table, filter, timeZoneProvider.getTimeZone());
+        if (rowCount <= 2L * points) {
+            logger.debug("JDBC::getAggregatedHistItemFilterQuery table='{}' has only {} rows in range, not aggregated",
+                    table, rowCount);
+            return null;
+        }
+        long seconds = Math.max(1, Duration.between(beginDate, endDate).getSeconds());
+        long bucketSeconds = Math.max(1, (seconds + points - 1) / points);
+        logger.debug("JDBC::getAggregatedHistItemFilterQuery table='{}' rows={} function={} bucketSeconds={}", table,
+                rowCount, function, bucketSeconds);
+        List<HistoricItem> result = conf.getDBDAO().doGetAggregatedHistItemFilterQuery(item, filter,
+                numberDecimalcount, table, item.getName(), timeZoneProvider.getTimeZone(), function, bucketSeconds,
+                conf.getQueryFetchSize());
+        logTime("getAggregatedHistItemFilterQuery", timerStart, System.currentTimeMillis());
+        errCnt.set(0);
         return result;
     }
 
@@ -247,7 +300,7 @@ public class JdbcMapper {
         long timerStart = System.currentTimeMillis();
         conf.getDBDAO().doDeleteItemValues(filter, table, timeZoneProvider.getTimeZone());
         logTime("deleteItemValues", timerStart, System.currentTimeMillis());
-        errCnt = 0;
+        errCnt.set(0);
     }
 
     /***********************
@@ -297,12 +350,12 @@ public class JdbcMapper {
             boolean p = pingDB();
             if (p) {
                 logger.debug("JDBC::checkDBAcessability, first try connection: {}", p);
-                return (p && !(conf.getErrReconnectThreshold() > 0 && errCnt <= conf.getErrReconnectThreshold()));
+                return (p && !(conf.getErrReconnectThreshold() > 0 && errCnt.get() <= conf.getErrReconnectThreshold()));
             } else {
                 // second
                 p = pingDB();
                 logger.debug("JDBC::checkDBAcessability, second try connection: {}", p);
-                return (p && !(conf.getErrReconnectThreshold() > 0 && errCnt <= conf.getErrReconnectThreshold()));
+                return (p && !(conf.getErrReconnectThreshold() > 0 && errCnt.get() <= conf.getErrReconnectThreshold()));
             }
         } catch (JdbcSQLException e) {
             logger.warn("Unable to ping database", e);
@@ -329,7 +382,7 @@ public class JdbcMapper {
             logger.info(
                     "JDBC::checkDBSchema: Rebuild complete, configure the 'rebuildTableNames' setting to 'false' to stop rebuilds on startup");
             // Reset the error counter
-            errCnt = 0;
+            errCnt.set(0);
         }
         populateItemNameToTableNameMap();
     }
@@ -12,17 +12,30 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -34,6 +47,7 @@ import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.ModifiablePersistenceService;
@@ -46,6 +60,7 @@ import org.openhab.core.types.UnDefType;
 import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcItemValue;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.osgi.framework.BundleContext;
@@ -77,6 +92,16 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory(JdbcPersistenceServiceConstants.SERVICE_ID));
 
+    // write-behind, only used if enabled in the configuration
+    private @Nullable WriteBehindQueue writeQueue;
+    private @Nullable ExecutorService writers;
+    private @Nullable ScheduledFuture<?> flushJob;
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+
+    // streamed results that are not read for this long are closed to release their connection
+    private static final Duration CURSOR_IDLE_TIMEOUT = Duration.ofMinutes(1);
+    private @Nullable ScheduledFuture<?> cursorJob;
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
@@ -121,6 +146,8 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
         // closeConnection();
+        stopWriteBehind();
+        stopCursorJob();
         initialized = false;
     }
 
@@ -137,24 +164,50 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
     @Override
     public void store(Item item) {
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        enqueue(item, null, item.getState());
     }
 
     @Override
     public void store(Item item, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        enqueue(item, null, item.getState());
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state) {
-        scheduler.execute(() -> internalStore(item, date, state));
+        enqueue(item, date, state);
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, date, state));
+        enqueue(item, date, state);
+    }
+
+    private void enqueue(Item item, @Nullable ZonedDateTime date, State state) {
+        WriteBehindQueue queue = writeQueue;
+        if (queue == null) {
+            scheduler.execute(() -> internalStore(item, date, state));
+            return;
+        }
+        // Do not store undefined/uninitialized data
+        if (state instanceof UnDefType) {
+            logger.debug("JDBC::store: ignore Item '{}' because it is UnDefType", item.getName());
+            return;
+        }
+        // the value is written later, so the time has to be taken now
+        JdbcItemValue value = new JdbcItemValue(state, date == null ? ZonedDateTime.now() : date);
+        try {
+            int size = queue.add(new WriteBehindQueue.Entry(item, value));
+            if (size < 0) {
+                logger.debug("JDBC::store: write-behind queue is full, discarded state '{}' for item '{}'", state,
+                        item.getName());
+            } else if (size >= conf.getBatchSize() && flushPending.compareAndSet(false, true)) {
+                scheduler.execute(this::flushQueue);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private synchronized void internalStore(Item item, @Nullable ZonedDateTime date, State state) {
@@ -166,7 +219,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         if (!checkDBAccessability()) {
             logger.warn(
                     "JDBC::store: No connection to database. Cannot persist state '{}' for item '{}'! Will retry connecting to database when error count:{} equals errReconnectThreshold:{}",
-                    state, item, errCnt, conf.getErrReconnectThreshold());
+                    state, item, errCnt.get(), conf.getErrReconnectThreshold());
             return;
         }
         try {
@@ -181,6 +234,180 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         }
     }
 
+    private void startWriteBehind() {
+        WriteBehindQueue queue = new WriteBehindQueue(conf.getQueueSize(), conf.getQueueOverflowPolicy());
+        writers = Executors.newFixedThreadPool(conf.getWriteThreads(),
+                new NamedThreadFactory(JdbcPersistenceServiceConstants.SERVICE_ID + "-writer"));
+        writeQueue = queue;
+        flushJob = scheduler.scheduleWithFixedDelay(this::flushQueue, conf.getBatchInterval(),
+                conf.getBatchInterval(), TimeUnit.MILLISECONDS);
+        logger.debug("JDBC::startWriteBehind: batchSize={}, batchInterval={} ms, queueSize={}, writeThreads={}",
+                conf.getBatchSize(), conf.getBatchInterval(), conf.getQueueSize(), conf.getWriteThreads());
+    }
+
+    private void stopWriteBehind() {
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        WriteBehindQueue queue = writeQueue;
+        if (queue != null) {
+            // write the remaining values while the connection is still available
+            try {
+                scheduler.submit(this::flushQueue).get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                // the remaining values are reported below
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (queue.size() > 0) {
+                logger.warn("JDBC::stopWriteBehind: Unable to write {} queued value(s)", queue.size());
+            }
+            writeQueue = null;
+            queue.close();
+        }
+        ExecutorService writers = this.writers;
+        if (writers != null) {
+            writers.shutdown();
+            this.writers = null;
+        }
+    }
+
+    private void startCursorJob() {
+        long period = CURSOR_IDLE_TIMEOUT.toSeconds() / 2;
+        cursorJob = scheduler.scheduleWithFixedDelay(() -> {
+            int closed = conf.getDBDAO().closeIdleCursors(CURSOR_IDLE_TIMEOUT);
+            if (closed > 0) {
+                logger.debug("JDBC::closeIdleCursors: closed {} streamed result(s) that were not read until the end",
+                        closed);
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    private void stopCursorJob() {
+        ScheduledFuture<?> cursorJob = this.cursorJob;
+        if (cursorJob != null) {
+            cursorJob.cancel(false);
+            this.cursorJob = null;
+            conf.getDBDAO().closeCursors();
+        }
+    }
+
+    private void flushQueue() {
+        flushPending.set(false);
+        WriteBehindQueue queue = writeQueue;
+        ExecutorService writers = this.writers;
+        if (queue == null || writers == null) {
+            return;
+        }
+        if (queue.size() == 0) {
+            return;
+        }
+        // check the connection before draining, values are kept in the queue until the database is available again
+        synchronized (this) {
+            if (!checkDBAccessability()) {
+                logger.warn(
+                        "JDBC::store: No connection to database. Keeping {} queued value(s)! Will retry connecting to database when error count:{} equals errReconnectThreshold:{}",
+                        queue.size(), errCnt.get(), conf.getErrReconnectThreshold());
+                return;
+            }
+        }
+        List<WriteBehindQueue.Entry> entries = queue.drain();
+        if (entries.isEmpty()) {
+            return;
+        }
+        long timerStart = System.currentTimeMillis();
+        try {
+            int written = writeEntries(entries, queue, writers);
+            long duration = System.currentTimeMillis() - timerStart;
+            queue.recordFlush(written, duration);
+            logger.debug("JDBC::flushQueue: Stored {} of {} queued value(s) in {} ms.", written, entries.size(),
+                    duration);
+        } catch (RuntimeException e) {
+            logger.warn("JDBC::flushQueue: Unable to store queued values", e);
+        }
+    }
+
+    private int writeEntries(List<WriteBehindQueue.Entry> entries, WriteBehindQueue queue, ExecutorService writers) {
+        Map<String, List<JdbcItemValue>> valuesByItemName = new LinkedHashMap<>();
+        Map<String, Item> items = new HashMap<>();
+        for (WriteBehindQueue.Entry entry : entries) {
+            String itemName = entry.item().getName();
+            valuesByItemName.computeIfAbsent(itemName, k -> new ArrayList<>()).add(entry.value());
+            items.putIfAbsent(itemName, entry.item());
+        }
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        synchronized (this) {
+            if (!checkDBAccessability()) {
+                // the connection was lost since the queue was drained, retry with the next flush
+                logger.warn(
+                        "JDBC::store: No connection to database. Keeping {} queued value(s)! Will retry connecting to database when error count:{} equals errReconnectThreshold:{}",
+                        entries.size(), errCnt.get(), conf.getErrReconnectThreshold());
+                queue.requeue(entries);
+                return 0;
+            }
+            for (Entry<String, List<JdbcItemValue>> entry : valuesByItemName.entrySet()) {
+                Item item = Objects.requireNonNull(items.get(entry.getKey()));
+                String table;
+                try {
+                    table = getTable(item);
+                } catch (JdbcException e) {
+                    logger.warn("JDBC::store: Unable to store item", e);
+                    continue;
+                }
+                List<JdbcItemValue> values = entry.getValue();
+                futures.add(CompletableFuture.supplyAsync(() -> writeValues(item, table, values), writers));
+            }
+        }
+
+        int written = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            try {
+                written += future.join();
+            } catch (CompletionException | CancellationException e) {
+                logger.warn("JDBC::store: Unable to store item", e.getCause());
+            }
+        }
+        return written;
+    }
+
+    private int writeValues(Item item, String table, List<JdbcItemValue> values) {
+        int written = 0;
+        int batchSize = conf.getBatchSize();
+        for (int from = 0; from < values.size(); from += batchSize) {
+            List<JdbcItemValue> batch = values.subList(from, Math.min(values.size(), from + batchSize));
+            try {
+                storeItemValues(item, table, batch);
+                written += batch.size();
+            } catch (JdbcSQLException e) {
+                // a single bad value must not discard the others
+                logger.debug("JDBC::store: Batch for item '{}' failed, storing values one by one: {}", item.getName(),
+                        e.getMessage());
+                for (JdbcItemValue value : batch) {
+                    try {
+                        storeItemValue(item, value.state(), value.date());
+                        written++;
+                    } catch (JdbcException e1) {
+                        logger.warn("JDBC::store: Unable to store item", e1);
+                    }
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Get the statistics of the write-behind queue.
+     *
+     * @return the statistics or {@code null} if write-behind is disabled
+     */
+    public WriteBehindQueue.@Nullable Statistics getWriteStatistics() {
+        WriteBehindQueue queue = writeQueue;
+        return queue == null ? null : queue.getStatistics();
+    }
+
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
         return getItems();
@@ -237,6 +464,28 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
             return List.of();
         }
 
+        // only unpaged queries, e.g. of charts, are aggregated, as the pages of a paged query would not match. Ranges
+        // that do not contain considerably more values than aggregateMaxPoints are not aggregated by the mapper.
+        if (conf.getAggregateMaxPoints() > 0 && item instanceof NumberItem
+                && filter.getPageSize() == Integer.MAX_VALUE) {
+            try {
+                List<HistoricItem> items = getAggregatedHistItemFilterQuery(filter, conf.getNumberDecimalcount(),
+                        table, item, conf.getAggregateFunction(), conf.getAggregateMaxPoints());
+                if (items != null) {
+                    return items;
+                }
+            } catch (JdbcSQLException e) {
+                logger.warn("JDBC::query: Unable to query aggregated values of item", e);
+                return List.of();
+            }
+        }
+
+        if (conf.isQueryStreaming() && filter.getPageSize() > conf.getQueryFetchSize()) {
+            // rows of unpaged queries and of large pages are read while the result is iterated
+            logger.debug("JDBC: Streaming query for item '{}'", itemName);
+            return streamHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+        }
+
         try {
             long timerStart = System.currentTimeMillis();
             List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
@@ -245,7 +494,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
                         System.currentTimeMillis() - timerStart);
             }
             // Success
-            errCnt = 0;
+            errCnt.set(0);
             return items;
         } catch (JdbcSQLException e) {
             logger.warn("JDBC::query: Unable to query item", e);
@@ -256,6 +505,8 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        stopWriteBehind();
+        stopCursorJob();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             namingStrategy = new NamingStrategy(conf);
@@ -263,6 +514,12 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
                 checkDBSchema();
                 // connection has been established ... initialization completed!
                 initialized = true;
+                if (conf.isWriteBehind()) {
+                    startWriteBehind();
+                }
+                if (conf.isQueryStreaming()) {
+                    startCursorJob();
+                }
             } catch (JdbcSQLException e) {
                 logger.error("Failed to check database schema", e);
                 initialized = false;
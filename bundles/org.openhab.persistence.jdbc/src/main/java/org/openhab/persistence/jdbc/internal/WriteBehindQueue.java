@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.items.Item;
+import org.openhab.persistence.jdbc.internal.dto.JdbcItemValue;
+
+/**
+ * The {@link WriteBehindQueue} buffers values that are waiting to be written to the database. The queue is bounded,
+ * the {@link OverflowPolicy} decides what happens when a value is added to a full queue.
+ * <p>
+ * The queue also collects statistics about the flushes that are reported by the writer.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class WriteBehindQueue {
+
+    /**
+     * Defines what happens when a value is added to a full queue
+     */
+    public enum OverflowPolicy {
+        /** wait a limited time until there is space in the queue, then discard the new value */
+        BLOCK,
+        /** discard the oldest value in the queue */
+        DROP_OLDEST,
+        /** discard the new value */
+        DROP_NEWEST;
+
+        public static OverflowPolicy fromString(@Nullable String value, OverflowPolicy defaultPolicy) {
+            if (value == null || value.isBlank()) {
+                return defaultPolicy;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                return defaultPolicy;
+            }
+        }
+    }
+
+    /**
+     * A value waiting to be written
+     *
+     * @param item the item
+     * @param value the value
+     */
+    public record Entry(Item item, JdbcItemValue value) {
+    }
+
+    /**
+     * A snapshot of the queue statistics
+     *
+     * @param queueDepth the number of values currently waiting
+     * @param capacity the maximum number of values waiting
+     * @param enqueued the number of values added to the queue
+     * @param dropped the number of values discarded because the queue was full
+     * @param flushes the number of flushes
+     * @param flushedValues the number of values written by all flushes
+     * @param lastFlushSize the number of values written by the last flush
+     * @param lastFlushMillis the duration of the last flush
+     * @param maxFlushMillis the longest duration of a flush
+     * @param totalFlushMillis the total duration of all flushes
+     */
+    public record Statistics(int queueDepth, int capacity, long enqueued, long dropped, long flushes,
+            long flushedValues, int lastFlushSize, long lastFlushMillis, long maxFlushMillis, long totalFlushMillis) {
+
+        public double averageFlushSize() {
+            return flushes == 0 ? 0 : (double) flushedValues / flushes;
+        }
+
+        public double averageFlushMillis() {
+            return flushes == 0 ? 0 : (double) totalFlushMillis / flushes;
+        }
+    }
+
+    /** the longest time a caller waits for space in the queue with {@link OverflowPolicy#BLOCK} */
+    public static final long DEFAULT_MAX_BLOCK_MILLIS = 5000;
+
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long maxBlockMillis;
+
+    private boolean closed = false;
+    private long enqueued = 0;
+    private long dropped = 0;
+    private long flushes = 0;
+    private long flushedValues = 0;
+    private int lastFlushSize = 0;
+    private long lastFlushMillis = 0;
+    private long maxFlushMillis = 0;
+    private long totalFlushMillis = 0;
+
+    public WriteBehindQueue(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, DEFAULT_MAX_BLOCK_MILLIS);
+    }
+
+    /**
+     * @param capacity the maximum number of values waiting
+     * @param overflowPolicy what happens when a value is added to a full queue
+     * @param maxBlockMillis the longest time a caller waits for space in the queue with {@link OverflowPolicy#BLOCK},
+     *            e.g. while the database is unavailable and the queue is not drained
+     */
+    public WriteBehindQueue(int capacity, OverflowPolicy overflowPolicy, long maxBlockMillis) {
+        this.capacity = Math.max(1, capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.maxBlockMillis = Math.max(1, maxBlockMillis);
+    }
+
+    /**
+     * Add a value to the queue
+     *
+     * @param entry the value
+     * @return the number of values in the queue after adding, {@code -1} if the value was discarded
+     * @throws InterruptedException if the thread was interrupted while waiting for space in the queue
+     */
+    public synchronized int add(Entry entry) throws InterruptedException {
+        if (queue.size() >= capacity) {
+            switch (overflowPolicy) {
+                case BLOCK:
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBlockMillis);
+                    long remainingMillis = maxBlockMillis;
+                    while (!closed && queue.size() >= capacity && remainingMillis > 0) {
+                        wait(remainingMillis);
+                        remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    }
+                    if (closed || queue.size() >= capacity) {
+                        dropped++;
+                        return -1;
+                    }
+                    break;
+                case DROP_OLDEST:
+                    queue.pollFirst();
+                    dropped++;
+                    break;
+                case DROP_NEWEST:
+                    dropped++;
+                    return -1;
+            }
+        }
+        queue.addLast(entry);
+        enqueued++;
+        return queue.size();
+    }
+
+    /**
+     * Remove all values from the queue
+     *
+     * @return the values in the order they were added
+     */
+    public synchronized List<Entry> drain() {
+        List<Entry> entries = new ArrayList<>(queue);
+        queue.clear();
+        notifyAll();
+        return entries;
+    }
+
+    /**
+     * Put values that could not be written back to the head of the queue, so that they are written with the next
+     * flush in their original order. They are added even if the queue is full, as they were already accepted; new
+     * values wait or are discarded according to the {@link OverflowPolicy} until there is space again.
+     *
+     * @param entries the values in the order they were added
+     */
+    public synchronized void requeue(List<Entry> entries) {
+        if (closed) {
+            dropped += entries.size();
+            return;
+        }
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            queue.addFirst(entries.get(i));
+        }
+    }
+
+    /**
+     * Close the queue, threads waiting for space in the queue are released and their values are discarded
+     */
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Record the result of a flush
+     *
+     * @param size the number of values written
+     * @param millis the duration of the flush
+     */
+    public synchronized void recordFlush(int size, long millis) {
+        flushes++;
+        flushedValues += size;
+        lastFlushSize = size;
+        lastFlushMillis = millis;
+        maxFlushMillis = Math.max(maxFlushMillis, millis);
+        totalFlushMillis += millis;
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    public synchronized Statistics getStatistics() {
+        return new Statistics(queue.size(), capacity, enqueued, dropped, flushes, flushedValues, lastFlushSize,
+                lastFlushMillis, maxFlushMillis, totalFlushMillis);
+    }
+}
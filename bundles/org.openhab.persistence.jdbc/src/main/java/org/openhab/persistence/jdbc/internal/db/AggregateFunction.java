@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import java.util.Locale;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link AggregateFunction} defines how the values of a time bucket are combined into one value by aggregated
+ * queries.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public enum AggregateFunction {
+    /** average of the values, at the time of the first value */
+    AVG,
+    /** smallest value, at the time of the first value */
+    MIN,
+    /** largest value, at the time of the first value */
+    MAX,
+    /** last value, at its own time */
+    LAST;
+
+    public static AggregateFunction fromString(@Nullable String value, AggregateFunction defaultFunction) {
+        if (value == null || value.isBlank()) {
+            return defaultFunction;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultFunction;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.HistoricItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link HistoricItemCursor} iterates over an open result set and maps each row to a {@link HistoricItem}
+ * when it is requested, so large results are never held in memory.
+ * <p>
+ * The connection, statement and result set are closed when the last row has been read, when reading fails or when
+ * {@link #close()} is called. A cursor that is not advanced for a while is closed by {@link #closeIfIdle(long, long)},
+ * so a result that is abandoned before its end does not keep the connection. Reading fails with an
+ * {@link IllegalStateException} if the result cannot be read completely, instead of silently ending early.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class HistoricItemCursor implements Iterator<HistoricItem>, AutoCloseable {
+    private final Logger logger = LoggerFactory.getLogger(HistoricItemCursor.class);
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final BiFunction<Object, Object, HistoricItem> mapper;
+    private final Consumer<HistoricItemCursor> onClose;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private @Nullable HistoricItem next;
+    private boolean closed = false;
+    private boolean expired = false;
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    /**
+     * @param connection the connection the statement was created with, it is closed with the cursor
+     * @param statement the executed statement
+     * @param resultSet the result of the statement, the first column is the time and the second the value
+     * @param mapper maps time and value of a row to a {@link HistoricItem}
+     * @param onClose called once when the cursor has been closed
+     */
+    public HistoricItemCursor(Connection connection, PreparedStatement statement, ResultSet resultSet,
+            BiFunction<Object, Object, HistoricItem> mapper, Consumer<HistoricItemCursor> onClose) {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public boolean hasNext() {
+        lock.lock();
+        try {
+            lastAccessNanos = System.nanoTime();
+            if (next != null) {
+                return true;
+            }
+            if (expired) {
+                throw new IllegalStateException("JDBC::HistoricItemCursor: the result was closed after being idle");
+            }
+            if (closed) {
+                return false;
+            }
+            try {
+                if (resultSet.next()) {
+                    next = mapper.apply(resultSet.getObject(1), resultSet.getObject(2));
+                    return true;
+                }
+            } catch (SQLException e) {
+                close();
+                throw new IllegalStateException("JDBC::HistoricItemCursor: reading the result failed", e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            close();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public HistoricItem next() {
+        HistoricItem item = next;
+        if (item == null) {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            item = next;
+        }
+        next = null;
+        return item;
+    }
+
+    /**
+     * Closes the cursor if it has not been advanced for the given time. A cursor that is just reading is not closed.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @param timeoutNanos the time after which an unused cursor is closed
+     * @return {@code true} if the cursor has been closed
+     */
+    public boolean closeIfIdle(long nowNanos, long timeoutNanos) {
+        if (nowNanos - lastAccessNanos < timeoutNanos || !lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (closed) {
+                return false;
+            }
+            expired = true;
+            close();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try (Connection c = connection) {
+                resultSet.close();
+                statement.close();
+                // ends the read-only transaction the cursor was opened in
+                c.setAutoCommit(true);
+                c.setReadOnly(false);
+            } catch (SQLException e) {
+                logger.debug("JDBC::HistoricItemCursor: closing the result failed: {}", e.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+        onClose.accept(this);
+    }
+}
@@ -13,17 +13,30 @@
 package org.openhab.persistence.jdbc.internal.db;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -60,6 +73,7 @@ import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+import org.openhab.persistence.jdbc.internal.dto.JdbcItemValue;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.openhab.persistence.jdbc.internal.utils.DbMetaData;
 import org.openhab.persistence.jdbc.internal.utils.StringUtilsExt;
@@ -82,6 +96,12 @@ public class JdbcBaseDAO {
     // Get Database Meta data
     protected @Nullable DbMetaData dbMeta;
 
+    // resolved insert statements per operation, table and data type
+    private final Map<String, String> sqlCache = new ConcurrentHashMap<>();
+
+    // cursors of streamed queries that have not been read completely yet
+    private final Set<HistoricItemCursor> openCursors = ConcurrentHashMap.newKeySet();
+
     protected String sqlPingDB = "SELECT 1";
     protected String sqlGetDB = "SELECT DATABASE()";
     protected String sqlIfTableExists = "SHOW TABLES LIKE '#searchTable#'";
@@ -393,6 +413,7 @@ public class JdbcBaseDAO {
      *************/
     public void doUpdateItemTableNames(List<ItemVO> vol) throws JdbcSQLException {
         logger.debug("JDBC::doUpdateItemTableNames vol.size = {}", vol.size());
+        clearSqlCache();
         for (ItemVO itemTable : vol) {
             String sql = updateItemTableNamesProvider(itemTable);
             try {
@@ -430,10 +451,8 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { formattedIdentifier(storedVO.getTableName()), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = { storedVO.getValue(), storedVO.getValue() };
+        String sql = cachedSql("insert", storedVO, this::insertItemValueProvider);
+        Object[] params = insertItemValueParamsProvider(storedVO);
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         try {
             Yank.execute(sql, params);
@@ -444,11 +463,9 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { formattedIdentifier(storedVO.getTableName()), "?" });
+        String sql = cachedSql("insertWithTime", storedVO, this::insertItemValueWithTimeProvider);
         java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue(), storedVO.getValue() };
+        Object[] params = insertItemValueWithTimeParamsProvider(timestamp, storedVO);
         logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
         try {
             Yank.execute(sql, params);
@@ -457,13 +474,46 @@ public class JdbcBaseDAO {
         }
     }
 
+    /**
+     * Store several values of one item with a single JDBC batch.
+     *
+     * @param item the item the values belong to
+     * @param vo the value object holding the table name
+     * @param values the values to store
+     * @throws JdbcSQLException if the batch fails, in this case some of the values may have been stored
+     */
+    public void doStoreItemValues(Item item, ItemVO vo, List<JdbcItemValue> values) throws JdbcSQLException {
+        if (values.isEmpty()) {
+            return;
+        }
+        String sql = "";
+        Object[][] params = new Object[values.size()][];
+        for (int i = 0; i < values.size(); i++) {
+            JdbcItemValue value = values.get(i);
+            ItemVO storedVO = storeItemValueProvider(item, value.state(), vo);
+            if (sql.isEmpty()) {
+                // the SQL only depends on table and data type, which are the same for all values
+                sql = cachedSql("insertWithTime", storedVO, this::insertItemValueWithTimeProvider);
+            }
+            java.sql.Timestamp timestamp = new java.sql.Timestamp(value.date().toInstant().toEpochMilli());
+            params[i] = insertItemValueWithTimeParamsProvider(timestamp, storedVO);
+        }
+        logger.debug("JDBC::doStoreItemValues sql={} count={}", sql, values.size());
+        try {
+            Yank.executeBatch(sql, params);
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        logger.debug("JDBC::doGetHistItemFilterQuery sql={}", sql);
+        List<Object> params = new ArrayList<>();
+        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone, params);
+        logger.debug("JDBC::doGetHistItemFilterQuery sql={} params={}", sql, params);
         List<Object[]> m;
         try {
-            m = Yank.queryObjectArrays(sql, null);
+            m = Yank.queryObjectArrays(sql, params.toArray());
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
@@ -471,19 +521,89 @@ public class JdbcBaseDAO {
             logger.debug("JDBC::doGetHistItemFilterQuery Query failed. Returning an empty list.");
             return List.of();
         }
+        return toHistoricItems(item, m);
+    }
+
+    /**
+     * Query historic values aggregated into buckets of equal duration, each bucket is returned as one value. If the
+     * database does not provide an expression for the buckets, the values are read with a cursor and aggregated here.
+     *
+     * @param function the function combining the values of a bucket
+     * @param bucketSeconds the duration of a bucket
+     * @param fetchSize the fetch size used when the values are aggregated here
+     */
+    public List<HistoricItem> doGetAggregatedHistItemFilterQuery(Item item, FilterCriteria filter,
+            int numberDecimalcount, String table, String name, ZoneId timeZone, AggregateFunction function,
+            long bucketSeconds, int fetchSize) throws JdbcSQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = aggregateQueryProvider(filter, numberDecimalcount, table, timeZone, function, bucketSeconds,
+                params);
+        if (sql == null) {
+            return aggregateHistItems(item, filter, numberDecimalcount, table, name, timeZone, function,
+                    bucketSeconds, fetchSize);
+        }
+        logger.debug("JDBC::doGetAggregatedHistItemFilterQuery sql={} params={}", sql, params);
+        List<Object[]> m;
+        try {
+            m = Yank.queryObjectArrays(sql, params.toArray());
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+        if (m == null) {
+            logger.debug("JDBC::doGetAggregatedHistItemFilterQuery Query failed. Returning an empty list.");
+            return List.of();
+        }
+        return toHistoricItems(item, m);
+    }
+
+    /**
+     * Query historic values without loading the complete result. Every iteration of the returned {@link Iterable}
+     * runs the query and reads the rows from an open cursor with the given fetch size, so it can be iterated more than
+     * once like a list. The cursor holds a connection of the pool until it is exhausted or closed.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     */
+    public Iterable<HistoricItem> doStreamHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
+            String table, String name, ZoneId timeZone, int fetchSize) {
+        List<Object> params = new ArrayList<>();
+        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone, params);
         // we already retrieve the unit here once as it is a very costly operation
         String itemName = item.getName();
         Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
-        return m.stream()
-                .map(o -> new JdbcHistoricItem(itemName, objectAsState(item, unit, o[1]), objectAsInstant(o[0])))
-                .collect(Collectors.<HistoricItem> toList());
+        return () -> {
+            logger.debug("JDBC::doStreamHistItemFilterQuery sql={} params={} fetchSize={}", sql, params, fetchSize);
+            try {
+                return openCursor(sql, params.toArray(), fetchSize, (time, value) -> new JdbcHistoricItem(itemName,
+                        objectAsState(item, unit, value), objectAsInstant(time)));
+            } catch (SQLException e) {
+                throw new IllegalStateException("JDBC::doStreamHistItemFilterQuery: Unable to query item '" + itemName
+                        + "': " + e.getMessage(), e);
+            }
+        };
     }
 
     public void doDeleteItemValues(FilterCriteria filter, String table, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterDeleteProvider(filter, table, timeZone);
-        logger.debug("JDBC::doDeleteItemValues sql={}", sql);
+        List<Object> params = new ArrayList<>();
+        String sql = histItemFilterDeleteProvider(filter, table, timeZone, params);
+        logger.debug("JDBC::doDeleteItemValues sql={} params={}", sql, params);
         try {
-            Yank.execute(sql, null);
+            Yank.execute(sql, params.toArray());
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+    }
+
+    /**
+     * Count the values of a table within the time range of the filter.
+     */
+    public long doGetRowCount(String tableName, FilterCriteria filter, ZoneId timeZone) throws JdbcSQLException {
+        List<Object> params = new ArrayList<>();
+        final String sql = StringUtilsExt.replaceArrayMerge(sqlGetRowCount, new String[] { "#tableName#" },
+                new String[] { formattedIdentifier(tableName) }) + resolveTimeFilter(filter, timeZone, params);
+        logger.debug("JDBC::doGetRowCount sql={} params={}", sql, params);
+        try {
+            final @Nullable Long result = Yank.queryScalar(sql, Long.class, params.toArray());
+            return Objects.requireNonNullElse(result, 0L);
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
@@ -506,13 +626,28 @@ public class JdbcBaseDAO {
      *************/
     static final DateTimeFormatter JDBC_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /**
+     * Provides the query for historic values with the time filter values bound as parameters. The SQL text only
+     * depends on the table and the structure of the filter, so the statement can be reused by the driver and the
+     * database.
+     *
+     * @param params receives the parameters of the statement
+     */
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
-            String simpleName, ZoneId timeZone) {
+            String simpleName, ZoneId timeZone, List<Object> params) {
         logger.debug(
                 "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
                 filter, numberDecimalcount, table, simpleName);
+        return histItemFilterQuery(filter, numberDecimalcount, table, simpleName,
+                resolveTimeFilter(filter, timeZone, params));
+    }
 
-        String filterString = resolveTimeFilter(filter, timeZone);
+    /**
+     * Builds the query for historic values from an already resolved time filter.
+     */
+    protected String histItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
+            String simpleName, String timeFilter) {
+        String filterString = timeFilter;
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
         if (filter.getPageSize() != Integer.MAX_VALUE) {
             filterString += " LIMIT " + filter.getPageNumber() * filter.getPageSize() + "," + filter.getPageSize();
@@ -529,31 +664,136 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
-    protected String histItemFilterDeleteProvider(FilterCriteria filter, String table, ZoneId timeZone) {
+    /**
+     * Provides the statement to delete historic values with the time filter values bound as parameters.
+     *
+     * @param params receives the parameters of the statement
+     */
+    protected String histItemFilterDeleteProvider(FilterCriteria filter, String table, ZoneId timeZone,
+            List<Object> params) {
         logger.debug("JDBC::histItemFilterDeleteProvider filter = {}, table = {}", filter, table);
+        return histItemFilterDelete(table, resolveTimeFilter(filter, timeZone, params));
+    }
 
-        String filterString = resolveTimeFilter(filter, timeZone);
-        String deleteString = filterString.isEmpty() ? "TRUNCATE TABLE " + formattedIdentifier(table)
-                : "DELETE FROM " + formattedIdentifier(table) + filterString;
+    private String histItemFilterDelete(String table, String timeFilter) {
+        String deleteString = timeFilter.isEmpty() ? "TRUNCATE TABLE " + formattedIdentifier(table)
+                : "DELETE FROM " + formattedIdentifier(table) + timeFilter;
         logger.debug("JDBC::delete deleteString = {}", deleteString);
         return deleteString;
     }
 
-    protected String resolveTimeFilter(FilterCriteria filter, ZoneId timeZone) {
+    /**
+     * Resolves the time filter with placeholders and adds the dates to the parameters.
+     *
+     * @param params receives the parameters of the filter
+     */
+    protected String resolveTimeFilter(FilterCriteria filter, ZoneId timeZone, List<Object> params) {
         String filterString = "";
         ZonedDateTime beginDate = filter.getBeginDate();
         if (beginDate != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>='" + JDBC_DATE_FORMAT.format(beginDate.withZoneSameInstant(timeZone)) + "'";
+            filterString += " TIME>=?";
+            params.add(timeFilterParam(beginDate, timeZone));
         }
         ZonedDateTime endDate = filter.getEndDate();
         if (endDate != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<='" + JDBC_DATE_FORMAT.format(endDate.withZoneSameInstant(timeZone)) + "'";
+            filterString += " TIME<=?";
+            params.add(timeFilterParam(endDate, timeZone));
         }
         return filterString;
     }
 
+    /**
+     * Converts a date of the filter to a statement parameter. The parameter holds the same local date and time as the
+     * value formatted with {@link #JDBC_DATE_FORMAT}, so the results do not differ from an inlined filter.
+     */
+    protected Object timeFilterParam(ZonedDateTime date, ZoneId timeZone) {
+        return java.sql.Timestamp
+                .valueOf(date.withZoneSameInstant(timeZone).toLocalDateTime().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Provides the statement to insert a value at the current database time.
+     */
+    protected String insertItemValueProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#tablePrimaryValue#" },
+                new String[] { formattedIdentifier(storedVO.getTableName()), sqlTypes.get("tablePrimaryValue") });
+    }
+
+    /**
+     * Provides the parameters for the statement returned by {@link #insertItemValueProvider(ItemVO)}.
+     */
+    protected Object[] insertItemValueParamsProvider(ItemVO storedVO) {
+        return new Object[] { storedVO.getValue(), storedVO.getValue() };
+    }
+
+    /**
+     * Provides the statement to insert a value with an explicit time. The time is the first parameter of the statement.
+     */
+    protected String insertItemValueWithTimeProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#tablePrimaryValue#" },
+                new String[] { formattedIdentifier(storedVO.getTableName()), "?" });
+    }
+
+    /**
+     * Provides the parameters for the statement returned by {@link #insertItemValueWithTimeProvider(ItemVO)}.
+     */
+    protected Object[] insertItemValueWithTimeParamsProvider(java.sql.Timestamp timestamp, ItemVO storedVO) {
+        return new Object[] { timestamp, storedVO.getValue(), storedVO.getValue() };
+    }
+
+    /**
+     * Provides the query for values aggregated into buckets. The time of a bucket is the time of its first value, for
+     * {@link AggregateFunction#LAST} the time of the last value.
+     *
+     * @param params receives the parameters of the statement
+     * @return the query or {@code null} if the database provides no {@link #aggregateBucketExpression()}
+     */
+    protected @Nullable String aggregateQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
+            ZoneId timeZone, AggregateFunction function, long bucketSeconds, List<Object> params) {
+        String bucket = aggregateBucketExpression();
+        if (bucket == null) {
+            return null;
+        }
+        String timeFilter = resolveTimeFilter(filter, timeZone, params);
+        params.add(bucketSeconds);
+        String ordering = (filter.getOrdering() == Ordering.ASCENDING) ? " ASC" : " DESC";
+        String queryString;
+        if (function == AggregateFunction.LAST) {
+            // the time is the primary key, so the last value of each bucket is found by its time
+            queryString = "SELECT time, " + roundedValueExpression("value", numberDecimalcount) + " FROM "
+                    + formattedIdentifier(table) + " WHERE time IN (SELECT MAX(time) FROM "
+                    + formattedIdentifier(table) + timeFilter + " GROUP BY " + bucket + ") ORDER BY time"
+                    + ordering;
+        } else {
+            queryString = "SELECT MIN(time), "
+                    + roundedValueExpression(function.name() + "(value)", numberDecimalcount) + " FROM "
+                    + formattedIdentifier(table) + timeFilter + " GROUP BY " + bucket + " ORDER BY 1" + ordering;
+        }
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
+    /**
+     * Provides the expression that assigns a row to its bucket. The duration of a bucket in seconds is bound as the
+     * only parameter of the expression.
+     *
+     * @return the expression or {@code null} if the values have to be aggregated by openHAB
+     */
+    protected @Nullable String aggregateBucketExpression() {
+        return null;
+    }
+
+    /**
+     * Provides the expression rounding a numeric expression HALF UP to the given number of decimals.
+     */
+    protected String roundedValueExpression(String expression, int numberDecimalcount) {
+        return numberDecimalcount > -1 ? "ROUND(" + expression + "," + numberDecimalcount + ")" : expression;
+    }
+
     private String updateItemTableNamesProvider(ItemVO itemTable) {
         String newTableName = itemTable.getNewTableName();
         if (newTableName == null) {
@@ -663,6 +903,24 @@ public class JdbcBaseDAO {
     /*****************
      * H E L P E R S *
      *****************/
+
+    /**
+     * Returns the SQL text of an operation on the table of the value object. The text is resolved by the provider on
+     * first use and reused afterwards, so the string is not rebuilt for every value and the prepared statement caches
+     * of the drivers always see the same text.
+     */
+    protected String cachedSql(String operation, ItemVO storedVO, Function<ItemVO, String> provider) {
+        String key = operation + ":" + storedVO.getTableName() + ":" + storedVO.getDbType();
+        return sqlCache.computeIfAbsent(key, k -> provider.apply(storedVO));
+    }
+
+    /**
+     * Forget all cached SQL. Must be called when the SQL templates or types change.
+     */
+    public void clearSqlCache() {
+        sqlCache.clear();
+    }
+
     protected State objectAsState(Item item, @Nullable Unit<? extends Quantity<?>> unit, Object v) {
         logger.debug(
                 "JDBC::ItemResultHandler::handleResult getState value = '{}', unit = '{}', getClass = '{}', clazz = '{}'",
@@ -762,6 +1020,136 @@ public class JdbcBaseDAO {
         throw new UnsupportedOperationException("String of type '" + v.getClass().getName() + "' is not supported");
     }
 
+    private List<HistoricItem> toHistoricItems(Item item, List<Object[]> rows) {
+        // we already retrieve the unit here once as it is a very costly operation
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
+        return rows.stream()
+                .map(o -> new JdbcHistoricItem(itemName, objectAsState(item, unit, o[1]), objectAsInstant(o[0])))
+                .collect(Collectors.<HistoricItem> toList());
+    }
+
+    /**
+     * Aggregate the values of a number item while they are read with a cursor, for databases without
+     * {@link #aggregateBucketExpression()}.
+     */
+    private List<HistoricItem> aggregateHistItems(Item item, FilterCriteria filter, int numberDecimalcount,
+            String table, String name, ZoneId timeZone, AggregateFunction function, long bucketSeconds,
+            int fetchSize) {
+        TreeMap<Long, Bucket> buckets = new TreeMap<>();
+        // values are rounded after aggregation
+        for (HistoricItem historicItem : doStreamHistItemFilterQuery(item, filter, -1, table, name, timeZone,
+                fetchSize)) {
+            if (historicItem.getState() instanceof Number number) {
+                Instant time = historicItem.getInstant();
+                buckets.computeIfAbsent(Math.floorDiv(time.getEpochSecond(), bucketSeconds), k -> new Bucket())
+                        .add(time, number.doubleValue());
+            }
+        }
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
+        Map<Long, Bucket> ordered = filter.getOrdering() == Ordering.ASCENDING ? buckets : buckets.descendingMap();
+        return ordered.values().stream().map(bucket -> {
+            BigDecimal value = BigDecimal.valueOf(bucket.value(function));
+            if (numberDecimalcount > -1) {
+                value = value.setScale(numberDecimalcount, RoundingMode.HALF_UP);
+            }
+            State state = unit == null ? new DecimalType(value) : QuantityType.valueOf(value.doubleValue(), unit);
+            return (HistoricItem) new JdbcHistoricItem(itemName, state,
+                    function == AggregateFunction.LAST ? bucket.lastTime : bucket.firstTime);
+        }).toList();
+    }
+
+    private static class Bucket {
+        private Instant firstTime = Instant.MAX;
+        private Instant lastTime = Instant.MIN;
+        private double lastValue;
+        private double sum;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+        private long count;
+
+        void add(Instant time, double value) {
+            if (time.isBefore(firstTime)) {
+                firstTime = time;
+            }
+            if (!time.isBefore(lastTime)) {
+                lastTime = time;
+                lastValue = value;
+            }
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            count++;
+        }
+
+        double value(AggregateFunction function) {
+            return switch (function) {
+                case AVG -> sum / count;
+                case MIN -> min;
+                case MAX -> max;
+                case LAST -> lastValue;
+            };
+        }
+    }
+
+    /**
+     * Execute a query and return a cursor over its result.
+     */
+    protected HistoricItemCursor openCursor(String sql, Object[] params, int fetchSize,
+            BiFunction<Object, Object, HistoricItem> mapper) throws SQLException {
+        Connection connection = Yank.getDefaultConnectionPool().getConnection();
+        try {
+            connection.setReadOnly(true);
+            // some drivers (e.g. PostgreSQL) only read with a cursor inside a transaction
+            connection.setAutoCommit(false);
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(streamingFetchSize(fetchSize));
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            HistoricItemCursor cursor = new HistoricItemCursor(connection, statement, statement.executeQuery(),
+                    mapper, openCursors::remove);
+            openCursors.add(cursor);
+            return cursor;
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the cursors of streamed queries that have not been advanced for the given time, so results that are not
+     * read until their end release their connection.
+     *
+     * @return the number of closed cursors
+     */
+    public int closeIdleCursors(Duration timeout) {
+        long now = System.nanoTime();
+        int closed = 0;
+        for (HistoricItemCursor cursor : openCursors) {
+            if (cursor.closeIfIdle(now, timeout.toNanos())) {
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Closes the cursors of all streamed queries.
+     */
+    public void closeCursors() {
+        openCursors.forEach(HistoricItemCursor::close);
+    }
+
+    /**
+     * Provides the fetch size passed to the driver for streaming queries.
+     */
+    protected int streamingFetchSize(int fetchSize) {
+        return fetchSize;
+    }
+
     protected String formattedIdentifier(String identifier) {
         return identifier;
     }
@@ -116,6 +116,11 @@ public class JdbcMariadbDAO extends JdbcBaseDAO {
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected @Nullable String aggregateBucketExpression() {
+        return "FLOOR(UNIX_TIMESTAMP(time) / ?)";
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
@@ -120,9 +120,19 @@ public class JdbcMysqlDAO extends JdbcBaseDAO {
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected @Nullable String aggregateBucketExpression() {
+        return "FLOOR(UNIX_TIMESTAMP(time) / ?)";
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
+    @Override
+    protected int streamingFetchSize(int fetchSize) {
+        // Connector/J only streams rows with this special value, unless useCursorFetch is enabled
+        return Integer.MIN_VALUE;
+    }
 
     /******************************
      * public Getters and Setters *
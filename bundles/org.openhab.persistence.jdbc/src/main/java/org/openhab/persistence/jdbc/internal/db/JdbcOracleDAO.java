@@ -226,18 +226,14 @@ public class JdbcOracleDAO extends JdbcBaseDAO {
     }
 
     @Override
-    public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
-        ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue, new String[] { "#tableName#", "#dbType#" },
+    protected String insertItemValueWithTimeProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue, new String[] { "#tableName#", "#dbType#" },
                 new String[] { storedVO.getTableName(), storedVO.getDbType() });
-        java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
-        try {
-            Yank.execute(sql, params);
-        } catch (YankSQLException e) {
-            throw new JdbcSQLException(e);
-        }
+    }
+
+    @Override
+    protected Object[] insertItemValueWithTimeParamsProvider(java.sql.Timestamp timestamp, ItemVO storedVO) {
+        return new Object[] { timestamp, storedVO.getValue() };
     }
 
     /****************************
@@ -245,13 +241,9 @@ public class JdbcOracleDAO extends JdbcBaseDAO {
      ****************************/
 
     @Override
-    protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
-            String simpleName, ZoneId timeZone) {
-        logger.debug(
-                "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
-                filter, numberDecimalcount, table, simpleName);
-
-        String filterString = resolveTimeFilter(filter, timeZone);
+    protected String histItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
+            String simpleName, String timeFilter) {
+        String filterString = timeFilter;
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
         if (filter.getPageSize() != Integer.MAX_VALUE) {
             filterString += " OFFSET " + filter.getPageNumber() * filter.getPageSize() + " ROWS FETCH NEXT "
@@ -270,19 +262,19 @@ public class JdbcOracleDAO extends JdbcBaseDAO {
     }
 
     @Override
-    protected String resolveTimeFilter(FilterCriteria filter, ZoneId timeZone) {
+    protected String resolveTimeFilter(FilterCriteria filter, ZoneId timeZone, List<Object> params) {
         String filterString = "";
         ZonedDateTime beginDate = filter.getBeginDate();
         if (beginDate != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>=TO_TIMESTAMP('" + JDBC_DATE_FORMAT.format(beginDate.withZoneSameInstant(timeZone))
-                    + "', 'YYYY-MM-dd HH24:MI:SS')";
+            filterString += " TIME>=TO_TIMESTAMP(?, 'YYYY-MM-dd HH24:MI:SS')";
+            params.add(JDBC_DATE_FORMAT.format(beginDate.withZoneSameInstant(timeZone)));
         }
         ZonedDateTime endDate = filter.getEndDate();
         if (endDate != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<=TO_TIMESTAMP('" + JDBC_DATE_FORMAT.format(endDate.withZoneSameInstant(timeZone))
-                    + "', 'YYYY-MM-dd HH24:MI:SS')";
+            filterString += " TIME<=TO_TIMESTAMP(?, 'YYYY-MM-dd HH24:MI:SS')";
+            params.add(JDBC_DATE_FORMAT.format(endDate.withZoneSameInstant(timeZone)));
         }
         return filterString;
     }
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.persistence.jdbc.internal.WriteBehindQueue.OverflowPolicy;
+import org.openhab.persistence.jdbc.internal.dto.JdbcItemValue;
+
+/**
+ * Tests the {@link WriteBehindQueue} class.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class WriteBehindQueueTest {
+    private final NumberItem item = new NumberItem("Meter");
+
+    private WriteBehindQueue.Entry entry(int value) {
+        return new WriteBehindQueue.Entry(item, new JdbcItemValue(new DecimalType(value), ZonedDateTime.now()));
+    }
+
+    @Test
+    public void drainReturnsValuesInOrder() throws InterruptedException {
+        WriteBehindQueue queue = new WriteBehindQueue(10, OverflowPolicy.BLOCK);
+        assertThat(queue.add(entry(1)), is(1));
+        assertThat(queue.add(entry(2)), is(2));
+
+        List<WriteBehindQueue.Entry> entries = queue.drain();
+        assertThat(entries.size(), is(2));
+        assertThat(entries.get(0).value().state(), is(new DecimalType(1)));
+        assertThat(entries.get(1).value().state(), is(new DecimalType(2)));
+        assertThat(queue.size(), is(0));
+    }
+
+    @Test
+    public void dropOldestDiscardsOldestValue() throws InterruptedException {
+        WriteBehindQueue queue = new WriteBehindQueue(2, OverflowPolicy.DROP_OLDEST);
+        queue.add(entry(1));
+        queue.add(entry(2));
+        assertThat(queue.add(entry(3)), is(2));
+
+        List<WriteBehindQueue.Entry> entries = queue.drain();
+        assertThat(entries.get(0).value().state(), is(new DecimalType(2)));
+        assertThat(entries.get(1).value().state(), is(new DecimalType(3)));
+        assertThat(queue.getStatistics().dropped(), is(1L));
+    }
+
+    @Test
+    public void dropNewestDiscardsNewValue() throws InterruptedException {
+        WriteBehindQueue queue = new WriteBehindQueue(2, OverflowPolicy.DROP_NEWEST);
+        queue.add(entry(1));
+        queue.add(entry(2));
+        assertThat(queue.add(entry(3)), is(-1));
+
+        List<WriteBehindQueue.Entry> entries = queue.drain();
+        assertThat(entries.get(0).value().state(), is(new DecimalType(1)));
+        assertThat(entries.get(1).value().state(), is(new DecimalType(2)));
+        assertThat(queue.getStatistics().dropped(), is(1L));
+    }
+
+    @Test
+    public void requeuedValuesAreWrittenFirst() throws InterruptedException {
+        WriteBehindQueue queue = new WriteBehindQueue(2, OverflowPolicy.BLOCK);
+        queue.add(entry(1));
+        queue.add(entry(2));
+        List<WriteBehindQueue.Entry> drained = queue.drain();
+        queue.add(entry(3));
+        queue.add(entry(4));
+
+        queue.requeue(drained);
+
+        List<WriteBehindQueue.Entry> entries = queue.drain();
+        assertThat(entries.size(), is(4));
+        for (int i = 0; i < 4; i++) {
+            assertThat(entries.get(i).value().state(), is(new DecimalType(i + 1)));
+        }
+        assertThat(queue.getStatistics().dropped(), is(0L));
+    }
+
+    @Test
+    public void blockWaitsUntilQueueIsDrained() throws Exception {
+        WriteBehindQueue queue = new WriteBehindQueue(1, OverflowPolicy.BLOCK);
+        queue.add(entry(1));
+
+        CompletableFuture<Integer> blocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.add(entry(2));
+            } catch (InterruptedException e) {
+                return -2;
+            }
+        });
+        Thread.sleep(100);
+        assertThat(blocked.isDone(), is(false));
+
+        assertThat(queue.drain().size(), is(1));
+        assertThat(blocked.get(5, TimeUnit.SECONDS), is(1));
+    }
+
+    @Test
+    public void blockGivesUpWhenQueueIsNotDrained() throws Exception {
+        // the queue is not drained while the database is unavailable
+        WriteBehindQueue queue = new WriteBehindQueue(2, OverflowPolicy.BLOCK, 100);
+        queue.add(entry(1));
+        queue.add(entry(2));
+
+        CompletableFuture<Integer> blocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.add(entry(3));
+            } catch (InterruptedException e) {
+                return -2;
+            }
+        });
+        assertThat(blocked.get(5, TimeUnit.SECONDS), is(-1));
+
+        List<WriteBehindQueue.Entry> entries = queue.drain();
+        assertThat(entries.size(), is(2));
+        assertThat(entries.get(0).value().state(), is(new DecimalType(1)));
+        assertThat(entries.get(1).value().state(), is(new DecimalType(2)));
+        assertThat(queue.getStatistics().dropped(), is(1L));
+    }
+
+    @Test
+    public void closeReleasesBlockedCaller() throws Exception {
+        WriteBehindQueue queue = new WriteBehindQueue(1, OverflowPolicy.BLOCK);
+        queue.add(entry(1));
+
+        CompletableFuture<Integer> blocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.add(entry(2));
+            } catch (InterruptedException e) {
+                return -2;
+            }
+        });
+        Thread.sleep(100);
+        queue.close();
+        assertThat(blocked.get(5, TimeUnit.SECONDS), is(-1));
+    }
+
+    @Test
+    public void statisticsAreRecorded() {
+        WriteBehindQueue queue = new WriteBehindQueue(10, OverflowPolicy.BLOCK);
+        queue.recordFlush(10, 20);
+        queue.recordFlush(30, 40);
+
+        WriteBehindQueue.Statistics statistics = queue.getStatistics();
+        assertThat(statistics.flushes(), is(2L));
+        assertThat(statistics.flushedValues(), is(40L));
+        assertThat(statistics.lastFlushSize(), is(30));
+        assertThat(statistics.maxFlushMillis(), is(40L));
+        assertThat(statistics.averageFlushSize(), is(20.0));
+        assertThat(statistics.averageFlushMillis(), is(30.0));
+    }
+
+    @Test
+    public void overflowPolicyIsParsed() {
+        assertThat(OverflowPolicy.fromString("drop_oldest", OverflowPolicy.BLOCK), is(OverflowPolicy.DROP_OLDEST));
+        assertThat(OverflowPolicy.fromString("Drop-Newest", OverflowPolicy.BLOCK), is(OverflowPolicy.DROP_NEWEST));
+        assertThat(OverflowPolicy.fromString("invalid", OverflowPolicy.BLOCK), is(OverflowPolicy.BLOCK));
+        assertThat(OverflowPolicy.fromString(null, OverflowPolicy.DROP_OLDEST), is(OverflowPolicy.DROP_OLDEST));
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+
+/**
+ * Tests the {@link HistoricItemCursor}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class HistoricItemCursorTest {
+    private @NonNullByDefault({}) Connection connection;
+    private @NonNullByDefault({}) PreparedStatement statement;
+    private @NonNullByDefault({}) ResultSet resultSet;
+    private final List<HistoricItemCursor> closedCursors = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+    }
+
+    private HistoricItemCursor cursor() {
+        return new HistoricItemCursor(connection, statement, resultSet,
+                (time, value) -> new JdbcHistoricItem("Meter", new DecimalType(((Number) value).doubleValue()),
+                        ((Timestamp) time).toInstant()),
+                closedCursors::add);
+    }
+
+    @Test
+    void rowsAreMappedAndResourcesClosedAtEnd() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getObject(1)).thenReturn(Timestamp.valueOf("2024-01-01 00:00:00"),
+                Timestamp.valueOf("2024-01-01 00:00:10"));
+        when(resultSet.getObject(2)).thenReturn(1.0, 2.0);
+
+        HistoricItemCursor cursor = cursor();
+        HistoricItem first = cursor.next();
+        assertThat(first.getState(), is(new DecimalType(1.0)));
+        assertThat(cursor.hasNext(), is(true));
+        assertThat(cursor.next().getState(), is(new DecimalType(2.0)));
+        verify(connection, never()).close();
+
+        assertThat(cursor.hasNext(), is(false));
+        verify(resultSet).close();
+        verify(statement).close();
+        verify(connection).setReadOnly(false);
+        verify(connection).close();
+        assertThat(closedCursors, is(List.of(cursor)));
+        assertThrows(NoSuchElementException.class, cursor::next);
+    }
+
+    @Test
+    void closeReleasesResourcesOnce() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getObject(1)).thenReturn(Timestamp.valueOf("2024-01-01 00:00:00"));
+        when(resultSet.getObject(2)).thenReturn(1.0);
+
+        HistoricItemCursor cursor = cursor();
+        cursor.next();
+        cursor.close();
+        cursor.close();
+
+        assertThat(cursor.hasNext(), is(false));
+        verify(connection, times(1)).close();
+        assertThat(closedCursors.size(), is(1));
+    }
+
+    @Test
+    void readErrorIsThrown() throws SQLException {
+        when(resultSet.next()).thenThrow(new SQLException("connection lost"));
+
+        HistoricItemCursor cursor = cursor();
+        assertThrows(IllegalStateException.class, cursor::hasNext);
+        verify(connection).close();
+    }
+
+    @Test
+    void idleCursorIsClosed() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getObject(1)).thenReturn(Timestamp.valueOf("2024-01-01 00:00:00"));
+        when(resultSet.getObject(2)).thenReturn(1.0);
+
+        HistoricItemCursor cursor = cursor();
+        cursor.next();
+        long timeout = TimeUnit.MINUTES.toNanos(1);
+        assertThat(cursor.closeIfIdle(System.nanoTime(), timeout), is(false));
+        verify(connection, never()).close();
+
+        assertThat(cursor.closeIfIdle(System.nanoTime() + timeout, timeout), is(true));
+        verify(connection).close();
+        assertThat(closedCursors, is(List.of(cursor)));
+        assertThrows(IllegalStateException.class, cursor::hasNext);
+    }
+}
@@ -13,6 +13,7 @@
 package org.openhab.persistence.jdbc.internal.db;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -23,7 +24,9 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import javax.measure.Quantity;
@@ -66,6 +69,7 @@ import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 
 /**
  * Tests the {@link JdbcBaseDAO}.
@@ -162,16 +166,20 @@ public class JdbcBaseDAOTest {
 
     @Test
     void testHistItemFilterQueryProviderReturnsSelectQueryWithoutWhereClauseDescendingOrder() {
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID, params);
         assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time DESC"));
+        assertThat(params.isEmpty(), is(true));
     }
 
     @Test
     void testHistItemFilterQueryProviderReturnsSelectQueryWithoutWhereClauseAscendingOrder() {
         filter.setOrdering(Ordering.ASCENDING);
 
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID, params);
         assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time ASC"));
+        assertThat(params.isEmpty(), is(true));
     }
 
     @Test
@@ -179,25 +187,29 @@ public class JdbcBaseDAOTest {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
-        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>='" //
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'" //
-                + " AND TIME<='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate()))
-                + "' ORDER BY time DESC"));
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID, params);
+        assertThat(sql,
+                is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=? ORDER BY time DESC"));
+        assertThat(params, is(List.of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"),
+                java.sql.Timestamp.valueOf("2022-01-15 15:01:44"))));
     }
 
     @Test
     void testHistItemFilterQueryProviderReturnsSelectQueryWithoutWhereClauseDescendingOrderAndLimit() {
         filter.setPageSize(1);
 
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID, params);
         assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time DESC LIMIT 0,1"));
     }
 
     @Test
     void testHistItemFilterDeleteProviderReturnsDeleteQueryWithoutWhereClause() {
-        String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID);
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID, params);
         assertThat(sql, is("TRUNCATE TABLE " + DB_TABLE_NAME));
+        assertThat(params.isEmpty(), is(true));
     }
 
     @Test
@@ -205,35 +217,39 @@ public class JdbcBaseDAOTest {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
-        String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID);
-        assertThat(sql, is("DELETE FROM " + DB_TABLE_NAME + " WHERE TIME>='" //
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'" //
-                + " AND TIME<='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate()))
-                + "'"));
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID, params);
+        assertThat(sql, is("DELETE FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=?"));
+        assertThat(params, is(List.of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"),
+                java.sql.Timestamp.valueOf("2022-01-15 15:01:44"))));
     }
 
     @Test
     void testResolveTimeFilterWithNoDatesReturnsEmptyString() {
-        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID, params);
         assertThat(sql, is(""));
+        assertThat(params.isEmpty(), is(true));
     }
 
     @Test
     void testResolveTimeFilterWithStartDateOnlyReturnsWhereClause() {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
 
-        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql, is(" WHERE TIME>='"
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'"));
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID, params);
+        assertThat(sql, is(" WHERE TIME>=?"));
+        assertThat(params, is(List.of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"))));
     }
 
     @Test
     void testResolveTimeFilterWithEndDateOnlyReturnsWhereClause() {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
-        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql, is(" WHERE TIME<='"
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate())) + "'"));
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID, params);
+        assertThat(sql, is(" WHERE TIME<=?"));
+        assertThat(params, is(List.of(java.sql.Timestamp.valueOf("2022-01-15 15:01:44"))));
     }
 
     @Test
@@ -241,12 +257,88 @@ public class JdbcBaseDAOTest {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
-        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql,
-                is(" WHERE TIME>='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate()))
-                        + "'" //
-                        + " AND TIME<='"
-                        + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate())) + "'"));
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID, params);
+        assertThat(sql, is(" WHERE TIME>=? AND TIME<=?"));
+        assertThat(params, is(List.of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"),
+                java.sql.Timestamp.valueOf("2022-01-15 15:01:44"))));
+    }
+
+    @Test
+    void testHistItemFilterQueryProviderWithParamsBindsStartAndEndDate() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
+        filter.setPageSize(1);
+
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID, params);
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME
+                + " WHERE TIME>=? AND TIME<=? ORDER BY time DESC LIMIT 0,1"));
+        assertThat(params, is(List.of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"),
+                java.sql.Timestamp.valueOf("2022-01-15 15:01:44"))));
+    }
+
+    @Test
+    void testHistItemFilterDeleteProviderWithParamsBindsStartDate() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+
+        List<Object> params = new ArrayList<>();
+        String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID, params);
+        assertThat(sql, is("DELETE FROM " + DB_TABLE_NAME + " WHERE TIME>=?"));
+        assertThat(params, is(List.of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"))));
+    }
+
+    @Test
+    void testCachedSqlIsResolvedOncePerTable() {
+        ItemVO vo = new ItemVO(DB_TABLE_NAME, null);
+        vo.setValueTypes("DOUBLE", Double.class);
+        List<String> resolved = new ArrayList<>();
+        Function<ItemVO, String> provider = v -> {
+            resolved.add(v.getTableName());
+            return jdbcBaseDAO.insertItemValueProvider(v);
+        };
+
+        String first = jdbcBaseDAO.cachedSql("insert", vo, provider);
+        String second = jdbcBaseDAO.cachedSql("insert", vo, provider);
+        assertThat(second, is(first));
+        assertThat(resolved.size(), is(1));
+
+        jdbcBaseDAO.clearSqlCache();
+        jdbcBaseDAO.cachedSql("insert", vo, provider);
+        assertThat(resolved.size(), is(2));
+    }
+
+    @Test
+    void testAggregateQueryProviderWithoutBucketExpressionReturnsNull() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+
+        List<Object> params = new ArrayList<>();
+        assertThat(jdbcBaseDAO.aggregateQueryProvider(filter, 3, DB_TABLE_NAME, UTC_ZONE_ID, AggregateFunction.AVG,
+                60, params), is(nullValue()));
+    }
+
+    @Test
+    void testAggregateQueryProviderGroupsByBucket() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setOrdering(Ordering.ASCENDING);
+
+        List<Object> params = new ArrayList<>();
+        String sql = new JdbcMysqlDAO().aggregateQueryProvider(filter, 3, DB_TABLE_NAME, UTC_ZONE_ID,
+                AggregateFunction.MAX, 60, params);
+        assertThat(sql, is("SELECT MIN(time), ROUND(MAX(value),3) FROM " + DB_TABLE_NAME
+                + " WHERE TIME>=? GROUP BY FLOOR(UNIX_TIMESTAMP(time) / ?) ORDER BY 1 ASC"));
+        assertThat(params, is(List.of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"), 60L)));
+    }
+
+    @Test
+    void testAggregateQueryProviderSelectsLastValueOfBucket() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+
+        List<Object> params = new ArrayList<>();
+        String sql = new JdbcMysqlDAO().aggregateQueryProvider(filter, -1, DB_TABLE_NAME, UTC_ZONE_ID,
+                AggregateFunction.LAST, 60, params);
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE time IN (SELECT MAX(time) FROM "
+                + DB_TABLE_NAME + " WHERE TIME>=? GROUP BY FLOOR(UNIX_TIMESTAMP(time) / ?)) ORDER BY time DESC"));
     }
 
     private ZonedDateTime parseDateTimeString(String dts) {
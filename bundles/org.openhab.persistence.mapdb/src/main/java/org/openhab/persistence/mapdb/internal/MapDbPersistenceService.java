@@ -19,13 +19,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.stream.Collectors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -47,6 +50,7 @@ import org.openhab.core.types.UnDefType;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
 import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,8 +66,9 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class }, property = Constants.SERVICE_PID
-        + "=org.openhab.mapdb")
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", configurationPolicy = ConfigurationPolicy.OPTIONAL, property = Constants.SERVICE_PID
+                + "=org.openhab.mapdb")
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_ID = "mapdb";
@@ -75,21 +80,32 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     private final ExecutorService threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("org.openhab.mapdb");
 
     /**
      * holds the local instance of the MapDB database
      */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    // values are binary encoded items, or JSON strings if they were stored by older versions
+    private @NonNullByDefault({}) Map<String, Object> map;
+
+    /**
+     * items that have been stored but not committed yet when commits are grouped, the last value per item wins
+     */
+    private final Map<String, MapDbItem> pendingItems = new LinkedHashMap<>();
+    private long commitInterval = 0;
+    private @Nullable ScheduledFuture<?> commitJob;
 
     private transient Gson mapper = new GsonBuilder().setDateFormat(DateTimeType.DATE_PATTERN_JSON_COMPAT)
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
 
     @Activate
-    public void activate() {
+    public void activate(@Nullable Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
+        commitInterval = parseCommitInterval(config == null ? null : config.get("commitInterval"));
+
         try {
             Files.createDirectories(DB_DIR);
         } catch (IOException e) {
@@ -139,17 +155,39 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                 logger.warn("MapDB persistence service activation has failed.");
             }
         }
+        if (commitInterval > 0) {
+            commitJob = scheduler.scheduleWithFixedDelay(this::commitPendingItems, commitInterval, commitInterval,
+                    TimeUnit.MILLISECONDS);
+        }
         logger.debug("MapDB persistence service is now activated");
     }
 
     @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        ScheduledFuture<?> localCommitJob = commitJob;
+        if (localCommitJob != null) {
+            localCommitJob.cancel(false);
+            commitJob = null;
+        }
         if (db != null) {
+            commitPendingItems();
             db.close();
         }
     }
 
+    private long parseCommitInterval(@Nullable Object value) {
+        if (value == null || value.toString().isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.toString().trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid commit interval '{}', committing every store", value);
+            return 0;
+        }
+    }
+
     @Override
     public String getId() {
         return SERVICE_ID;
@@ -162,8 +200,13 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream().map(this::deserialize).flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
+        Map<String, PersistenceItemInfo> itemInfo = new LinkedHashMap<>();
+        map.values().stream().map(this::deserialize).flatMap(MapDbPersistenceService::streamOptional)
+                .forEach(item -> itemInfo.put(item.getName(), item));
+        synchronized (pendingItems) {
+            itemInfo.putAll(pendingItems);
+        }
+        return Set.copyOf(itemInfo.values());
     }
 
     @Override
@@ -186,26 +229,76 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(localAlias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
+        if (commitInterval > 0) {
+            synchronized (pendingItems) {
+                pendingItems.put(localAlias, mItem);
+            }
+            logger.debug("Queued '{}' with state '{}' for the next MapDB commit", localAlias, state);
+            return;
+        }
         threadPool.submit(() -> {
-            String json = serialize(mItem);
-            map.put(localAlias, json);
+            map.put(localAlias, MapDbItemCodec.encode(mItem));
             db.commit();
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
+            logger.debug("Stored '{}' with state '{}' in MapDB database", localAlias, state);
         });
     }
 
+    /**
+     * Writes all pending items and commits them in a single transaction. The items stay pending until the commit has
+     * succeeded, so they are written again with the next commit if it fails.
+     */
+    private void commitPendingItems() {
+        Map<String, MapDbItem> items;
+        synchronized (pendingItems) {
+            if (pendingItems.isEmpty()) {
+                return;
+            }
+            items = new LinkedHashMap<>(pendingItems);
+        }
+        try {
+            items.forEach((name, item) -> map.put(name, MapDbItemCodec.encode(item)));
+            db.commit();
+            logger.debug("Committed {} items to MapDB database", items.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to commit {} items to MapDB database: {}", items.size(), e.getMessage());
+            return;
+        }
+        synchronized (pendingItems) {
+            // items stored again during the commit are newer and stay pending
+            items.forEach(pendingItems::remove);
+        }
+    }
+
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        String itemName = filter.getItemName();
+        if (itemName == null) {
+            return List.of();
+        }
+        synchronized (pendingItems) {
+            MapDbItem pendingItem = pendingItems.get(itemName);
+            if (pendingItem != null) {
+                return List.of(pendingItem);
+            }
+        }
+        Object value = map.get(itemName);
+        if (value == null) {
             return List.of();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        Optional<MapDbItem> item = deserialize(value);
         return item.isPresent() ? List.of(item.get()) : List.of();
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private Optional<MapDbItem> deserialize(Object value) {
+        if (value instanceof byte[] bytes) {
+            try {
+                return Optional.of(MapDbItemCodec.decode(bytes));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to decode stored item: {}", e.getMessage());
+                return Optional.empty();
+            }
+        }
+        return deserialize(value.toString());
     }
 
     @SuppressWarnings("null")
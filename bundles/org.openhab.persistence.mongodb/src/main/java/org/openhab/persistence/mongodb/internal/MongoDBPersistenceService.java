@@ -15,16 +15,23 @@ package org.openhab.persistence.mongodb.internal;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
@@ -50,10 +57,13 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.result.DeleteResult;
 
 /**
@@ -75,6 +85,8 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
     private String db = "";
     private String collection = "";
     private boolean collectionPerItem;
+    private int batchSize = 0;
+    private int batchInterval = 1000;
 
     private boolean initialized = false;
 
@@ -82,6 +94,16 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
     private @Nullable MongoClient cl;
 
+    // collections that are already connected and indexed, by name
+    private final Map<String, MongoCollection<Document>> collections = new ConcurrentHashMap<>();
+
+    // documents waiting to be inserted, by collection name, the oldest are dropped above MAX_PENDING_DOCUMENTS
+    private static final int MAX_PENDING_DOCUMENTS = 10000;
+    private final Map<String, List<Document>> pendingDocuments = new HashMap<>();
+    private int pendingCount = 0;
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("org.openhab.mongodb");
+    private @Nullable ScheduledFuture<?> flushJob;
+
     @Activate
     public MongoDBPersistenceService(final @Reference ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
@@ -113,19 +135,51 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         collection = dbCollection == null ? "" : dbCollection;
         collectionPerItem = dbCollection == null || dbCollection.isBlank();
 
+        batchSize = parseInt(config.get("batchSize"), 0);
+        batchInterval = Math.max(10, parseInt(config.get("batchInterval"), 1000));
+        logger.debug("MongoDB batch size {}, interval {} ms", batchSize, batchInterval);
+
         if (!tryConnectToDatabase()) {
             logger.warn("Failed to connect to MongoDB server. Trying to reconnect later.");
         }
 
+        if (batchSize > 1) {
+            flushJob = scheduler.scheduleWithFixedDelay(this::flush, batchInterval, batchInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+
         initialized = true;
     }
 
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("MongoDB persistence bundle stopping. Disconnecting from database.");
+        ScheduledFuture<?> localFlushJob = flushJob;
+        if (localFlushJob != null) {
+            localFlushJob.cancel(false);
+            flushJob = null;
+        }
+        flush();
+        synchronized (pendingDocuments) {
+            if (pendingCount > 0) {
+                logger.warn("Failed to persist {} values before stopping", pendingCount);
+            }
+        }
         disconnectFromDatabase();
     }
 
+    private int parseInt(@Nullable Object value, int defaultValue) {
+        if (value == null || value.toString().isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid number '{}' in configuration, using {}", value, defaultValue);
+            return defaultValue;
+        }
+    }
+
     @Override
     public String getId() {
         return "mongodb";
@@ -211,6 +265,10 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
      * @return The collection object when collection creation was successful. Null otherwise.
      */
     private @Nullable MongoCollection<Document> connectToCollection(String collectionName) {
+        MongoCollection<Document> cachedCollection = collections.get(collectionName);
+        if (cachedCollection != null) {
+            return cachedCollection;
+        }
         try {
             @Nullable
             MongoClient db = getDatabase();
@@ -226,6 +284,8 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             idx.append(MongoDBFields.FIELD_ITEM, 1).append(MongoDBFields.FIELD_TIMESTAMP, 1);
             mongoCollection.createIndex(idx);
 
+            // the index only has to be created once
+            collections.put(collectionName, mongoCollection);
             return mongoCollection;
         } catch (Exception e) {
             logger.error("Failed to connect to collection {}: {}", collectionName, e.getMessage(), e);
@@ -237,6 +297,7 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
      * Disconnects from the database
      */
     private synchronized void disconnectFromDatabase() {
+        collections.clear();
         MongoClient localCl = cl;
         if (localCl != null) {
             localCl.close();
@@ -344,6 +405,16 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             return;
         }
 
+        String realItemName = item.getName();
+        String collectionName = collectionPerItem ? realItemName : this.collection;
+        String name = (alias != null) ? alias : realItemName;
+        Document obj = createDocument(item, date, state, name);
+
+        if (batchSize > 1) {
+            addPendingDocument(collectionName, obj);
+            return;
+        }
+
         // Connect to mongodb server if we're not already connected
         // If we can't connect, log.
         if (!tryConnectToDatabase()) {
@@ -353,9 +424,6 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             return;
         }
 
-        String realItemName = item.getName();
-        String collectionName = collectionPerItem ? realItemName : this.collection;
-
         @Nullable
         MongoCollection<Document> collection = connectToCollection(collectionName);
 
@@ -364,25 +432,132 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             return;
         }
 
-        String name = (alias != null) ? alias : realItemName;
-        Object value = MongoDBTypeConversions.convertValue(state);
+        try {
+            collection.insertOne(obj);
+        } catch (org.bson.BsonMaximumSizeExceededException e) {
+            logger.error("Document size exceeds maximum size of 16MB. Item {} not persisted.", name);
+            throw e;
+        }
+        logger.debug("MongoDB save {}={}", name, obj.get(MongoDBFields.FIELD_VALUE));
+    }
 
+    private Document createDocument(Item item, Date date, State state, String name) {
         Document obj = new Document();
         obj.put(MongoDBFields.FIELD_ID, new ObjectId());
         obj.put(MongoDBFields.FIELD_ITEM, name);
-        obj.put(MongoDBFields.FIELD_REALNAME, realItemName);
+        obj.put(MongoDBFields.FIELD_REALNAME, item.getName());
         obj.put(MongoDBFields.FIELD_TIMESTAMP, date);
-        obj.put(MongoDBFields.FIELD_VALUE, value);
+        obj.put(MongoDBFields.FIELD_VALUE, MongoDBTypeConversions.convertValue(state));
         if (item instanceof NumberItem && state instanceof QuantityType<?>) {
             obj.put(MongoDBFields.FIELD_UNIT, ((QuantityType<?>) state).getUnit().toString());
         }
-        try {
-            collection.insertOne(obj);
-        } catch (org.bson.BsonMaximumSizeExceededException e) {
-            logger.error("Document size exceeds maximum size of 16MB. Item {} not persisted.", name);
-            throw e;
+        return obj;
+    }
+
+    /**
+     * Buffers a document until the next flush. A flush is started right away when the batch is full.
+     */
+    private void addPendingDocument(String collectionName, Document obj) {
+        boolean full;
+        synchronized (pendingDocuments) {
+            pendingDocuments.computeIfAbsent(collectionName, k -> new ArrayList<>()).add(obj);
+            pendingCount++;
+            dropOldestPendingDocuments();
+            full = pendingCount >= batchSize;
+        }
+        logger.debug("MongoDB queued {}={}", obj.get(MongoDBFields.FIELD_ITEM), obj.get(MongoDBFields.FIELD_VALUE));
+        if (full) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    /**
+     * Inserts all buffered documents with one unordered insertMany per collection.
+     */
+    private void flush() {
+        Map<String, List<Document>> documents;
+        synchronized (pendingDocuments) {
+            if (pendingDocuments.isEmpty()) {
+                return;
+            }
+            documents = new HashMap<>(pendingDocuments);
+            pendingDocuments.clear();
+            pendingCount = 0;
+        }
+
+        if (!tryConnectToDatabase()) {
+            logger.warn("mongodb: No connection to database. Cannot persist {} values yet! Will retry next time.",
+                    documents.values().stream().mapToInt(List::size).sum());
+            documents.forEach(this::requeuePendingDocuments);
+            return;
+        }
+
+        documents.forEach((collectionName, collectionDocuments) -> {
+            MongoCollection<Document> collection = connectToCollection(collectionName);
+            if (collection == null) {
+                // Logging is done in connectToCollection()
+                requeuePendingDocuments(collectionName, collectionDocuments);
+                return;
+            }
+            try {
+                // unordered, so a failing document does not stop the others
+                collection.insertMany(collectionDocuments, new InsertManyOptions().ordered(false));
+                logger.debug("MongoDB saved {} values in collection {}", collectionDocuments.size(), collectionName);
+            } catch (org.bson.BsonMaximumSizeExceededException e) {
+                insertOneByOne(collection, collectionDocuments);
+            } catch (MongoBulkWriteException e) {
+                // the errors belong to single documents, the others have been inserted
+                logger.warn("Failed to persist {} of {} values in collection {}: {}", e.getWriteErrors().size(),
+                        collectionDocuments.size(), collectionName, e.getMessage());
+            } catch (MongoException e) {
+                logger.warn("Failed to persist {} values in collection {}, will retry: {}", collectionDocuments.size(),
+                        collectionName, e.getMessage());
+                requeuePendingDocuments(collectionName, collectionDocuments);
+            }
+        });
+    }
+
+    /**
+     * Puts documents that could not be inserted back in front of the documents buffered meanwhile, so they are
+     * inserted with the next flush.
+     */
+    private void requeuePendingDocuments(String collectionName, List<Document> documents) {
+        synchronized (pendingDocuments) {
+            pendingDocuments.computeIfAbsent(collectionName, k -> new ArrayList<>()).addAll(0, documents);
+            pendingCount += documents.size();
+            dropOldestPendingDocuments();
+        }
+    }
+
+    /**
+     * Drops the oldest documents of the largest collections while more than {@link #MAX_PENDING_DOCUMENTS} are
+     * buffered. Must be called while holding the lock on {@link #pendingDocuments}.
+     */
+    private void dropOldestPendingDocuments() {
+        int dropped = 0;
+        while (pendingCount > MAX_PENDING_DOCUMENTS) {
+            List<Document> largest = Collections.max(pendingDocuments.values(), Comparator.comparingInt(List::size));
+            int count = Math.min(largest.size(), pendingCount - MAX_PENDING_DOCUMENTS);
+            largest.subList(0, count).clear();
+            pendingCount -= count;
+            dropped += count;
+        }
+        if (dropped > 0) {
+            pendingDocuments.values().removeIf(List::isEmpty);
+            logger.warn("More than {} values are waiting to be inserted, dropped the {} oldest", MAX_PENDING_DOCUMENTS,
+                    dropped);
+        }
+    }
+
+    private void insertOneByOne(MongoCollection<Document> collection, List<Document> documents) {
+        for (Document obj : documents) {
+            try {
+                collection.insertOne(obj);
+            } catch (org.bson.BsonMaximumSizeExceededException e) {
+                logger.error("Document size exceeds maximum size of 16MB. Item {} not persisted.",
+                        obj.get(MongoDBFields.FIELD_ITEM));
+            }
         }
-        logger.debug("MongoDB save {}={}", name, value);
     }
 
     @Nullable
@@ -465,6 +640,8 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
     @Override
     public boolean remove(FilterCriteria filter) {
+        // buffered documents must not survive the removal
+        flush();
         MongoCollection<Document> collection = prepareCollection(filter);
         // If collection creation failed, return nothing.
         if (collection == null) {
@@ -218,6 +218,46 @@ public class MongoDBPersistenceServiceTest {
         }
     }
 
+    /**
+     * Tests the store method of MongoDBPersistenceService with batched inserts.
+     *
+     * This test checks if values are held back until the batch is flushed and that all of them are inserted when the
+     * service is deactivated.
+     * It uses different database backends provided by the provideDatabaseBackends method.
+     *
+     * @param dbContainer The container running the MongoDB instance.
+     */
+    @ParameterizedTest
+    @MethodSource("org.openhab.persistence.mongodb.internal.DataCreationHelper#provideDatabaseBackends")
+    public void testStoreBatched(DatabaseTestContainer dbContainer) {
+        try {
+            // Preparation
+            SetupResult setupResult = DataCreationHelper.setupMongoDB("testCollection", dbContainer);
+            MongoDBPersistenceService service = setupResult.service;
+            MongoDatabase database = setupResult.database;
+
+            setupResult.config.put("batchSize", "10");
+            setupResult.config.put("batchInterval", "60000");
+            service.activate(setupResult.bundleContext, setupResult.config);
+
+            // Execution
+            service.store(DataCreationHelper.createNumberItem("TestItem1", 10.1), null);
+            service.store(DataCreationHelper.createNumberItem("TestItem2", 20.2), null);
+            service.store(DataCreationHelper.createNumberItem("TestItem3", 30.3), null);
+
+            // Verification
+            MongoCollection<Document> collection = database.getCollection("testCollection");
+            assertEquals(0, collection.countDocuments()); // Nothing is inserted before the batch is flushed
+
+            service.deactivate(1);
+
+            List<Document> documents = (ArrayList<Document>) collection.find().into(new ArrayList<>());
+            assertEquals(3, documents.size());
+        } finally {
+            dbContainer.stop();
+        }
+    }
+
     /**
      * Tests the store method of MongoDBPersistenceService with a StringItem.
      *
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.rrd4j.core.RrdDb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RRD4jDatabaseCache} keeps recently written databases open by holding an additional reference
+ * in the {@link org.rrd4j.core.RrdDbPool}. As long as a database is pinned here, requesting it from the pool does not
+ * reopen the file. Entries are evicted in least-recently-used order when the cache is full or when they have not been
+ * accessed for the configured idle time.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jDatabaseCache {
+    private final Logger logger = LoggerFactory.getLogger(RRD4jDatabaseCache.class);
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Function<String, @Nullable RrdDb> opener;
+
+    private int maxSize;
+    private long idleTimeMillis;
+
+    private static class Entry {
+        private final RrdDb db;
+        private long lastAccess;
+
+        private Entry(RrdDb db, long lastAccess) {
+            this.db = db;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * Create a new cache
+     *
+     * @param opener function to request a (pooled) database for a given name, returns {@code null} if the database
+     *            does not exist
+     * @param maxSize maximum number of databases kept open
+     * @param idleTimeMillis time after which a database that has not been accessed is closed
+     */
+    public RRD4jDatabaseCache(Function<String, @Nullable RrdDb> opener, int maxSize, long idleTimeMillis) {
+        this.opener = opener;
+        this.maxSize = maxSize;
+        this.idleTimeMillis = idleTimeMillis;
+    }
+
+    /**
+     * Update the cache limits. Surplus entries are evicted immediately.
+     *
+     * @param maxSize maximum number of databases kept open
+     * @param idleTimeMillis time after which a database that has not been accessed is closed
+     */
+    public void setLimits(int maxSize, long idleTimeMillis) {
+        List<RrdDb> evicted;
+        synchronized (this) {
+            this.maxSize = maxSize;
+            this.idleTimeMillis = idleTimeMillis;
+            evicted = evictOverflow();
+        }
+        evicted.forEach(this::close);
+    }
+
+    /**
+     * Mark a database as recently used and pin it if it is not already cached
+     *
+     * @param name the database name
+     */
+    public void touch(String name) {
+        synchronized (this) {
+            Entry entry = entries.get(name);
+            if (entry != null) {
+                entry.lastAccess = System.currentTimeMillis();
+                return;
+            }
+            if (maxSize <= 0) {
+                return;
+            }
+        }
+
+        // open outside the lock, opening a database that is not yet in the pool is I/O bound
+        RrdDb db = opener.apply(name);
+        if (db == null) {
+            return;
+        }
+
+        List<RrdDb> evicted;
+        synchronized (this) {
+            if (entries.containsKey(name)) {
+                // someone else was faster
+                evicted = List.of(db);
+            } else {
+                entries.put(name, new Entry(db, System.currentTimeMillis()));
+                evicted = evictOverflow();
+            }
+        }
+        evicted.forEach(this::close);
+    }
+
+    /**
+     * Release a database from the cache, e.g. because the file is about to be deleted
+     *
+     * @param name the database name
+     */
+    public void release(String name) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(name);
+        }
+        if (entry != null) {
+            close(entry.db);
+        }
+    }
+
+    /**
+     * Close all databases that have not been accessed for longer than the idle time
+     */
+    public void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleTimeMillis;
+        List<RrdDb> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.lastAccess < threshold) {
+                    evicted.add(entry.db);
+                    iterator.remove();
+                }
+            }
+        }
+        if (!evicted.isEmpty()) {
+            logger.trace("Closing {} idle rrd4j database(s)", evicted.size());
+        }
+        evicted.forEach(this::close);
+    }
+
+    /**
+     * Close all cached databases
+     */
+    public void clear() {
+        List<RrdDb> evicted;
+        synchronized (this) {
+            evicted = entries.values().stream().map(entry -> entry.db).toList();
+            entries.clear();
+        }
+        evicted.forEach(this::close);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private List<RrdDb> evictOverflow() {
+        List<RrdDb> evicted = new ArrayList<>();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            evicted.add(iterator.next().db);
+            iterator.remove();
+        }
+        return evicted;
+    }
+
+    private void close(RrdDb db) {
+        try {
+            db.close();
+        } catch (IOException e) {
+            logger.debug("Error closing rrd4j database: {}", e.getMessage());
+        }
+    }
+}
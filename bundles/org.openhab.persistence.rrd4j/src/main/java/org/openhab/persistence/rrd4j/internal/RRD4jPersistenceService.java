@@ -15,12 +15,14 @@ package org.openhab.persistence.rrd4j.internal;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -28,11 +30,14 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.DoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -81,10 +86,14 @@ import org.rrd4j.ConsolFun;
 import org.rrd4j.DsType;
 import org.rrd4j.core.FetchData;
 import org.rrd4j.core.FetchRequest;
+import org.rrd4j.core.RrdBackendFactory;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDb.Builder;
 import org.rrd4j.core.RrdDbPool;
 import org.rrd4j.core.RrdDef;
+import org.rrd4j.core.RrdMemoryBackendFactory;
+import org.rrd4j.core.RrdNioBackendFactory;
+import org.rrd4j.core.RrdRandomAccessFileBackendFactory;
 import org.rrd4j.core.Sample;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -113,12 +122,48 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private record StoreValue(long timestamp, double value) {
+    }
+
+    /**
+     * Snapshot of the write pipeline counters
+     *
+     * @param queuedValues number of values waiting for their timestamp to pass
+     * @param pendingWrites number of per-file write batches submitted but not yet finished
+     * @param openDatabases number of databases currently kept open by the cache
+     * @param writtenBatches total number of per-file write batches
+     * @param writtenValues total number of values written
+     * @param averageWriteMicros average duration of a per-file write batch
+     * @param maxWriteMicros maximum duration of a per-file write batch
+     */
+    public record WriteStatistics(int queuedValues, int pendingWrites, int openDatabases, long writtenBatches,
+            long writtenValues, long averageWriteMicros, long maxWriteMicros) {
+    }
+
     public static final String SERVICE_ID = "rrd4j";
 
     private static final String DEFAULT_OTHER = "default_other";
     private static final String DEFAULT_NUMERIC = "default_numeric";
     private static final String DEFAULT_QUANTIFIABLE = "default_quantifiable";
 
+    private static final String CONFIG_CACHE_SIZE = "cachesize";
+    private static final String CONFIG_CACHE_IDLE_TIME = "cacheidletime";
+    private static final String CONFIG_WRITE_THREADS = "writethreads";
+    private static final String CONFIG_BACKEND = "backend";
+    private static final String CONFIG_SNAPSHOT_INTERVAL = "snapshotinterval";
+    private static final Set<String> SERVICE_CONFIG_KEYS = Set.of(CONFIG_CACHE_SIZE, CONFIG_CACHE_IDLE_TIME,
+            CONFIG_WRITE_THREADS, CONFIG_BACKEND, CONFIG_SNAPSHOT_INTERVAL);
+
+    private static final String BACKEND_FILE = "file";
+    private static final String BACKEND_NIO = "nio";
+    private static final String BACKEND_MEMORY = "memory";
+
+    private static final int DEFAULT_CACHE_SIZE = 256;
+    private static final int DEFAULT_CACHE_IDLE_TIME = 300;
+    private static final int DEFAULT_WRITE_THREADS = 2;
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 600;
+    private static final int POOL_CAPACITY_HEADROOM = 64;
+
     private static final Set<String> SUPPORTED_TYPES = Set.of(CoreItemFactory.SWITCH, CoreItemFactory.CONTACT,
             CoreItemFactory.DIMMER, CoreItemFactory.NUMBER, CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.COLOR);
 
@@ -129,12 +174,25 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private final ConcurrentSkipListMap<Key, Double> storageMap = new ConcurrentSkipListMap<>(Key::compareTo);
 
+    private final ExecutorService[] writers;
+    private final RRD4jDatabaseCache databaseCache;
+
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final AtomicLong writtenBatches = new AtomicLong();
+    private final AtomicLong writtenValues = new AtomicLong();
+    private final AtomicLong writeTimeNanos = new AtomicLong();
+    private final AtomicLong maxWriteTimeNanos = new AtomicLong();
+
     private static final String DATASOURCE_STATE = "state";
 
     private static final Path DB_FOLDER = Path.of(OpenHAB.getUserDataFolder(), "persistence", "rrd4j").toAbsolutePath();
 
     private static final RrdDbPool DATABASE_POOL = new RrdDbPool();
 
+    private static final RrdBackendFactory FILE_BACKEND_FACTORY = new RrdRandomAccessFileBackendFactory();
+
+    private static volatile RrdBackendFactory backendFactory = FILE_BACKEND_FACTORY;
+
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
     private final ItemRegistry itemRegistry;
     private boolean active = false;
@@ -147,21 +205,86 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return DATABASE_POOL;
     }
 
+    public static RrdBackendFactory getDatabaseBackendFactory() {
+        return backendFactory;
+    }
+
     private final ScheduledFuture<?> storeJob;
+    private final ScheduledFuture<?> evictJob;
+    private final @Nullable ScheduledFuture<?> snapshotJob;
+
+    // the backend and the snapshot interval are only read on activation
+    private final String backend;
+    private final int snapshotInterval;
+    private final boolean memoryBackend;
+    private final Set<String> memoryDatabases = ConcurrentHashMap.newKeySet();
+    // guards opening, creating and loading a database, one lock per database name
+    private final Map<String, Object> databaseLocks = new ConcurrentHashMap<>();
 
     @Activate
     public RRD4jPersistenceService(final @Reference ItemRegistry itemRegistry, Map<String, Object> config) {
         this.itemRegistry = itemRegistry;
+
+        // values for the same item are always written by the same thread, so the order of samples is kept
+        int writeThreads = Math.max(1, getIntConfig(config, CONFIG_WRITE_THREADS, DEFAULT_WRITE_THREADS));
+        writers = new ExecutorService[writeThreads];
+        for (int i = 0; i < writeThreads; i++) {
+            writers[i] = Executors.newSingleThreadExecutor(new NamedThreadFactory("RRD4j-writer-" + i));
+        }
+        databaseCache = new RRD4jDatabaseCache(name -> getDB(name, false), DEFAULT_CACHE_SIZE,
+                TimeUnit.SECONDS.toMillis(DEFAULT_CACHE_IDLE_TIME));
+
+        backend = getStringConfig(config, CONFIG_BACKEND, BACKEND_FILE).trim().toLowerCase();
+        switch (backend) {
+            case BACKEND_NIO -> backendFactory = new RrdNioBackendFactory();
+            case BACKEND_MEMORY -> backendFactory = new RrdMemoryBackendFactory();
+            default -> {
+                if (!BACKEND_FILE.equals(backend)) {
+                    logger.warn("Unknown backend '{}', using '{}'", backend, BACKEND_FILE);
+                }
+                backendFactory = FILE_BACKEND_FACTORY;
+            }
+        }
+        memoryBackend = BACKEND_MEMORY.equals(backend);
+        snapshotInterval = Math.max(1, getIntConfig(config, CONFIG_SNAPSHOT_INTERVAL, DEFAULT_SNAPSHOT_INTERVAL));
+        logger.debug("Using rrd4j backend {}", backendFactory.getName());
+
         storeJob = scheduler.scheduleWithFixedDelay(() -> doStore(false), 1, 1, TimeUnit.SECONDS);
+        evictJob = scheduler.scheduleWithFixedDelay(databaseCache::evictIdle, 1, 1, TimeUnit.MINUTES);
+        if (memoryBackend) {
+            // load all existing databases, so that charts can be rendered from memory right away
+            scheduler.execute(this::loadMemoryDatabases);
+            snapshotJob = scheduler.scheduleWithFixedDelay(this::snapshotMemoryDatabases, snapshotInterval,
+                    snapshotInterval, TimeUnit.SECONDS);
+        } else {
+            snapshotJob = null;
+        }
         modified(config);
         active = true;
     }
 
     @Modified
     protected void modified(final Map<String, Object> config) {
+        if (!backend.equals(getStringConfig(config, CONFIG_BACKEND, BACKEND_FILE).trim().toLowerCase())
+                || snapshotInterval != Math.max(1,
+                        getIntConfig(config, CONFIG_SNAPSHOT_INTERVAL, DEFAULT_SNAPSHOT_INTERVAL))
+                || writers.length != Math.max(1, getIntConfig(config, CONFIG_WRITE_THREADS, DEFAULT_WRITE_THREADS))) {
+            logger.info(
+                    "Changes of the rrd4j backend, snapshot interval or write threads take effect after a restart of the add-on");
+        }
+
         // clean existing definitions
         rrdDefs.clear();
 
+        int cacheSize = Math.max(0, getIntConfig(config, CONFIG_CACHE_SIZE, DEFAULT_CACHE_SIZE));
+        int cacheIdleTime = Math.max(0, getIntConfig(config, CONFIG_CACHE_IDLE_TIME, DEFAULT_CACHE_IDLE_TIME));
+        // the cache holds a reference in the pool for each open database, the pool must be able to hold more
+        // databases than that, otherwise queries for other items would block
+        if (DATABASE_POOL.getCapacity() < cacheSize + POOL_CAPACITY_HEADROOM) {
+            DATABASE_POOL.setCapacity(cacheSize + POOL_CAPACITY_HEADROOM);
+        }
+        databaseCache.setLimits(cacheSize, TimeUnit.SECONDS.toMillis(cacheIdleTime));
+
         // add default configurations
 
         RrdDefConfig defaultNumeric = new RrdDefConfig(DEFAULT_NUMERIC);
@@ -215,6 +338,11 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 continue;
             }
 
+            if (SERVICE_CONFIG_KEYS.contains(key.toLowerCase())) {
+                // service settings, already processed
+                continue;
+            }
+
             String[] subkeys = key.split("\\.");
             if (subkeys.length != 2) {
                 logger.debug("config '{}' should have the format 'name.configkey'", key);
@@ -265,13 +393,65 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private int getIntConfig(Map<String, Object> config, String key, int defaultValue) {
+        String value = getStringConfig(config, key, Integer.toString(defaultValue));
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring illegal value '{}' for '{}', using {}", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private String getStringConfig(Map<String, Object> config, String key, String defaultValue) {
+        for (Map.Entry<String, Object> entry : config.entrySet()) {
+            if (key.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue().toString();
+            }
+        }
+        return defaultValue;
+    }
+
     @Deactivate
     protected void deactivate() {
         active = false;
         storeJob.cancel(false);
+        evictJob.cancel(false);
+        ScheduledFuture<?> snapshotJob = this.snapshotJob;
+        if (snapshotJob != null) {
+            snapshotJob.cancel(false);
+        }
 
         // make sure we really store everything
         doStore(true);
+
+        for (ExecutorService writer : writers) {
+            writer.shutdown();
+        }
+        try {
+            for (ExecutorService writer : writers) {
+                if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                    logger.warn("Timeout while waiting for pending rrd4j writes to finish.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        databaseCache.clear();
+
+        if (memoryBackend) {
+            snapshotMemoryDatabases();
+        }
+        RrdBackendFactory factory = backendFactory;
+        backendFactory = FILE_BACKEND_FACTORY;
+        if (factory instanceof RrdNioBackendFactory) {
+            try {
+                // stops the background sync of the mapped files
+                factory.close();
+            } catch (IOException e) {
+                logger.debug("Error closing rrd4j backend: {}", e.getMessage());
+            }
+        }
     }
 
     @Override
@@ -339,20 +519,44 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private void doStore(boolean force) {
         long now = System.currentTimeMillis() / 1000;
+        // collect all values that are due, grouped by database, so that each file is only requested once
+        Map<String, List<StoreValue>> batches = new LinkedHashMap<>();
         while (!storageMap.isEmpty()) {
             Key key = storageMap.firstKey();
             if (now > key.timestamp || force) {
                 // no new elements can be added for this timestamp because we are already past that time or the service
                 // requires forced storing
-                Double value = storageMap.pollFirstEntry().getValue();
-                writePointToDatabase(key.name, value, key.timestamp);
+                Map.Entry<Key, Double> entry = storageMap.pollFirstEntry();
+                if (entry == null) {
+                    break;
+                }
+                batches.computeIfAbsent(entry.getKey().name, k -> new ArrayList<>())
+                        .add(new StoreValue(entry.getKey().timestamp, entry.getValue()));
             } else {
-                return;
+                break;
             }
         }
+
+        batches.forEach((name, values) -> {
+            pendingWrites.incrementAndGet();
+            try {
+                writers[Math.floorMod(name.hashCode(), writers.length)].execute(() -> {
+                    try {
+                        writeToDatabase(name, values);
+                    } finally {
+                        pendingWrites.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pendingWrites.decrementAndGet();
+                logger.debug("Discarding {} value(s) for '{}' because the service is shutting down", values.size(),
+                        name);
+            }
+        });
     }
 
-    private synchronized void writePointToDatabase(String name, double value, long timestamp) {
+    private void writeToDatabase(String name, List<StoreValue> values) {
+        long start = System.nanoTime();
         RrdDb db = null;
         try {
             db = getDB(name, true);
@@ -363,6 +567,30 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
             return;
         }
 
+        try {
+            for (StoreValue value : values) {
+                writePointToDatabase(db, name, value.value, value.timestamp);
+            }
+        } finally {
+            if (active) {
+                // keep the file open for the next write
+                databaseCache.touch(name);
+            }
+            try {
+                db.close();
+            } catch (IOException e) {
+                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+            }
+        }
+
+        long duration = System.nanoTime() - start;
+        writtenBatches.incrementAndGet();
+        writtenValues.addAndGet(values.size());
+        writeTimeNanos.addAndGet(duration);
+        maxWriteTimeNanos.accumulateAndGet(duration, Math::max);
+    }
+
+    private void writePointToDatabase(RrdDb db, String name, double value, long timestamp) {
         ConsolFun function = getConsolidationFunction(db);
         if (function != ConsolFun.AVERAGE) {
             try {
@@ -397,13 +625,185 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         } catch (Exception e) {
             logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
         }
+    }
+
+    /**
+     * Get the current counters of the write pipeline
+     *
+     * @return a snapshot of the counters
+     */
+    public WriteStatistics getWriteStatistics() {
+        long batches = writtenBatches.get();
+        return new WriteStatistics(storageMap.size(), pendingWrites.get(), databaseCache.size(), batches,
+                writtenValues.get(), batches == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(writeTimeNanos.get() / batches),
+                TimeUnit.NANOSECONDS.toMicros(maxWriteTimeNanos.get()));
+    }
+
+    /**
+     * Close the database of an item if it is kept open by the service, e.g. before the file is deleted
+     *
+     * @param name the name of the database
+     */
+    public void releaseDatabase(String name) {
+        databaseCache.release(name);
+        memoryDatabases.remove(name);
+    }
+
+    /**
+     * Get the name of the configured database backend
+     *
+     * @return the backend name as used by rrd4j
+     */
+    public String getBackendName() {
+        return backendFactory.getName();
+    }
+
+    /**
+     * Whether the databases are kept in memory and only written to the files as snapshots
+     *
+     * @return {@code true} for the memory backend
+     */
+    public boolean isMemoryBackend() {
+        return memoryBackend;
+    }
+
+    /**
+     * Load an existing database into the memory backend and write a snapshot of it. The file based backends use the
+     * files directly, so there is nothing to migrate for them.
+     *
+     * @param filename the name of the database file
+     * @return {@code true} if the database could be loaded into memory
+     */
+    public boolean migrateDatabase(String filename) {
+        if (!memoryBackend) {
+            return false;
+        }
+        String name = filename.endsWith(".rrd") ? filename.substring(0, filename.lastIndexOf(".rrd")) : filename;
+        RrdDb db = getDB(name, false);
+        if (db == null) {
+            return false;
+        }
         try {
-            db.close();
+            writeSnapshot(name, db);
+            return true;
         } catch (IOException e) {
-            logger.debug("Error closing rrd4j database: {}", e.getMessage());
+            logger.warn("Failed to write snapshot of rrd4j database '{}': {}", name, e.getMessage());
+            return false;
+        } finally {
+            try {
+                db.close();
+            } catch (IOException e) {
+                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Verify the integrity of a database file
+     *
+     * @param name the name of the database
+     * @return a list of problems, empty if the database is fine
+     */
+    public List<String> verifyDatabase(String name) {
+        Path path = getDatabasePath(name);
+        if (!Files.exists(path)) {
+            return List.of("file not found");
+        }
+        List<String> problems = new ArrayList<>();
+        try (RrdDb fileDb = RrdDb.getBuilder().setPath(path.toString()).setBackendFactory(FILE_BACKEND_FACTORY)
+                .setReadOnly(true).build()) {
+            if (fileDb.getDsCount() != 1 || !DATASOURCE_STATE.equals(fileDb.getDatasource(0).getName())) {
+                problems.add("unexpected datasources");
+            }
+            if (fileDb.getArcCount() == 0) {
+                problems.add("no archives");
+            }
+            long now = System.currentTimeMillis() / 1000;
+            if (fileDb.getLastUpdateTime() > now + fileDb.getHeader().getStep()) {
+                problems.add("last update is in the future");
+            }
+            if (memoryBackend && memoryDatabases.contains(name)) {
+                RrdDb memoryDb = getDB(name, false);
+                if (memoryDb != null) {
+                    try {
+                        if (memoryDb.getLastUpdateTime() < fileDb.getLastUpdateTime()) {
+                            problems.add("memory database is older than file");
+                        }
+                    } finally {
+                        memoryDb.close();
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            problems.add("cannot be read: " + e.getMessage());
+        }
+        return problems;
+    }
+
+    private void loadMemoryDatabases() {
+        for (String filename : getRrdFiles()) {
+            RrdDb db = getDB(filename.substring(0, filename.lastIndexOf(".rrd")), false);
+            if (db != null) {
+                try {
+                    db.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing rrd4j database: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void snapshotMemoryDatabases() {
+        for (String name : memoryDatabases) {
+            RrdDb db = getDB(name, false);
+            if (db == null) {
+                continue;
+            }
+            try {
+                writeSnapshot(name, db);
+            } catch (IOException e) {
+                logger.warn("Failed to write snapshot of rrd4j database '{}': {}", name, e.getMessage());
+            } finally {
+                try {
+                    db.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing rrd4j database: {}", e.getMessage());
+                }
+            }
         }
     }
 
+    private void writeSnapshot(String name, RrdDb db) throws IOException {
+        // the memory backend uses the same layout as the file, so the raw bytes are a valid rrd4j file
+        Path path = getDatabasePath(name);
+        Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmpPath, db.getBytes());
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.trace("Wrote snapshot of rrd4j database '{}'", name);
+    }
+
+    private boolean isInMemory(String alias, Path path) throws IOException {
+        return memoryDatabases.contains(alias) || loadIntoMemory(alias, path);
+    }
+
+    private boolean loadIntoMemory(String alias, Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (RrdDb fileDb = RrdDb.getBuilder().setPath(path.toString()).setBackendFactory(FILE_BACKEND_FACTORY)
+                .setReadOnly(true).build()) {
+            RrdDef rrdDef = fileDb.getRrdDef();
+            rrdDef.setPath(path.toString());
+            try (RrdDb memoryDb = RrdDb.getBuilder().setPool(DATABASE_POOL).setBackendFactory(backendFactory)
+                    .setRrdDef(rrdDef).build()) {
+                fileDb.copyStateTo(memoryDb);
+            }
+        }
+        memoryDatabases.add(alias);
+        logger.debug("Loaded rrd4j database '{}' into memory", alias);
+        return true;
+    }
+
     @Override
     public void store(Item item) {
         store(item, null);
@@ -538,39 +938,47 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
-        RrdDb db = null;
-        Path path = getDatabasePath(alias);
-        try {
-            Builder builder = RrdDb.getBuilder();
-            builder.setPool(DATABASE_POOL);
-
-            if (Files.exists(path)) {
-                // recreate the RrdDb instance from the file
-                builder.setPath(path.toString());
-                db = builder.build();
-            } else if (createFileIfAbsent) {
-                if (!Files.exists(DB_FOLDER)) {
-                    Files.createDirectories(DB_FOLDER);
-                }
-                RrdDef rrdDef = getRrdDef(alias, path);
-                if (rrdDef != null) {
-                    // create a new database file
-                    builder.setRrdDef(rrdDef);
+    protected @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
+        // only opening the same database is serialized, so that writers of different files do not wait for each other
+        synchronized (databaseLocks.computeIfAbsent(alias, name -> new Object())) {
+            RrdDb db = null;
+            Path path = getDatabasePath(alias);
+            try {
+                Builder builder = RrdDb.getBuilder();
+                builder.setPool(DATABASE_POOL);
+                builder.setBackendFactory(backendFactory);
+
+                boolean exists = memoryBackend ? isInMemory(alias, path) : Files.exists(path);
+                if (exists) {
+                    // recreate the RrdDb instance from the file
+                    builder.setPath(path.toString());
                     db = builder.build();
-                } else {
-                    logger.debug(
-                            "Did not create rrd4j database for item '{}' since no rrd definition could be determined. This is likely due to an unsupported item type.",
-                            alias);
+                } else if (createFileIfAbsent) {
+                    if (!Files.exists(DB_FOLDER)) {
+                        Files.createDirectories(DB_FOLDER);
+                    }
+                    RrdDef rrdDef = getRrdDef(alias, path);
+                    if (rrdDef != null) {
+                        // create a new database file
+                        builder.setRrdDef(rrdDef);
+                        db = builder.build();
+                        if (memoryBackend) {
+                            memoryDatabases.add(alias);
+                        }
+                    } else {
+                        logger.debug(
+                                "Did not create rrd4j database for item '{}' since no rrd definition could be determined. This is likely due to an unsupported item type.",
+                                alias);
+                    }
                 }
+            } catch (IOException e) {
+                logger.error("Could not create rrd4j database file '{}': {}", path, e.getMessage());
+            } catch (RejectedExecutionException e) {
+                // this happens if the system is shut down
+                logger.debug("Could not create rrd4j database file '{}': {}", path, e.getMessage());
             }
-        } catch (IOException e) {
-            logger.error("Could not create rrd4j database file '{}': {}", path, e.getMessage());
-        } catch (RejectedExecutionException e) {
-            // this happens if the system is shut down
-            logger.debug("Could not create rrd4j database file '{}': {}", path, e.getMessage());
+            return db;
         }
-        return db;
     }
 
     private @Nullable RrdDefConfig getRrdDefConfig(String itemName) {
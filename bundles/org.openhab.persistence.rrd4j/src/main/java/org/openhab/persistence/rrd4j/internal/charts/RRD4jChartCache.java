@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal.charts;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link RRD4jChartCache} holds encoded chart images. The cache is bounded by the number of entries and by the
+ * total size of the images, the least recently used entries are evicted first. Each entry expires at a given time,
+ * usually the next step boundary of the archive the chart is rendered from.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jChartCache {
+
+    /**
+     * An encoded chart
+     *
+     * @param data the encoded image
+     * @param etag the entity tag of the image
+     * @param expires the time (epoch milliseconds) after which the image is outdated
+     */
+    public record Chart(byte[] data, String etag, long expires) {
+    }
+
+    private final Map<String, Chart> charts = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private long bytes = 0;
+
+    public RRD4jChartCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get a chart from the cache
+     *
+     * @param key the cache key
+     * @return the chart or {@code null} if it is not cached or expired
+     */
+    public synchronized @Nullable Chart get(String key) {
+        Chart chart = charts.get(key);
+        if (chart != null && chart.expires() <= System.currentTimeMillis()) {
+            charts.remove(key);
+            bytes -= chart.data().length;
+            chart = null;
+        }
+        if (chart == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return chart;
+    }
+
+    /**
+     * Add a chart to the cache
+     *
+     * @param key the cache key
+     * @param data the encoded image
+     * @param expires the time (epoch milliseconds) after which the image is outdated
+     * @return the cached chart
+     */
+    public synchronized Chart put(String key, byte[] data, long expires) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        Chart chart = new Chart(data, "\"" + Long.toHexString(crc.getValue()) + "-" + data.length + "\"", expires);
+        if (data.length > maxBytes || expires <= System.currentTimeMillis()) {
+            return chart;
+        }
+
+        Chart old = charts.put(key, chart);
+        if (old != null) {
+            bytes -= old.data().length;
+        }
+        bytes += data.length;
+
+        Iterator<Chart> iterator = charts.values().iterator();
+        while (iterator.hasNext() && (charts.size() > maxEntries || bytes > maxBytes)) {
+            Chart eldest = iterator.next();
+            if (eldest == chart) {
+                break;
+            }
+            iterator.remove();
+            bytes -= eldest.data().length;
+        }
+        return chart;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return charts.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+}
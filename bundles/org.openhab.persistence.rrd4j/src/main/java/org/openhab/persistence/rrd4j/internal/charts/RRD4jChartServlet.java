@@ -17,12 +17,16 @@ import static java.util.Map.entry;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.imageio.ImageIO;
 import javax.servlet.Servlet;
@@ -30,6 +34,8 @@ import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -41,6 +47,7 @@ import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.ui.chart.ChartProvider;
 import org.openhab.core.ui.items.ItemUIRegistry;
 import org.openhab.persistence.rrd4j.internal.RRD4jPersistenceService;
+import org.openhab.persistence.rrd4j.internal.charts.RRD4jChartCache.Chart;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -48,6 +55,7 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.http.HttpService;
 import org.osgi.service.http.NamespaceException;
 import org.rrd4j.ConsolFun;
+import org.rrd4j.core.RrdBackendFactory;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDb.Builder;
 import org.rrd4j.graph.RrdGraph;
@@ -66,6 +74,8 @@ import org.slf4j.LoggerFactory;
  * <li>items: A comma separated list of item names to display
  * <li>groups: A comma separated list of group names, whose members should be displayed
  * </ul>
+ * Rendered charts are cached until the next step of the archive they are rendered from and are sent with an ETag, so
+ * clients can revalidate them with If-None-Match.
  *
  * @author Kai Kreuzer - Initial contribution
  * @author Chris Jackson - a few improvements
@@ -73,7 +83,7 @@ import org.slf4j.LoggerFactory;
  *
  */
 @NonNullByDefault
-@Component(service = ChartProvider.class)
+@Component(service = { ChartProvider.class, RRD4jChartServlet.class })
 public class RRD4jChartServlet implements Servlet, ChartProvider {
 
     private final Logger logger = LoggerFactory.getLogger(RRD4jChartServlet.class);
@@ -103,9 +113,13 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
             entry("Y", Duration.ofDays(365))//
     );
 
+    private static final int CACHE_MAX_ENTRIES = 64;
+    private static final long CACHE_MAX_BYTES = 8 * 1024 * 1024;
+
     private final HttpService httpService;
     private final ItemUIRegistry itemUIRegistry;
     private final TimeZoneProvider timeZoneProvider;
+    private final RRD4jChartCache chartCache = new RRD4jChartCache(CACHE_MAX_ENTRIES, CACHE_MAX_BYTES);
 
     @Activate
     public RRD4jChartServlet(final @Reference HttpService httpService, final @Reference ItemUIRegistry itemUIRegistry,
@@ -138,17 +152,40 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         int height = parseInt(req.getParameter("h"), DEFAULT_HEIGHT);
         String periodParam = req.getParameter("period");
         Duration period = periodParam == null ? DEFAULT_PERIOD : PERIODS.getOrDefault(periodParam, DEFAULT_PERIOD);
-
-        // Create the start and stop time
-        ZonedDateTime timeEnd = ZonedDateTime.now(timeZoneProvider.getTimeZone());
-        ZonedDateTime timeBegin = timeEnd.minus(period);
+        String items = req.getParameter("items");
+        String groups = req.getParameter("groups");
 
         try {
-            BufferedImage chart = createChart(null, null, timeBegin, timeEnd, height, width, req.getParameter("items"),
-                    req.getParameter("groups"), null, null);
+            // the key contains the resolved items, so that a chart of a group is rendered again when its members change
+            List<Item> chartItems = getChartItems(items, groups);
+            String key = chartItems.stream().map(Item::getName).collect(Collectors.joining(",")) + "|"
+                    + period.getSeconds() + "|" + width + "|" + height;
+            Chart chart = chartCache.get(key);
+            if (chart == null) {
+                // Create the start and stop time
+                ZonedDateTime timeEnd = ZonedDateTime.now(timeZoneProvider.getTimeZone());
+                ZonedDateTime timeBegin = timeEnd.minus(period);
+
+                BufferedImage image = createChart(timeBegin, timeEnd, height, width, chartItems);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(image, getChartType().toString(), out);
+                chart = chartCache.put(key, out.toByteArray(), getExpiry(chartItems, period, width));
+            }
+
+            if (req instanceof HttpServletRequest httpReq && res instanceof HttpServletResponse httpRes) {
+                long maxAge = Math.max(0, (chart.expires() - System.currentTimeMillis()) / 1000);
+                httpRes.setHeader("ETag", chart.etag());
+                httpRes.setHeader("Cache-Control", "private, max-age=" + maxAge);
+                if (matchesETag(chart.etag(), httpReq.getHeader("If-None-Match"))) {
+                    httpRes.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return;
+                }
+            }
+
             // Set the content type to that provided by the chart provider
             res.setContentType("image/" + getChartType());
-            ImageIO.write(chart, getChartType().toString(), res.getOutputStream());
+            res.setContentLength(chart.data().length);
+            res.getOutputStream().write(chart.data());
         } catch (ItemNotFoundException e) {
             logger.debug("Item not found error while generating chart", e);
             throw new ServletException("Item not found error while generating chart: " + e.getMessage());
@@ -158,6 +195,113 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         }
     }
 
+    /**
+     * Get the time until which a chart of the given items does not change. This is the next step boundary of the
+     * archive the chart is rendered from, the consolidated values can not change before that.
+     *
+     * @param items the items in the chart
+     * @param period the time span of the chart
+     * @param width the width of the chart in pixels
+     * @return the expiry time in epoch milliseconds
+     */
+    private long getExpiry(List<Item> items, Duration period, int width) {
+        long periodSeconds = period.getSeconds();
+        long resolution = periodSeconds / Math.max(1, width);
+        long expiryStep = Long.MAX_VALUE;
+        for (Item item : items) {
+            Builder builder = RrdDb.getBuilder();
+            builder.setPool(RRD4jPersistenceService.getDatabasePool());
+            builder.setBackendFactory(RRD4jPersistenceService.getDatabaseBackendFactory());
+            builder.setPath(RRD4jPersistenceService.getDatabasePath(item.getName()).toString());
+            try (RrdDb db = builder.build()) {
+                // rrd4j uses the finest archive that covers the requested period and resolution
+                long fineStep = 0;
+                long coarseStep = Long.MAX_VALUE;
+                for (int i = 0; i < db.getArcCount(); i++) {
+                    long arcStep = db.getArchive(i).getArcStep();
+                    if (arcStep * db.getArchive(i).getRows() < periodSeconds) {
+                        continue;
+                    }
+                    if (arcStep <= resolution) {
+                        fineStep = Math.max(fineStep, arcStep);
+                    } else {
+                        coarseStep = Math.min(coarseStep, arcStep);
+                    }
+                }
+                expiryStep = Math.min(expiryStep, fineStep > 0 ? fineStep : coarseStep);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Could not determine archive step for '{}': {}", item.getName(), e.getMessage());
+                return 0;
+            }
+        }
+        if (expiryStep == Long.MAX_VALUE) {
+            return 0;
+        }
+        long now = System.currentTimeMillis() / 1000;
+        return (now / expiryStep + 1) * expiryStep * 1000;
+    }
+
+    /**
+     * Check whether an If-None-Match header matches the entity tag of a chart. The header may contain a list of
+     * entity tags, weak entity tags or {@code *}.
+     *
+     * @param etag the entity tag of the chart
+     * @param ifNoneMatch the value of the header
+     * @return {@code true} if the client already has the chart
+     */
+    static boolean matchesETag(String etag, @Nullable String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                // If-None-Match uses the weak comparison
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of chart requests that were answered from the cache
+     *
+     * @return the number of cache hits
+     */
+    public long getCacheHits() {
+        return chartCache.getHits();
+    }
+
+    /**
+     * Get the number of chart requests that required rendering the chart
+     *
+     * @return the number of cache misses
+     */
+    public long getCacheMisses() {
+        return chartCache.getMisses();
+    }
+
+    /**
+     * Get the number of charts in the cache
+     *
+     * @return the number of cached charts
+     */
+    public int getCachedCharts() {
+        return chartCache.size();
+    }
+
+    /**
+     * Get the total size of the charts in the cache
+     *
+     * @return the size in bytes
+     */
+    public long getCachedBytes() {
+        return chartCache.getBytes();
+    }
+
     private int parseInt(@Nullable String s, int defaultValue) {
         if (s == null) {
             return defaultValue;
@@ -183,6 +327,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         Color color = LINECOLORS[counter % LINECOLORS.length];
         String label = itemUIRegistry.getLabel(item.getName());
         String rrdName = RRD4jPersistenceService.getDatabasePath(item.getName()).toString();
+        RrdBackendFactory backendFactory = RRD4jPersistenceService.getDatabaseBackendFactory();
         ConsolFun consolFun;
         if (label != null && label.contains("[") && label.contains("]")) {
             label = label.substring(0, label.indexOf('['));
@@ -190,6 +335,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         try {
             Builder builder = RrdDb.getBuilder();
             builder.setPool(RRD4jPersistenceService.getDatabasePool());
+            builder.setBackendFactory(backendFactory);
             builder.setPath(rrdName);
 
             RrdDb db = builder.build();
@@ -200,11 +346,11 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         }
         if (item instanceof NumberItem) {
             // we only draw a line
-            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun); // RRD4jService.getConsolidationFunction(item));
+            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun, backendFactory);
             graphDef.line(Integer.toString(counter), color, label, 2);
         } else {
             // we draw a line and fill the area beneath it with a transparent color
-            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun); // RRD4jService.getConsolidationFunction(item));
+            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun, backendFactory);
             Color areaColor = AREACOLORS[counter % LINECOLORS.length];
 
             graphDef.area(Integer.toString(counter), areaColor);
@@ -242,23 +388,17 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     public BufferedImage createChart(@Nullable String service, @Nullable String theme, ZonedDateTime startTime,
             ZonedDateTime endTime, int height, int width, @Nullable String items, @Nullable String groups,
             @Nullable Integer dpi, @Nullable Boolean legend) throws ItemNotFoundException {
-        RrdGraphDef graphDef = new RrdGraphDef(startTime.toEpochSecond(), endTime.toEpochSecond());
-        graphDef.setWidth(width);
-        graphDef.setHeight(height);
-        graphDef.setAntiAliasing(true);
-        graphDef.setImageFormat("PNG");
-        graphDef.setTextAntiAliasing(true);
-        graphDef.setFont(FontTag.TITLE, new Font("SansSerif", Font.PLAIN, 15));
-        graphDef.setFont(FontTag.DEFAULT, new Font("SansSerif", Font.PLAIN, 11));
+        return createChart(startTime, endTime, height, width, getChartItems(items, groups));
+    }
 
-        int seriesCounter = 0;
+    private List<Item> getChartItems(@Nullable String items, @Nullable String groups) throws ItemNotFoundException {
+        List<Item> chartItems = new ArrayList<>();
 
         // Loop through all the items
         if (items != null) {
             String[] itemNames = items.split(",");
             for (String itemName : itemNames) {
-                Item item = itemUIRegistry.getItem(itemName);
-                addLine(graphDef, item, seriesCounter++);
+                chartItems.add(itemUIRegistry.getItem(itemName));
             }
         }
 
@@ -268,14 +408,32 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
             for (String groupName : groupNames) {
                 Item item = itemUIRegistry.getItem(groupName);
                 if (item instanceof GroupItem groupItem) {
-                    for (Item member : groupItem.getMembers()) {
-                        addLine(graphDef, member, seriesCounter++);
-                    }
+                    chartItems.addAll(groupItem.getMembers());
                 } else {
                     throw new ItemNotFoundException("Item '" + item.getName() + "' defined in groups is not a group.");
                 }
             }
         }
+        return chartItems;
+    }
+
+    private BufferedImage createChart(ZonedDateTime startTime, ZonedDateTime endTime, int height, int width,
+            List<Item> items) {
+        RrdGraphDef graphDef = new RrdGraphDef(startTime.toEpochSecond(), endTime.toEpochSecond());
+        graphDef.setWidth(width);
+        graphDef.setHeight(height);
+        graphDef.setAntiAliasing(true);
+        graphDef.setImageFormat("PNG");
+        // share the open databases with the persistence service instead of reading the files again
+        graphDef.setPool(RRD4jPersistenceService.getDatabasePool());
+        graphDef.setTextAntiAliasing(true);
+        graphDef.setFont(FontTag.TITLE, new Font("SansSerif", Font.PLAIN, 15));
+        graphDef.setFont(FontTag.DEFAULT, new Font("SansSerif", Font.PLAIN, 11));
+
+        int seriesCounter = 0;
+        for (Item item : items) {
+            addLine(graphDef, item, seriesCounter++);
+        }
 
         // Write the chart as a PNG image
         try {
@@ -31,9 +31,12 @@ import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.persistence.PersistenceService;
 import org.openhab.core.persistence.PersistenceServiceRegistry;
 import org.openhab.persistence.rrd4j.internal.RRD4jPersistenceService;
+import org.openhab.persistence.rrd4j.internal.charts.RRD4jChartServlet;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 
 /**
  * The {@link RRD4jCommandExtension} is responsible for handling console commands
@@ -47,12 +50,19 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
     private static final String CMD_LIST = "list";
     private static final String CMD_CHECK = "check";
     private static final String CMD_CLEAN = "clean";
-    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(List.of(CMD_LIST, CMD_CHECK, CMD_CLEAN),
-            false);
+    private static final String CMD_STATS = "stats";
+    private static final String CMD_VERIFY = "verify";
+    private static final String CMD_MIGRATE = "migrate";
+    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(
+            List.of(CMD_LIST, CMD_CHECK, CMD_CLEAN, CMD_STATS, CMD_VERIFY, CMD_MIGRATE), false);
 
     private final PersistenceServiceRegistry persistenceServiceRegistry;
     private final ItemRegistry itemRegistry;
 
+    // the chart servlet requires the HTTP service, so the console commands must not depend on it
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    private volatile @Nullable RRD4jChartServlet chartServlet;
+
     @Activate
     public RRD4jCommandExtension(final @Reference PersistenceServiceRegistry persistenceServiceRegistry,
             final @Reference ItemRegistry itemRegistry) {
@@ -81,6 +91,15 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
         } else if (args.length >= 1 && args.length <= 2 && CMD_CLEAN.equalsIgnoreCase(args[0])) {
             checkAndClean(persistenceService, console, args.length == 2 ? args[1] : null, false);
             return;
+        } else if (args.length == 1 && CMD_STATS.equalsIgnoreCase(args[0])) {
+            printStatistics(persistenceService, console);
+            return;
+        } else if (args.length >= 1 && args.length <= 2 && CMD_VERIFY.equalsIgnoreCase(args[0])) {
+            verify(persistenceService, console, args.length == 2 ? args[1] : null);
+            return;
+        } else if (args.length >= 1 && args.length <= 2 && CMD_MIGRATE.equalsIgnoreCase(args[0])) {
+            migrate(persistenceService, console, args.length == 2 ? args[1] : null);
+            return;
         }
         printUsage(console);
     }
@@ -125,7 +144,10 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
                 if (checkOnly) {
                     console.println("  - " + filename + ": no item found");
                     nb++;
-                } else if (path.toFile().delete()) {
+                    continue;
+                }
+                persistenceService.releaseDatabase(name);
+                if (path.toFile().delete()) {
                     console.println("  - " + filename + ": file deleted");
                     nb++;
                 } else {
@@ -136,11 +158,76 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
         console.println(nb + " files " + (checkOnly ? "to delete." : "deleted."));
     }
 
+    private List<String> getFilenames(RRD4jPersistenceService persistenceService, @Nullable String itemName) {
+        if (itemName != null) {
+            return List.of(itemName + ".rrd");
+        }
+        List<String> filenames = persistenceService.getRrdFiles();
+        Collections.sort(filenames, Comparator.naturalOrder());
+        return filenames;
+    }
+
+    private void verify(RRD4jPersistenceService persistenceService, Console console, @Nullable String itemName) {
+        console.println("Verifying RRD files...");
+        int nb = 0;
+        for (String filename : getFilenames(persistenceService, itemName)) {
+            String name = filename.substring(0, filename.lastIndexOf(".rrd"));
+            List<String> problems = persistenceService.verifyDatabase(name);
+            if (!problems.isEmpty()) {
+                console.println("  - " + filename + ": " + String.join(", ", problems));
+                nb++;
+            }
+        }
+        console.println(nb + " files with problems.");
+    }
+
+    private void migrate(RRD4jPersistenceService persistenceService, Console console, @Nullable String itemName) {
+        if (!persistenceService.isMemoryBackend()) {
+            console.println("Nothing to migrate, the backend " + persistenceService.getBackendName()
+                    + " uses the RRD files directly.");
+            return;
+        }
+        console.println("Migrating RRD files to backend " + persistenceService.getBackendName() + "...");
+        int nb = 0;
+        for (String filename : getFilenames(persistenceService, itemName)) {
+            if (persistenceService.migrateDatabase(filename)) {
+                nb++;
+            } else {
+                console.println("  - " + filename + ": migration failed!");
+            }
+        }
+        console.println(nb + " files migrated.");
+    }
+
+    private void printStatistics(RRD4jPersistenceService persistenceService, Console console) {
+        RRD4jPersistenceService.WriteStatistics statistics = persistenceService.getWriteStatistics();
+        console.println("Write statistics...");
+        console.println("  - queued values: " + statistics.queuedValues());
+        console.println("  - pending writes: " + statistics.pendingWrites());
+        console.println("  - open databases: " + statistics.openDatabases());
+        console.println("  - written batches: " + statistics.writtenBatches());
+        console.println("  - written values: " + statistics.writtenValues());
+        console.println("  - average write time: " + statistics.averageWriteMicros() + " µs");
+        console.println("  - maximum write time: " + statistics.maxWriteMicros() + " µs");
+
+        RRD4jChartServlet localChartServlet = chartServlet;
+        if (localChartServlet != null) {
+            console.println("Chart cache statistics...");
+            console.println("  - cached charts: " + localChartServlet.getCachedCharts());
+            console.println("  - cached bytes: " + localChartServlet.getCachedBytes());
+            console.println("  - cache hits: " + localChartServlet.getCacheHits());
+            console.println("  - cache misses: " + localChartServlet.getCacheMisses());
+        }
+    }
+
     @Override
     public List<String> getUsages() {
         return List.of(buildCommandUsage(CMD_LIST, "list Round Robin Database files"),
                 buildCommandUsage(CMD_CHECK, "check for RRD files without existing item"),
-                buildCommandUsage(CMD_CLEAN + " [<itemName>]", "delete RRD files without existing item"));
+                buildCommandUsage(CMD_CLEAN + " [<itemName>]", "delete RRD files without existing item"),
+                buildCommandUsage(CMD_STATS, "show write queue, write latency and chart cache statistics"),
+                buildCommandUsage(CMD_VERIFY + " [<itemName>]", "verify the integrity of RRD files"),
+                buildCommandUsage(CMD_MIGRATE + " [<itemName>]", "load RRD files into the memory backend"));
     }
 
     @Override
@@ -153,7 +240,8 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
         if (cursorArgumentIndex <= 0) {
             return CMD_COMPLETER.complete(args, cursorArgumentIndex, cursorPosition, candidates);
         } else if (cursorArgumentIndex == 1) {
-            if (CMD_CLEAN.equalsIgnoreCase(args[0])) {
+            if (CMD_CLEAN.equalsIgnoreCase(args[0]) || CMD_VERIFY.equalsIgnoreCase(args[0])
+                    || CMD_MIGRATE.equalsIgnoreCase(args[0])) {
                 RRD4jPersistenceService persistenceService = getPersistenceService();
                 if (persistenceService != null) {
                     List<String> filenames = persistenceService.getRrdFiles().stream()
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal.charts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.persistence.rrd4j.internal.charts.RRD4jChartCache.Chart;
+
+/**
+ * Tests the {@link RRD4jChartCache}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jChartCacheTest {
+    private static final long FUTURE = Long.MAX_VALUE;
+
+    @Test
+    public void cachedChartIsReturned() {
+        RRD4jChartCache cache = new RRD4jChartCache(10, 1000);
+        Chart chart = cache.put("a", new byte[] { 1, 2, 3 }, FUTURE);
+
+        assertSame(chart, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(3, cache.getBytes());
+    }
+
+    @Test
+    public void expiredChartIsRemoved() {
+        RRD4jChartCache cache = new RRD4jChartCache(10, 1000);
+        Chart chart = cache.put("a", new byte[10], System.currentTimeMillis() - 1);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+        // the chart is still handed out to the caller
+        assertEquals(10, chart.data().length);
+    }
+
+    @Test
+    public void etagDependsOnContent() {
+        RRD4jChartCache cache = new RRD4jChartCache(10, 1000);
+        String first = cache.put("a", new byte[] { 1, 2, 3 }, FUTURE).etag();
+        String same = cache.put("b", new byte[] { 1, 2, 3 }, FUTURE).etag();
+        String other = cache.put("c", new byte[] { 1, 2, 4 }, FUTURE).etag();
+
+        assertEquals(first, same);
+        assertNotEquals(first, other);
+        assertTrue(first.startsWith("\"") && first.endsWith("\""));
+    }
+
+    @Test
+    public void leastRecentlyUsedChartsAreEvictedWhenBytesExceeded() {
+        RRD4jChartCache cache = new RRD4jChartCache(10, 100);
+        cache.put("a", new byte[40], FUTURE);
+        cache.put("b", new byte[40], FUTURE);
+        // "a" is now more recently used than "b"
+        assertNotNull(cache.get("a"));
+        cache.put("c", new byte[40], FUTURE);
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(80, cache.getBytes());
+    }
+
+    @Test
+    public void severalChartsAreEvictedForALargeChart() {
+        RRD4jChartCache cache = new RRD4jChartCache(10, 100);
+        cache.put("a", new byte[30], FUTURE);
+        cache.put("b", new byte[30], FUTURE);
+        cache.put("c", new byte[30], FUTURE);
+        cache.put("d", new byte[70], FUTURE);
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertNotNull(cache.get("d"));
+        assertEquals(100, cache.getBytes());
+    }
+
+    @Test
+    public void replacedChartIsCountedOnce() {
+        RRD4jChartCache cache = new RRD4jChartCache(10, 100);
+        cache.put("a", new byte[60], FUTURE);
+        cache.put("a", new byte[70], FUTURE);
+
+        assertEquals(1, cache.size());
+        assertEquals(70, cache.getBytes());
+    }
+
+    @Test
+    public void chartLargerThanTheCacheIsNotCached() {
+        RRD4jChartCache cache = new RRD4jChartCache(10, 100);
+        cache.put("a", new byte[50], FUTURE);
+        Chart chart = cache.put("b", new byte[101], FUTURE);
+
+        assertEquals(101, chart.data().length);
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertEquals(50, cache.getBytes());
+    }
+
+    @Test
+    public void leastRecentlyUsedChartIsEvictedWhenEntriesExceeded() {
+        RRD4jChartCache cache = new RRD4jChartCache(2, 1000);
+        cache.put("a", new byte[1], FUTURE);
+        cache.put("b", new byte[1], FUTURE);
+        cache.put("c", new byte[1], FUTURE);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.getBytes());
+    }
+}
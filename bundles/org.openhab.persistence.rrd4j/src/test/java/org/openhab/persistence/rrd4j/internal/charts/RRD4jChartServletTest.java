@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal.charts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the conditional requests of the {@link RRD4jChartServlet}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jChartServletTest {
+    private static final String ETAG = "\"1a2b3c-42\"";
+
+    @Test
+    public void missingHeaderDoesNotMatch() {
+        assertFalse(RRD4jChartServlet.matchesETag(ETAG, null));
+    }
+
+    @Test
+    public void sameTagMatches() {
+        assertTrue(RRD4jChartServlet.matchesETag(ETAG, "\"1a2b3c-42\""));
+    }
+
+    @Test
+    public void otherTagDoesNotMatch() {
+        assertFalse(RRD4jChartServlet.matchesETag(ETAG, "\"1a2b3c-43\""));
+        // the quotes are part of the tag
+        assertFalse(RRD4jChartServlet.matchesETag(ETAG, "1a2b3c-42"));
+    }
+
+    @Test
+    public void weakTagMatches() {
+        assertTrue(RRD4jChartServlet.matchesETag(ETAG, "W/\"1a2b3c-42\""));
+    }
+
+    @Test
+    public void wildcardMatches() {
+        assertTrue(RRD4jChartServlet.matchesETag(ETAG, "*"));
+    }
+
+    @Test
+    public void tagInListMatches() {
+        assertTrue(RRD4jChartServlet.matchesETag(ETAG, "\"0\", W/\"1a2b3c-42\",\"1\""));
+        assertFalse(RRD4jChartServlet.matchesETag(ETAG, "\"0\", W/\"1a2b3c-43\",\"1\""));
+    }
+}
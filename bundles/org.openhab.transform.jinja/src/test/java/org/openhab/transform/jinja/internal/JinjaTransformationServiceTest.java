@@ -113,4 +113,15 @@ public class JinjaTransformationServiceTest {
         // then map key is defined
         assertEquals("true", transformedResponse);
     }
+
+    @Test
+    public void testCachedTemplateWithDifferentValues() throws TransformationException {
+        // the second call renders the cached template
+        assertEquals("4.7", processor.transform("{{ value_json.temperature }}", "{\"temperature\": 4.7}"));
+        assertEquals("5.2", processor.transform("{{ value_json.temperature }}", "{\"temperature\": 5.2}"));
+        assertThrows(TransformationException.class,
+                () -> processor.transform("Hello {{{ value_json.string }}!", "{\"string\": \"world\"}"));
+        assertThrows(TransformationException.class,
+                () -> processor.transform("Hello {{{ value_json.string }}!", "{\"string\": \"world\"}"));
+    }
 }
@@ -129,4 +129,15 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testSeveralPathsOnSameSource() throws TransformationException {
+        // the second and later calls use the cached document
+        for (int i = 0; i < 3; i++) {
+            assertEquals("bob", processor.transform("$[0].name", JSON_ARRAY));
+            assertEquals("alice", processor.transform("$[1].name", new String(JSON_ARRAY)));
+            assertEquals("[1, 2]", processor.transform("$.*.id", JSON_ARRAY));
+            assertThrows(TransformationException.class, () -> processor.transform("$[5].id", JSON_ARRAY));
+        }
+    }
 }
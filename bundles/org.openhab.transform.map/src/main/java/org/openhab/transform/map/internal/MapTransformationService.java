@@ -16,6 +16,8 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.net.URI;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -34,6 +36,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.common.registry.RegistryChangeListener;
 import org.openhab.core.config.core.ConfigOptionProvider;
 import org.openhab.core.config.core.ParameterOption;
+import org.openhab.core.i18n.LocaleProvider;
 import org.openhab.core.transform.Transformation;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationRegistry;
@@ -68,12 +71,20 @@ public class MapTransformationService
 
     private final Logger logger = LoggerFactory.getLogger(MapTransformationService.class);
     private final TransformationRegistry transformationRegistry;
-    private final Map<String, Properties> cachedTransformations = new ConcurrentHashMap<>();
-    private final Map<String, Properties> cachedInlineMap = new LRUMap<>(1000);
+    private final LocaleProvider localeProvider;
+    private final Map<String, Map<String, String>> cachedTransformations = new ConcurrentHashMap<>();
+    /** maps resolved through the registry, by function name, valid as long as the registry and locale do not change */
+    private final Map<String, ResolvedMap> resolvedFunctions = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> cachedInlineMap = Collections.synchronizedMap(new LRUMap<>(1000));
+
+    private record ResolvedMap(Locale locale, Map<String, String> map) {
+    }
 
     @Activate
-    public MapTransformationService(@Reference TransformationRegistry transformationRegistry) {
+    public MapTransformationService(@Reference TransformationRegistry transformationRegistry,
+            @Reference LocaleProvider localeProvider) {
         this.transformationRegistry = transformationRegistry;
+        this.localeProvider = localeProvider;
         transformationRegistry.addRegistryChangeListener(this);
     }
 
@@ -84,11 +95,11 @@ public class MapTransformationService
 
     @Override
     public @Nullable String transform(String function, String source) throws TransformationException {
-        Properties properties = null;
+        Map<String, String> entries = null;
 
         Matcher matcher = INLINE_MAP_CONFIG_PATTERN.matcher(function);
         if (matcher.matches()) {
-            properties = cachedInlineMap.computeIfAbsent(function, f -> {
+            entries = cachedInlineMap.computeIfAbsent(function, f -> {
                 Properties props = new Properties();
                 String map = matcher.group("map").trim();
                 String delimiter = Objects.requireNonNull(Optional.ofNullable(matcher.group("delimiter"))
@@ -101,24 +112,33 @@ public class MapTransformationService
                     logger.warn("Failed to parse inline map configuration '{}': {}", map, e.getMessage());
                     return null;
                 }
-                return props;
+                return toMap(props);
             });
         } else {
-            // always get a configuration from the registry to account for changed system locale
-            Transformation transformation = transformationRegistry.get(function, null);
-            if (transformation != null) {
-                properties = cachedTransformations.get(transformation.getUID());
-                if (properties == null) {
-                    properties = importConfiguration(transformation);
+            // the registry resolves localized configurations, so a resolved map is only reused for the same locale
+            Locale locale = localeProvider.getLocale();
+            ResolvedMap resolved = resolvedFunctions.get(function);
+            if (resolved != null && resolved.locale().equals(locale)) {
+                entries = resolved.map();
+            } else {
+                Transformation transformation = transformationRegistry.get(function, null);
+                if (transformation != null) {
+                    entries = cachedTransformations.get(transformation.getUID());
+                    if (entries == null) {
+                        entries = importConfiguration(transformation);
+                    }
+                    if (entries != null) {
+                        resolvedFunctions.put(function, new ResolvedMap(locale, entries));
+                    }
                 }
             }
         }
 
-        if (properties != null) {
-            String target = properties.getProperty(source);
+        if (entries != null) {
+            String target = entries.get(source);
 
             if (target == null) {
-                target = properties.getProperty("");
+                target = entries.get("");
                 if (target == null) {
                     throw new TransformationException("Target value not found in map for '" + source + "'");
                 } else if (SOURCE_VALUE.equals(target)) {
@@ -146,23 +166,26 @@ public class MapTransformationService
 
     @Override
     public void added(Transformation element) {
-        // do nothing, configurations are added to cache if needed
+        // configurations are added to cache if needed, but the new element may be a better match for a function
+        resolvedFunctions.clear();
     }
 
     @Override
     public void removed(Transformation element) {
+        resolvedFunctions.clear();
         cachedTransformations.remove(element.getUID());
     }
 
     @Override
     public void updated(Transformation oldElement, Transformation element) {
+        resolvedFunctions.clear();
         if (cachedTransformations.remove(oldElement.getUID()) != null) {
             // import only if it was present before
             importConfiguration(element);
         }
     }
 
-    private @Nullable Properties importConfiguration(@Nullable Transformation transformation) {
+    private @Nullable Map<String, String> importConfiguration(@Nullable Transformation transformation) {
         if (transformation != null) {
             try {
                 Properties properties = new Properties();
@@ -172,14 +195,21 @@ public class MapTransformationService
                     return null;
                 }
                 properties.load(new StringReader(function));
-                cachedTransformations.put(transformation.getUID(), properties);
-                return properties;
+                Map<String, String> map = toMap(properties);
+                cachedTransformations.put(transformation.getUID(), map);
+                return map;
             } catch (IOException ignored) {
             }
         }
         return null;
     }
 
+    private static Map<String, String> toMap(Properties properties) {
+        Map<String, String> map = new HashMap<>();
+        properties.forEach((key, value) -> map.put((String) key, (String) value));
+        return Map.copyOf(map);
+    }
+
     class LRUMap<K, V> extends LinkedHashMap<K, V> {
         private final int maxEntries;
 
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Precompiled lookup structure of a scale file.
+ *
+ * All range limits are collected into a sorted array of boundaries which splits the number line into elementary
+ * intervals: the open segments between two boundaries and the boundaries themselves. Within such an interval every
+ * range of the scale either matches all values or none, so the label of the first matching range (in file order) is
+ * resolved once when the table is built. A lookup is then a binary search over the boundaries, whether the ranges of
+ * the scale overlap or not.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+class ScaleTable {
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private final BigDecimal[] boundaries;
+    /** label of interval i, where even indexes are the segments between boundaries and odd indexes the boundaries */
+    private final @Nullable String[] labels;
+    private final String format;
+    private final @Nullable String nonNumeric;
+
+    /**
+     * @param ranges ranges and their labels, in the order of the scale file
+     * @param format presentation format of the result
+     * @param nonNumeric label to use for non numeric inputs, if any
+     */
+    ScaleTable(List<Map.Entry<Range, String>> ranges, String format, @Nullable String nonNumeric) {
+        this.format = format;
+        this.nonNumeric = nonNumeric;
+
+        TreeSet<BigDecimal> limits = new TreeSet<>();
+        for (Map.Entry<Range, String> entry : ranges) {
+            Range range = entry.getKey();
+            if (range.min != null) {
+                limits.add(range.min);
+            }
+            if (range.max != null) {
+                limits.add(range.max);
+            }
+        }
+        boundaries = limits.toArray(new BigDecimal[0]);
+
+        labels = new @Nullable String[2 * boundaries.length + 1];
+        for (int i = 0; i < labels.length; i++) {
+            BigDecimal representative = representative(i);
+            for (Map.Entry<Range, String> entry : ranges) {
+                if (entry.getKey().contains(representative)) {
+                    labels[i] = entry.getValue();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a value lying inside the given elementary interval.
+     */
+    private BigDecimal representative(int interval) {
+        if (boundaries.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        if (interval % 2 == 1) {
+            return boundaries[interval / 2];
+        }
+        int upper = interval / 2;
+        if (upper == 0) {
+            return boundaries[0].subtract(BigDecimal.ONE);
+        }
+        if (upper == boundaries.length) {
+            return boundaries[upper - 1].add(BigDecimal.ONE);
+        }
+        return boundaries[upper - 1].add(boundaries[upper]).divide(TWO);
+    }
+
+    /**
+     * Returns the label of the first range containing the given value.
+     *
+     * @param value value to look up
+     * @return the label, or null if no range contains the value
+     */
+    @Nullable
+    String lookup(BigDecimal value) {
+        int index = Arrays.binarySearch(boundaries, value);
+        return labels[index >= 0 ? 2 * index + 1 : -2 * (index + 1)];
+    }
+
+    String getFormat() {
+        return format;
+    }
+
+    @Nullable
+    String getNonNumeric() {
+        return nonNumeric;
+    }
+}
@@ -154,6 +154,33 @@ public class ScaleTransformServiceTest {
         assertEquals("first", transformedResponse);
     }
 
+    @Test
+    public void testEvaluationOrderOnOverlappingBounds() throws TransformationException {
+        // ]..15[=first, [10..17[=second, [15..[=last
+        String evaluationOrder = "scale" + File.separator + "evaluationorder.scale";
+
+        assertEquals("first", processor.transform(evaluationOrder, "-1000"));
+        assertEquals("first", processor.transform(evaluationOrder, "10"));
+        assertEquals("first", processor.transform(evaluationOrder, "14.999"));
+        assertEquals("second", processor.transform(evaluationOrder, "15"));
+        assertEquals("second", processor.transform(evaluationOrder, "16.5"));
+        assertEquals("last", processor.transform(evaluationOrder, "17"));
+        assertEquals("last", processor.transform(evaluationOrder, "1e6"));
+    }
+
+    @Test
+    public void testTransformByScaleBounds() throws TransformationException {
+        // ]..10[=low, [10..20[=middle, [20..300[=high, [300..]=extreme
+        String existingscale = "scale" + File.separator + "limits.scale";
+
+        assertEquals("low", processor.transform(existingscale, "-1e6"));
+        assertEquals("low", processor.transform(existingscale, "9.99"));
+        assertEquals("middle", processor.transform(existingscale, "10.00"));
+        assertEquals("high", processor.transform(existingscale, "20"));
+        assertEquals("high", processor.transform(existingscale, "299.9"));
+        assertEquals("extreme", processor.transform(existingscale, "300"));
+    }
+
     @Test
     public void testTransformQuantityType() throws TransformationException {
         QuantityType<Dimensionless> airQuality = new QuantityType<>("992 ppm");
@@ -13,12 +13,22 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,14 +45,29 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Document builders and compiled expressions are not thread-safe, so they are kept per thread and reused.
+ * Simple absolute paths like <code>/root/child/@attribute</code> are evaluated while streaming through the
+ * document, without building a DOM.
+ *
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    private static final int EXPRESSION_CACHE_SIZE = 64;
+
+    private static final String NAME = "[A-Za-z_][A-Za-z0-9_.\\-]*";
+    private static final Pattern SIMPLE_PATH = Pattern.compile("^(/" + NAME + ")+(/@" + NAME + ")?$");
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    // only JDK classes are kept in the thread locals, so they do not hold on to this bundle
+    private final ThreadLocal<@Nullable DocumentBuilder> documentBuilders = new ThreadLocal<>();
+    private final ThreadLocal<@Nullable XMLInputFactory> inputFactories = new ThreadLocal<>();
+    private final ThreadLocal<@Nullable Map<String, XPathExpression>> expressions = new ThreadLocal<>();
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,9 +76,129 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
+        try {
+            String transformationResult = null;
+            if (SIMPLE_PATH.matcher(xpathExpression).matches()) {
+                transformationResult = evaluateStreaming(xpathExpression, source);
+            }
+            if (transformationResult == null) {
+                transformationResult = evaluate(xpathExpression, source);
+            }
+
+            logger.debug("transformation resulted in '{}'", transformationResult);
 
+            return transformationResult;
+        } catch (Exception e) {
+            throw new TransformationException("transformation throws exceptions", e);
+        }
+    }
+
+    private String evaluate(String xpathExpression, String source) throws Exception {
+        try (StringReader stringReader = new StringReader(source)) {
+            InputSource inputSource = new InputSource(stringReader);
+            inputSource.setEncoding("UTF-8");
+
+            Document doc = getDocumentBuilder().parse(inputSource);
+
+            return (String) getExpression(xpathExpression).evaluate(doc, XPathConstants.STRING);
+        }
+    }
+
+    /**
+     * Evaluates a simple absolute path without building a DOM. Like XPath, the string value of the first matching
+     * element or attribute in document order is returned, and an empty string if there is none. The whole document is
+     * read, so malformed documents fail like they do when parsed into a DOM.
+     *
+     * @return the result, or <code>null</code> if the document has to be evaluated with a DOM
+     */
+    private @Nullable String evaluateStreaming(String xpathExpression, String source) {
+        List<String> steps = List.of(xpathExpression.substring(1).split("/"));
+        String attribute = null;
+        if (steps.get(steps.size() - 1).startsWith("@")) {
+            attribute = steps.get(steps.size() - 1).substring(1);
+            steps = steps.subList(0, steps.size() - 1);
+        }
+
+        XMLStreamReader reader = null;
         try {
+            reader = getInputFactory().createXMLStreamReader(new StringReader(source));
+            String result = null;
+            StringBuilder text = null;
+            int textDepth = -1;
+            int depth = 0;
+            int matched = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.DTD:
+                        // entities declared in the document type are left to the DOM parser
+                        return null;
+                    case XMLStreamConstants.START_ELEMENT:
+                        if (result == null && text == null && matched == depth && depth < steps.size()
+                                && isUnqualified(reader.getNamespaceURI())
+                                && steps.get(depth).equals(reader.getLocalName())) {
+                            matched++;
+                            if (matched == steps.size()) {
+                                if (attribute != null) {
+                                    result = getAttribute(reader, attribute);
+                                } else {
+                                    text = new StringBuilder();
+                                    textDepth = depth;
+                                }
+                            }
+                        }
+                        depth++;
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (text != null) {
+                            text.append(reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        depth--;
+                        if (text != null && depth == textDepth) {
+                            result = text.toString();
+                            text = null;
+                        }
+                        matched = Math.min(matched, depth);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return result == null ? "" : result;
+        } catch (XMLStreamException e) {
+            // let the DOM parser report the error
+            logger.trace("streaming evaluation failed, falling back to DOM: {}", e.getMessage());
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // nothing to do
+                }
+            }
+        }
+    }
+
+    private static @Nullable String getAttribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (isUnqualified(reader.getAttributeNamespace(i)) && name.equals(reader.getAttributeLocalName(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isUnqualified(@Nullable String namespaceURI) {
+        return namespaceURI == null || namespaceURI.isEmpty();
+    }
+
+    private DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilder builder = documentBuilders.get();
+        if (builder == null) {
             DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
             // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
             domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
@@ -63,28 +208,42 @@ public class XPathTransformationService implements TransformationService {
             domFactory.setExpandEntityReferences(false);
             domFactory.setNamespaceAware(true);
             domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
-
-            stringReader = new StringReader(source);
-            InputSource inputSource = new InputSource(stringReader);
-            inputSource.setEncoding("UTF-8");
-
-            Document doc = builder.parse(inputSource);
-
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
-
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            builder = domFactory.newDocumentBuilder();
+            documentBuilders.set(builder);
+        } else {
+            builder.reset();
+        }
+        return builder;
+    }
 
-            logger.debug("transformation resulted in '{}'", transformationResult);
+    private XMLInputFactory getInputFactory() {
+        XMLInputFactory inputFactory = inputFactories.get();
+        if (inputFactory == null) {
+            inputFactory = XMLInputFactory.newFactory();
+            inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+            inputFactories.set(inputFactory);
+        }
+        return inputFactory;
+    }
 
-            return transformationResult;
-        } catch (Exception e) {
-            throw new TransformationException("transformation throws exceptions", e);
-        } finally {
-            if (stringReader != null) {
-                stringReader.close();
+    private XPathExpression getExpression(String xpathExpression) throws XPathExpressionException {
+        Map<String, XPathExpression> cache = expressions.get();
+        if (cache == null) {
+            cache = new LinkedHashMap<>();
+            expressions.set(cache);
+        }
+        XPathExpression expression = cache.get(xpathExpression);
+        if (expression == null) {
+            expression = XPathFactory.newInstance().newXPath().compile(xpathExpression);
+            if (cache.size() >= EXPRESSION_CACHE_SIZE) {
+                Iterator<String> eldest = cache.keySet().iterator();
+                eldest.next();
+                eldest.remove();
             }
+            cache.put(xpathExpression, expression);
         }
+        return expression;
     }
 }
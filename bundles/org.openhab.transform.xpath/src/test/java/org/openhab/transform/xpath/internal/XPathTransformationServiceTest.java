@@ -38,4 +38,35 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformBySimplePath() throws TransformationException {
+        assertEquals("8", processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@data", source));
+        assertEquals("Klar", processor.transform("/xml_api_reply/weather/forecast_conditions/condition/@data", source));
+        assertEquals("", processor.transform("/xml_api_reply/weather/unknown/@data", source));
+        assertEquals("", processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@unknown", source));
+    }
+
+    @Test
+    public void testTransformBySimplePathMatchesDom() throws TransformationException {
+        String xml = """
+                <root><a>first <b>nested</b><!-- comment --><![CDATA[ <cdata> ]]></a><a>second</a>\
+                <c x="1"/><c y="2"/><c y="3"/></root>""";
+        // the same expressions with a predicate are evaluated with a DOM
+        assertEquals(processor.transform("/root/a[true()]", xml), processor.transform("/root/a", xml));
+        assertEquals("first nested <cdata> ", processor.transform("/root/a", xml));
+        assertEquals(processor.transform("/root/c[true()]/@y", xml), processor.transform("/root/c/@y", xml));
+        assertEquals("2", processor.transform("/root/c/@y", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePathIgnoresNamespacedElements() throws TransformationException {
+        String xml = "<root xmlns=\"urn:test\"><a>1</a></root>";
+        assertEquals("", processor.transform("/root/a", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePathWithMalformedDocument() {
+        assertThrows(TransformationException.class, () -> processor.transform("/root/a", "<root><a>1</a><b></root>"));
+    }
 }